@@ -0,0 +1,47 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.AuditLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// Throughput of AuditLogger.log in synchronous and group-commit modes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchSupport.DB_PATH_ARG)
+public class AuditLoggerBenchmark {
+
+    @Param({"sync", "async"})
+    public String mode;
+
+    private AuditLogger audit;
+    private long seq;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        BenchSupport.clearTables();
+        audit = "async".equals(mode)
+                ? AuditLogger.async(10_000, 256, 50, AuditLogger.Backpressure.BLOCK)
+                : new AuditLogger();
+    }
+
+    @TearDown(Level.Iteration)
+    public void drain() {
+        // count only what actually reached the database
+        audit.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        audit.close();
+        BenchSupport.clearTables();
+    }
+
+    @Benchmark
+    public void log() {
+        audit.log("bench", "ADD", BenchSupport.eng(seq++), "On-hand", "New", "SUCCESS", "");
+    }
+}
@@ -0,0 +1,51 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Shared setup for the JMH benchmarks. Every benchmark fork points DB at a scratch file
+// so a run never touches data/motorph_inventory.db.
+final class BenchSupport {
+
+    static final String DB_PATH_ARG = "-Dmotorph.db.path=build/bench/bench.db";
+
+    static String eng(long i) {
+        return String.format("%010d", i);
+    }
+
+    static InventoryData record(long i) {
+        return new InventoryData("Brand" + (i % 50), eng(i), new Date(), "On-hand", "New");
+    }
+
+    static void clearTables() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    // Fills inventory with engine numbers 0 .. rows-1 (even numbers only when sparse, so
+    // odd keys are free for insert benchmarks).
+    static void populate(int rows, boolean sparse) throws Exception {
+        clearTables();
+        JdbcInventoryRepository repo = new JdbcInventoryRepository();
+        List<InventoryData> chunk = new ArrayList<>(10_000);
+        for (int i = 0; i < rows; i++) {
+            chunk.add(record(sparse ? 2L * i : i));
+            if (chunk.size() == 10_000) {
+                repo.insertAll(chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) repo.insertAll(chunk);
+    }
+
+    private BenchSupport() {}
+}
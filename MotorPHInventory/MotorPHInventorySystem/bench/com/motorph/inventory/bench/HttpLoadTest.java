@@ -0,0 +1,125 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.AuditLogger;
+import com.motorph.inventory.AuthService;
+import com.motorph.inventory.CachingInventoryRepository;
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryHttpServer;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.LatencyHistogram;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Closed-loop load test for the HTTP API: N concurrent clients, each on its own virtual
+// thread, send requests back to back for a fixed time against a server on localhost.
+// Mix: 90% search, 5% list page, 5% add. Prints throughput and latency percentiles.
+//
+//     ant http-load -Dload.args="200 20 100000"      (clients, seconds, rows)
+public final class HttpLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        int clients = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 15;
+        int rows = args.length > 2 ? Integer.parseInt(args[2]) : 100_000;
+
+        System.out.println("Populating " + rows + " rows ...");
+        BenchSupport.populate(rows, true);   // even keys exist, odd keys are free for adds
+
+        AuditLogger audit = AuditLogger.async();
+        InventoryHttpServer server = new InventoryHttpServer(new InetSocketAddress("127.0.0.1", 0),
+                new CachingInventoryRepository(new JdbcInventoryRepository(), 10_000), audit, new AuthService());
+        server.start();
+        String base = "http://127.0.0.1:" + server.getPort() + "/api/";
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        // log in once; per-request Basic auth would mostly measure password hashing
+        String authHeader = "Bearer " + login(client, base, "admin:admin123");
+
+        LatencyHistogram latency = new LatencyHistogram();
+        AtomicLong errors = new AtomicLong();
+        AtomicLong nextAdd = new AtomicLong(1);
+        long warmupEnd = System.nanoTime() + 3_000_000_000L;
+        long end = warmupEnd + seconds * 1_000_000_000L;
+
+        System.out.println("Running " + clients + " clients for " + seconds + " s (after 3 s warm-up) ...");
+        List<Thread> threads = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            threads.add(Thread.ofVirtual().start(() -> {
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < end) {
+                    HttpRequest req = nextRequest(rnd, base, authHeader, rows, nextAdd);
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+                        if (resp.statusCode() >= 500) errors.incrementAndGet();
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    if (t0 >= warmupEnd) latency.record(System.nanoTime() - t0);
+                }
+            }));
+        }
+        for (Thread t : threads) t.join();
+
+        long n = latency.getCount();
+        System.out.printf("requests=%d  throughput=%.0f req/s  errors=%d%n", n, n / (double) seconds, errors.get());
+        System.out.printf("latency ms: p50=%.2f  p90=%.2f  p99=%.2f  p99.9=%.2f  max=%.2f%n",
+                latency.getPercentileNanos(50) / 1e6, latency.getPercentileNanos(90) / 1e6,
+                latency.getPercentileNanos(99) / 1e6, latency.getPercentileNanos(99.9) / 1e6,
+                latency.getMaxNanos() / 1e6);
+
+        server.close();
+        audit.close();
+        BenchSupport.clearTables();
+        DB.shutdown();
+    }
+
+    private static String login(HttpClient client, String base, String credentials) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "session"))
+                .header("Authorization", "Basic "
+                        + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .build();
+        HttpResponse<String> resp = client.send(req, HttpResponse.BodyHandlers.ofString());
+        Matcher m = Pattern.compile("\"token\":\"([^\"]+)\"").matcher(resp.body());
+        if (resp.statusCode() != 201 || !m.find()) throw new IllegalStateException("Login failed: " + resp.body());
+        return m.group(1);
+    }
+
+    private static HttpRequest nextRequest(ThreadLocalRandom rnd, String base, String auth, int rows, AtomicLong nextAdd) {
+        int pick = rnd.nextInt(100);
+        HttpRequest.Builder b;
+        if (pick < 90) {
+            b = HttpRequest.newBuilder(URI.create(base + "inventory/" + BenchSupport.eng(2L * rnd.nextInt(rows)))).GET();
+        } else if (pick < 95) {
+            String after = BenchSupport.eng(2L * rnd.nextInt(rows));
+            b = HttpRequest.newBuilder(URI.create(base + "inventory?limit=25&after=" + after)).GET();
+        } else {
+            String eng = BenchSupport.eng(2L * rows + 2 * nextAdd.getAndIncrement() + 1);
+            b = HttpRequest.newBuilder(URI.create(base + "inventory"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("engineNumber=" + eng + "&brand=LoadTest"));
+        }
+        return b.header("Authorization", auth).timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private HttpLoadTest() {}
+}
@@ -0,0 +1,70 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.InventoryBST;
+import com.motorph.inventory.InventoryData;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Build and lookup cost of the in-memory ordered index for sequential vs random keys.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InventoryBSTBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int size;
+
+    @Param({"sequential", "random"})
+    public String order;
+
+    private InventoryData[] records;
+    private String[] probes;
+    private InventoryBST tree;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        long[] keys = new long[size];
+        for (int i = 0; i < size; i++) keys[i] = i;
+        Random rnd = new Random(42);
+        if ("random".equals(order)) {
+            for (int i = size - 1; i > 0; i--) {
+                int j = rnd.nextInt(i + 1);
+                long t = keys[i];
+                keys[i] = keys[j];
+                keys[j] = t;
+            }
+        }
+        records = new InventoryData[size];
+        for (int i = 0; i < size; i++) records[i] = BenchSupport.record(keys[i]);
+        tree = new InventoryBST();
+        for (InventoryData d : records) tree.insert(d);
+        probes = new String[4096];
+        for (int i = 0; i < probes.length; i++) probes[i] = BenchSupport.eng(rnd.nextInt(size));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public InventoryBST buildTree() {
+        InventoryBST t = new InventoryBST();
+        for (InventoryData d : records) t.insert(d);
+        return t;
+    }
+
+    @Benchmark
+    public InventoryData search() {
+        return tree.search(probes[cursor++ & (probes.length - 1)]);
+    }
+
+    @Benchmark
+    public InventoryData ceiling() {
+        return tree.ceiling(probes[cursor++ & (probes.length - 1)]);
+    }
+}
@@ -0,0 +1,51 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.ReconcileResult;
+import com.motorph.inventory.Reconciler;
+import com.motorph.inventory.SqlReconciler;
+import org.openjdk.jmh.annotations.*;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+// End-to-end reconciliation time, Java scan vs SQL pushdown, with ~1% bad rows.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = BenchSupport.DB_PATH_ARG)
+public class ReconcileBenchmark {
+
+    @Param({"10000", "100000", "500000"})
+    public int tableSize;
+
+    private JdbcInventoryRepository repo;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        repo = new JdbcInventoryRepository();
+        BenchSupport.populate(tableSize, false);
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("UPDATE inventory SET level = 'Sold' WHERE CAST(engine_number AS INTEGER) % 100 = 0");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchSupport.clearTables();
+    }
+
+    @Benchmark
+    public ReconcileResult scan() throws Exception {
+        return new Reconciler().run(repo, issue -> { });
+    }
+
+    @Benchmark
+    public ReconcileResult pushdown() throws Exception {
+        return new SqlReconciler().run(issue -> { });
+    }
+}
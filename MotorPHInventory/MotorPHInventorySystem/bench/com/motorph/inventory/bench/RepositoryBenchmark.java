@@ -0,0 +1,82 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// JdbcInventoryRepository CRUD and full-scan cost at several table sizes.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchSupport.DB_PATH_ARG)
+public class RepositoryBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int tableSize;
+
+    private JdbcInventoryRepository repo;
+    private long nextFree;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        repo = new JdbcInventoryRepository();
+        BenchSupport.populate(tableSize, true);   // even keys stored, odd keys free
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchSupport.clearTables();
+    }
+
+    private long randomStoredKey() {
+        return 2L * ThreadLocalRandom.current().nextInt(tableSize);
+    }
+
+    @Benchmark
+    public InventoryData findByEngineNumberHit() throws Exception {
+        return repo.findByEngineNumber(BenchSupport.eng(randomStoredKey()));
+    }
+
+    @Benchmark
+    public InventoryData findByEngineNumberMiss() throws Exception {
+        return repo.findByEngineNumber(BenchSupport.eng(randomStoredKey() + 1));
+    }
+
+    // insert + delete of a fresh odd key, so the table size stays constant
+    @Benchmark
+    public void insertThenDelete() throws Exception {
+        long key = 2 * (nextFree++ % tableSize) + 1;
+        repo.insert(BenchSupport.record(key));
+        repo.deleteByEngineNumber(BenchSupport.eng(key));
+    }
+
+    @Benchmark
+    public void update() throws Exception {
+        InventoryData d = BenchSupport.record(randomStoredKey())
+                .withStatusAndLevel("On-hand", ThreadLocalRandom.current().nextBoolean() ? "New" : "Sold");
+        repo.update(d);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public List<InventoryData> findAllSortedByEngineNumber() throws Exception {
+        return repo.findAllSortedByEngineNumber();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public void forEachSortedByEngineNumber(Blackhole bh) throws Exception {
+        repo.forEachSortedByEngineNumber(bh::consume);
+    }
+}
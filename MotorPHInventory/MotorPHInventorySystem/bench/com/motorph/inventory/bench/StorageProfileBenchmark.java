@@ -0,0 +1,57 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Write throughput and read latency under each StorageProfile preset.
+// JMH runs every @Param value in its own fork, so the preset is chosen before DB loads.
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StorageProfileBenchmark {
+
+    private static final int ROWS = 50_000;
+
+    @Param({"safe", "balanced", "fast"})
+    public String profile;
+
+    private JdbcInventoryRepository repo;
+    private long nextKey;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        System.setProperty("motorph.db.profile", profile);
+        System.setProperty("motorph.db.path", "build/bench/profile-" + profile + ".db");
+        System.out.println("\n[bench] " + DB.getProfile());
+        repo = new JdbcInventoryRepository();
+        BenchSupport.populate(ROWS, false);
+        nextKey = ROWS;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchSupport.clearTables();
+        DB.shutdown();
+    }
+
+    // One autocommitted insert per call: dominated by the commit/sync cost of the profile.
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OutputTimeUnit(TimeUnit.SECONDS)
+    public void insertAutocommit() throws Exception {
+        repo.insert(BenchSupport.record(nextKey++));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SampleTime)
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public InventoryData pointRead() throws Exception {
+        return repo.findByEngineNumber(BenchSupport.eng(ThreadLocalRandom.current().nextInt(ROWS)));
+    }
+}
@@ -0,0 +1,100 @@
+package com.motorph.inventory.bench;
+
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.InventoryRepository;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.MappedLogInventoryRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// SQLite table vs. memory-mapped log: point lookups, single-row writes and a full scan.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = BenchSupport.DB_PATH_ARG)
+public class StoreBenchmark {
+
+    private static final Path LOG = Paths.get("build/bench/inventory.log");
+
+    @Param({"jdbc", "mmap"})
+    public String store;
+
+    @Param({"10000", "100000"})
+    public int tableSize;
+
+    private InventoryRepository repo;
+    private long nextFree;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        if (store.equals("jdbc")) {
+            repo = new JdbcInventoryRepository();
+            BenchSupport.populate(tableSize, true);   // even keys stored, odd keys free
+        } else {
+            Files.deleteIfExists(LOG);
+            MappedLogInventoryRepository m = new MappedLogInventoryRepository(LOG, false);
+            List<InventoryData> rows = new ArrayList<>(tableSize);
+            for (int i = 0; i < tableSize; i++) rows.add(BenchSupport.record(2L * i));
+            m.insertAll(rows);
+            repo = m;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        if (repo instanceof MappedLogInventoryRepository m) {
+            m.close();
+            Files.deleteIfExists(LOG);
+        } else {
+            BenchSupport.clearTables();
+        }
+    }
+
+    // Keeps the log from growing without bound across iterations, as the background task would.
+    @TearDown(Level.Iteration)
+    public void compact() throws Exception {
+        if (repo instanceof MappedLogInventoryRepository m) m.compactIfNeeded();
+    }
+
+    private long randomStoredKey() {
+        return 2L * ThreadLocalRandom.current().nextInt(tableSize);
+    }
+
+    @Benchmark
+    public InventoryData findByEngineNumberHit() throws Exception {
+        return repo.findByEngineNumber(BenchSupport.eng(randomStoredKey()));
+    }
+
+    // insert + delete of a fresh odd key, so the table size stays constant
+    @Benchmark
+    public void insertThenDelete() throws Exception {
+        long key = 2 * (nextFree++ % tableSize) + 1;
+        repo.insert(BenchSupport.record(key));
+        repo.deleteByEngineNumber(BenchSupport.eng(key));
+    }
+
+    @Benchmark
+    public void update() throws Exception {
+        InventoryData d = BenchSupport.record(randomStoredKey())
+                .withStatusAndLevel("On-hand", ThreadLocalRandom.current().nextBoolean() ? "New" : "Sold");
+        repo.update(d);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    @Measurement(iterations = 10)
+    public void forEachSortedByEngineNumber(Blackhole bh) throws Exception {
+        repo.forEachSortedByEngineNumber(bh::consume);
+    }
+}
@@ -0,0 +1,210 @@
+package com.motorph.inventory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Background group-commit writer for AuditLogger.
+// Events are queued in memory and written in multi-row transactions once either
+// batchSize events are pending or flushIntervalMillis has passed since the first one.
+// A batch that fails to commit (SQLITE_BUSY under load, say) is retried with doubling
+// backoff; only after COMMIT_ATTEMPTS tries are its events counted as failed.
+final class AsyncAuditWriter {
+
+    private static final int COMMIT_ATTEMPTS = 5;
+    private static final long FIRST_BACKOFF_MILLIS = 50;
+
+    private final BlockingQueue<Entry> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final AuditLogger.Backpressure policy;
+    private final Thread worker;
+    private final Thread shutdownHook;
+    private volatile boolean closed;
+    // submit() and flush() hold the read side so close() cannot slip its stop marker ahead
+    // of an event or a flush marker.
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+    final AtomicLong queued = new AtomicLong();
+    final AtomicLong written = new AtomicLong();
+    final AtomicLong dropped = new AtomicLong();
+    final AtomicLong failed = new AtomicLong();
+
+    // Either an event, or (event == null) a flush/stop marker whose latch is released once
+    // everything ahead of it in the queue has been committed.
+    private record Entry(AuditEvent event, CountDownLatch done, boolean stop) {}
+
+    AsyncAuditWriter(int capacity, int batchSize, long flushIntervalMillis, AuditLogger.Backpressure policy) {
+        if (capacity < 1 || batchSize < 1) throw new IllegalArgumentException("capacity and batchSize must be >= 1");
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.policy = policy;
+        this.worker = new Thread(this::run, "audit-writer");
+        this.worker.setDaemon(true);
+        this.worker.start();
+        this.shutdownHook = new Thread(this::close, "audit-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // Returns false when the caller should write the event itself
+    // (CALLER_RUNS with a full queue, or the writer is already closed).
+    boolean submit(AuditEvent e) {
+        closeLock.readLock().lock();
+        try {
+            if (closed) return false;
+            return enqueue(new Entry(e, null, false));
+        } finally {
+            closeLock.readLock().unlock();
+        }
+    }
+
+    private boolean enqueue(Entry entry) {
+        switch (policy) {
+            case BLOCK -> {
+                try {
+                    queue.put(entry);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            case DROP -> {
+                if (!queue.offer(entry)) {
+                    dropped.incrementAndGet();
+                    return true;
+                }
+            }
+            case CALLER_RUNS -> {
+                if (!queue.offer(entry)) return false;
+            }
+        }
+        queued.incrementAndGet();
+        return true;
+    }
+
+    // Blocks until every event submitted before this call has been committed (or failed).
+    void flush() {
+        Entry marker = new Entry(null, new CountDownLatch(1), false);
+        closeLock.readLock().lock();
+        try {
+            if (closed || !worker.isAlive()) return;
+            if (!put(marker)) return;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        await(marker);
+    }
+
+    void close() {
+        closeLock.writeLock().lock();
+        try {
+            if (closed) return;
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        Entry stop = new Entry(null, new CountDownLatch(1), true);
+        if (worker.isAlive() && put(stop)) await(stop);
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // already shutting down
+        }
+    }
+
+    int pending() {
+        return queue.size();
+    }
+
+    private boolean put(Entry marker) {
+        try {
+            queue.put(marker);
+            return true;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void await(Entry marker) {
+        try {
+            marker.done().await();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (true) {
+            Entry first;
+            try {
+                first = queue.take();
+            } catch (InterruptedException ie) {
+                // keep draining; close() is the only way to stop the writer
+                continue;
+            }
+            Entry marker = collect(first, batch);
+            commit(batch);
+            if (marker != null) {
+                marker.done().countDown();
+                if (marker.stop()) return;
+            }
+        }
+    }
+
+    // Fills the batch until it is full, the time threshold passes, or a marker shows up.
+    private Entry collect(Entry first, List<AuditEvent> batch) {
+        if (first.event() == null) return first;
+        batch.add(first.event());
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        while (batch.size() < batchSize) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) break;
+            Entry next;
+            try {
+                next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException ie) {
+                break;
+            }
+            if (next == null) break;
+            if (next.event() == null) return next;
+            batch.add(next.event());
+        }
+        return null;
+    }
+
+    // The pool rolls back a connection returned mid-transaction, so each attempt starts clean.
+    private void commit(List<AuditEvent> batch) {
+        if (batch.isEmpty()) return;
+        long backoff = FIRST_BACKOFF_MILLIS;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    AuditLogger.insertBatch(batch);
+                    written.addAndGet(batch.size());
+                    return;
+                } catch (Exception e) {
+                    if (attempt == COMMIT_ATTEMPTS) {
+                        failed.addAndGet(batch.size());
+                        System.err.println("[audit] batch of " + batch.size() + " lost after " + attempt + " attempts: "
+                                + e.getClass().getSimpleName() + ": " + e.getMessage());
+                        return;
+                    }
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(backoff));
+                backoff *= 2;
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,294 @@
+package com.motorph.inventory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Append-only store for audit rows that have aged out of audit_log.
+//
+// Each rollover batch becomes one segment: audit-<minId>.seg holds the rows as a run of
+// independently gzipped blocks, and audit-<minId>.idx records the id/ts range of the segment
+// and of every block. Searches read only the index files up front and decompress just the
+// blocks whose ts range can contain a match. Segments are written to a temp file, forced to
+// disk and renamed into place, the .idx last, so a segment without an .idx never counts.
+public class AuditArchive {
+
+    static final int BLOCK_ROWS = 512;
+    private static final int MAGIC = 0x4D504158;   // "MPAX"
+    private static final int VERSION = 1;
+    private static final Comparator<AuditRecord> NEWEST_FIRST =
+            Comparator.comparingLong(AuditRecord::ts).thenComparingLong(AuditRecord::id).reversed();
+
+    record Block(long offset, int length, long minTs, long maxTs, int rows) {}
+
+    record Segment(Path file, long minId, long maxId, long minTs, long maxTs, long cutoffTs, int rows,
+                   List<Block> blocks) {}
+
+    private static volatile AuditArchive defaultArchive;
+
+    private final Path dir;
+    private List<Segment> segments;   // newest maxTs first; loaded lazily
+
+    public AuditArchive(Path dir) {
+        this.dir = dir;
+    }
+
+    // Archive next to the database file unless -Dmotorph.audit.archiveDir says otherwise.
+    public static AuditArchive getDefault() {
+        AuditArchive a = defaultArchive;
+        if (a == null) {
+            synchronized (AuditArchive.class) {
+                a = defaultArchive;
+                if (a == null) {
+                    String configured = System.getProperty("motorph.audit.archiveDir");
+                    Path p = configured != null
+                            ? Paths.get(configured)
+                            : Paths.get(DB.getProfile().getPath()).toAbsolutePath().resolveSibling("audit-archive");
+                    defaultArchive = a = new AuditArchive(p);
+                }
+            }
+        }
+        return a;
+    }
+
+    public Path getDirectory() {
+        return dir;
+    }
+
+    public synchronized int getSegmentCount() throws IOException {
+        return segments().size();
+    }
+
+    public synchronized long getRowCount() throws IOException {
+        long n = 0;
+        for (Segment s : segments()) n += s.rows();
+        return n;
+    }
+
+    // Writes rows (ascending id, all with ts < cutoffTs) as one new segment.
+    synchronized Segment append(List<AuditRecord> rows, long cutoffTs) throws IOException {
+        if (rows.isEmpty()) throw new IllegalArgumentException("empty segment");
+        Files.createDirectories(dir);
+        long minId = rows.get(0).id();
+        long maxId = rows.get(rows.size() - 1).id();
+        String base = String.format("audit-%020d", minId);
+        Path seg = dir.resolve(base + ".seg");
+        Path idx = dir.resolve(base + ".idx");
+
+        List<Block> blocks = new ArrayList<>(rows.size() / BLOCK_ROWS + 1);
+        long minTs = Long.MAX_VALUE;
+        long maxTs = Long.MIN_VALUE;
+        Path tmp = dir.resolve(base + ".seg.tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long offset = 0;
+            for (int from = 0; from < rows.size(); from += BLOCK_ROWS) {
+                List<AuditRecord> part = rows.subList(from, Math.min(rows.size(), from + BLOCK_ROWS));
+                long bMin = Long.MAX_VALUE;
+                long bMax = Long.MIN_VALUE;
+                for (AuditRecord r : part) {
+                    bMin = Math.min(bMin, r.ts());
+                    bMax = Math.max(bMax, r.ts());
+                }
+                byte[] bytes = encodeBlock(part);
+                ByteBuffer buf = ByteBuffer.wrap(bytes);
+                while (buf.hasRemaining()) ch.write(buf);
+                blocks.add(new Block(offset, bytes.length, bMin, bMax, part.size()));
+                offset += bytes.length;
+                minTs = Math.min(minTs, bMin);
+                maxTs = Math.max(maxTs, bMax);
+            }
+            ch.force(true);
+        }
+        Files.move(tmp, seg, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        Segment s = new Segment(seg, minId, maxId, minTs, maxTs, cutoffTs, rows.size(), List.copyOf(blocks));
+        writeIndex(s, idx);
+        segments().add(s);
+        segments.sort(Comparator.comparingLong(Segment::maxTs).reversed());
+        return s;
+    }
+
+    // Segment with the highest ids, i.e. the one written last (null when empty).
+    synchronized Segment latest() throws IOException {
+        Segment best = null;
+        for (Segment s : segments()) {
+            if (best == null || s.maxId() > best.maxId()) best = s;
+        }
+        return best;
+    }
+
+    // Up to max archived rows matching q (including its keyset cursor), newest first.
+    public synchronized List<AuditRecord> search(AuditQuery q, int max) throws IOException {
+        long lo = q.fromTs != null ? q.fromTs : Long.MIN_VALUE;
+        long hi = Long.MAX_VALUE;
+        if (q.toTs != null) hi = q.toTs - 1;
+        if (q.beforeTs != null) hi = Math.min(hi, q.beforeTs);
+
+        // min-heap of the best `max` rows so far; its head is the oldest row still kept
+        PriorityQueue<AuditRecord> top = new PriorityQueue<>(NEWEST_FIRST.reversed());
+        for (Segment s : segments()) {
+            if (top.size() == max && s.maxTs() < top.peek().ts()) break;   // sorted by maxTs desc
+            if (s.maxTs() < lo || s.minTs() > hi) continue;
+            try (FileChannel ch = FileChannel.open(s.file(), StandardOpenOption.READ)) {
+                for (Block b : s.blocks()) {
+                    if (b.maxTs() < lo || b.minTs() > hi) continue;
+                    if (top.size() == max && b.maxTs() < top.peek().ts()) continue;
+                    for (AuditRecord r : readBlock(ch, b)) {
+                        if (!q.matches(r)) continue;
+                        if (top.size() < max) {
+                            top.add(r);
+                        } else if (NEWEST_FIRST.compare(r, top.peek()) < 0) {
+                            top.poll();
+                            top.add(r);
+                        }
+                    }
+                }
+            }
+        }
+        List<AuditRecord> out = new ArrayList<>(top);
+        out.sort(NEWEST_FIRST);
+        return out;
+    }
+
+    private List<Segment> segments() throws IOException {
+        if (segments != null) return segments;
+        List<Segment> loaded = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (DirectoryStream<Path> ds = Files.newDirectoryStream(dir, "audit-*.idx")) {
+                for (Path idx : ds) {
+                    String name = idx.getFileName().toString();
+                    Path seg = idx.resolveSibling(name.substring(0, name.length() - 4) + ".seg");
+                    if (Files.isRegularFile(seg)) loaded.add(readIndex(idx, seg));
+                }
+            }
+        }
+        loaded.sort(Comparator.comparingLong(Segment::maxTs).reversed());
+        segments = loaded;
+        return segments;
+    }
+
+    private static void writeIndex(Segment s, Path idx) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + s.blocks().size() * 32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(s.minId());
+            out.writeLong(s.maxId());
+            out.writeLong(s.minTs());
+            out.writeLong(s.maxTs());
+            out.writeLong(s.cutoffTs());
+            out.writeInt(s.rows());
+            out.writeInt(s.blocks().size());
+            for (Block b : s.blocks()) {
+                out.writeLong(b.offset());
+                out.writeInt(b.length());
+                out.writeLong(b.minTs());
+                out.writeLong(b.maxTs());
+                out.writeInt(b.rows());
+            }
+        }
+        Path tmp = idx.resolveSibling(idx.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buf = ByteBuffer.wrap(bytes.toByteArray());
+            while (buf.hasRemaining()) ch.write(buf);
+            ch.force(true);
+        }
+        Files.move(tmp, idx, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static Segment readIndex(Path idx, Path seg) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(idx)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Not an audit archive index: " + idx);
+            }
+            long minId = in.readLong();
+            long maxId = in.readLong();
+            long minTs = in.readLong();
+            long maxTs = in.readLong();
+            long cutoffTs = in.readLong();
+            int rows = in.readInt();
+            int n = in.readInt();
+            List<Block> blocks = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                blocks.add(new Block(in.readLong(), in.readInt(), in.readLong(), in.readLong(), in.readInt()));
+            }
+            return new Segment(seg, minId, maxId, minTs, maxTs, cutoffTs, rows, List.copyOf(blocks));
+        }
+    }
+
+    private static byte[] encodeBlock(List<AuditRecord> rows) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(rows.size() * 48);
+        try (DataOutputStream out = new DataOutputStream(new GZIPOutputStream(bytes))) {
+            out.writeInt(rows.size());
+            for (AuditRecord r : rows) {
+                out.writeLong(r.id());
+                out.writeLong(r.ts());
+                writeString(out, r.user());
+                writeString(out, r.action());
+                writeString(out, r.engineNumber());
+                writeString(out, r.status());
+                writeString(out, r.level());
+                writeString(out, r.outcome());
+                writeString(out, r.details());
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static List<AuditRecord> readBlock(FileChannel ch, Block b) throws IOException {
+        ByteBuffer buf = ByteBuffer.allocate(b.length());
+        long pos = b.offset();
+        while (buf.hasRemaining()) {
+            int n = ch.read(buf, pos);
+            if (n < 0) throw new IOException("Truncated audit archive segment");
+            pos += n;
+        }
+        try (DataInputStream in = new DataInputStream(new GZIPInputStream(new ByteArrayInputStream(buf.array())))) {
+            int n = in.readInt();
+            List<AuditRecord> rows = new ArrayList<>(n);
+            for (int i = 0; i < n; i++) {
+                rows.add(new AuditRecord(in.readLong(), in.readLong(), readString(in), readString(in),
+                        readString(in), readString(in), readString(in), readString(in), readString(in)));
+            }
+            return rows;
+        }
+    }
+
+    // Length-prefixed UTF-8, -1 for null (writeUTF would cap details at 64 KB).
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] b = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(b.length);
+        out.write(b);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int len = in.readInt();
+        if (len < 0) return null;
+        byte[] b = new byte[len];
+        in.readFully(b);
+        return new String(b, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,181 @@
+package com.motorph.inventory;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Time-based rollover of audit_log into an AuditArchive.
+//
+// Rows older than the retention age are moved in id order, batchSize at a time: the batch is
+// written and forced to disk as a segment first, and only then deleted from audit_log, so a
+// crash can at worst leave a row in both places (the next run deletes it, search dedupes it).
+// After each batch a bounded number of freed pages is returned to the OS via incremental
+// vacuum, so the database file shrinks gradually instead of needing a full VACUUM.
+public class AuditArchiver {
+
+    public record Result(int segments, long rowsArchived, long pagesReclaimed) {}
+
+    static final int DEFAULT_BATCH_SIZE = 5_000;
+    static final int VACUUM_PAGES_PER_BATCH = 2_000;
+
+    private static final String SELECT_SQL = """
+        SELECT id, ts, user, action, engine_number, status, level, outcome, details
+        FROM audit_log
+        WHERE ts < ?
+        ORDER BY id ASC
+        LIMIT ?
+    """;
+    // Every row below the cutoff with id <= maxId was in the batch: ids only grow.
+    private static final String DELETE_SQL = "DELETE FROM audit_log WHERE id BETWEEN ? AND ? AND ts < ?";
+
+    private static final OperationMetrics METRICS = Metrics.operation("audit.rollover");
+
+    private final AuditArchive archive;
+    private final long retentionMillis;
+    private final int batchSize;
+    private ScheduledExecutorService scheduler;
+
+    public AuditArchiver(AuditArchive archive, long retentionMillis, int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        this.archive = archive;
+        this.retentionMillis = retentionMillis;
+        this.batchSize = batchSize;
+    }
+
+    // -Dmotorph.audit.retentionDays (default 90) against the default archive.
+    public static AuditArchiver fromSystemProperties() {
+        long days = Long.getLong("motorph.audit.retentionDays", 90L);
+        return new AuditArchiver(AuditArchive.getDefault(), TimeUnit.DAYS.toMillis(days), DEFAULT_BATCH_SIZE);
+    }
+
+    public AuditArchive getArchive() {
+        return archive;
+    }
+
+    public Result archiveExpired() throws SQLException, IOException {
+        return archiveOlderThan(System.currentTimeMillis() - retentionMillis);
+    }
+
+    public synchronized Result archiveOlderThan(long cutoffTs) throws SQLException, IOException {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            finishInterruptedRollover();
+            int segments = 0;
+            long rows = 0;
+            long pages = 0;
+            while (true) {
+                List<AuditRecord> batch = selectBatch(cutoffTs);
+                if (batch.isEmpty()) break;
+                AuditArchive.Segment seg = archive.append(batch, cutoffTs);
+                deleteArchived(seg);
+                pages += reclaimPages(VACUUM_PAGES_PER_BATCH);
+                segments++;
+                rows += batch.size();
+                if (batch.size() < batchSize) break;
+            }
+            ok = true;
+            return new Result(segments, rows, pages);
+        } finally {
+            METRICS.recordSince(t0, ok);
+        }
+    }
+
+    // Runs archiveExpired() now and then every periodMinutes on a daemon thread.
+    public synchronized void start(long periodMinutes) {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "audit-archiver");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                Result r = archiveExpired();
+                if (r.rowsArchived() > 0) {
+                    System.err.println("[audit] archived " + r.rowsArchived() + " rows into "
+                            + r.segments() + " segment(s), reclaimed " + r.pagesReclaimed() + " pages");
+                }
+            } catch (Exception e) {
+                System.err.println("[audit] rollover failed: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }, 0, periodMinutes, TimeUnit.MINUTES);
+    }
+
+    public void stop() {
+        ScheduledExecutorService s;
+        synchronized (this) {
+            s = scheduler;
+            scheduler = null;
+        }
+        if (s == null) return;
+        s.shutdown();
+        try {
+            s.awaitTermination(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // If the last run died between writing a segment and deleting its rows, delete them now.
+    private void finishInterruptedRollover() throws SQLException, IOException {
+        AuditArchive.Segment last = archive.latest();
+        if (last != null) deleteArchived(last);
+    }
+
+    private List<AuditRecord> selectBatch(long cutoffTs) throws SQLException {
+        List<AuditRecord> out = new ArrayList<>(Math.min(batchSize, 10_000));
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(SELECT_SQL)) {
+            ps.setLong(1, cutoffTs);
+            ps.setInt(2, batchSize);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new AuditRecord(rs.getLong("id"), rs.getLong("ts"), rs.getString("user"),
+                            rs.getString("action"), rs.getString("engine_number"), rs.getString("status"),
+                            rs.getString("level"), rs.getString("outcome"), rs.getString("details")));
+                }
+            }
+        }
+        return out;
+    }
+
+    private int deleteArchived(AuditArchive.Segment seg) throws SQLException {
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(DELETE_SQL)) {
+            ps.setLong(1, seg.minId());
+            ps.setLong(2, seg.maxId());
+            ps.setLong(3, seg.cutoffTs());
+            return ps.executeUpdate();
+        }
+    }
+
+    // Frees up to maxPages from the freelist when the database uses auto_vacuum=INCREMENTAL;
+    // otherwise freed pages simply stay in the file for reuse. Returns pages released.
+    // The pragma frees one page per step and returns no columns, so it goes through
+    // executeUpdate, which steps it to the end, in autocommit.
+    static long reclaimPages(int maxPages) throws SQLException {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            if (pragmaLong(st, "auto_vacuum") != 2) return 0;
+            long before = pragmaLong(st, "freelist_count");
+            long n = Math.min(before, maxPages);
+            if (n == 0) return 0;
+            st.executeUpdate("PRAGMA incremental_vacuum(" + n + ")");
+            return before - pragmaLong(st, "freelist_count");
+        }
+    }
+
+    private static long pragmaLong(Statement st, String name) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA " + name)) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+}
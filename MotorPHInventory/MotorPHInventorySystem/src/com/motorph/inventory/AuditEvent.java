@@ -0,0 +1,6 @@
+package com.motorph.inventory;
+
+// One row of the audit trail, captured at the moment the action happened.
+public record AuditEvent(long ts, String user, String action, String engineNumber,
+                         String status, String level, String outcome, String details) {
+}
@@ -1,31 +1,139 @@
 package com.motorph.inventory;
 
+import java.io.PrintStream;
 import java.sql.*;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.*;
-import java.util.Date;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
-public class AuditLogger {
-    private static final SimpleDateFormat TS = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+public class AuditLogger implements AutoCloseable {
+    private static final DateTimeFormatter TS =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    static final String INSERT_SQL =
+            "INSERT INTO audit_log(ts, user, action, engine_number, status, level, outcome, details) VALUES(?,?,?,?,?,?,?,?)";
+
+    // What log() does when the async queue is full.
+    public enum Backpressure {
+        BLOCK,        // wait for room in the queue
+        DROP,         // discard the event and count it
+        CALLER_RUNS   // write the event synchronously on the calling thread
+    }
+
+    private static final OperationMetrics WRITE_METRICS = Metrics.operation("audit.write");
+
+    private final AsyncAuditWriter writer;   // null = synchronous mode
+    private final AtomicLong syncWritten = new AtomicLong();
+    private final AtomicLong syncFailed = new AtomicLong();
+
+    // Synchronous logger: every log() call commits before returning.
+    public AuditLogger() {
+        this.writer = null;
+    }
+
+    private AuditLogger(AsyncAuditWriter writer) {
+        this.writer = writer;
+    }
+
+    // Asynchronous group-commit logger. Call flush() to make queued events durable and
+    // close() on shutdown (a JVM shutdown hook also drains the queue as a last resort).
+    public static AuditLogger async(int queueCapacity, int batchSize, long flushIntervalMillis, Backpressure policy) {
+        return new AuditLogger(new AsyncAuditWriter(queueCapacity, batchSize, flushIntervalMillis, policy));
+    }
+
+    public static AuditLogger async() {
+        return async(10_000, 256, 200, Backpressure.CALLER_RUNS);
+    }
 
     public void log(String user, String action, String engineNumber, String status, String level, String outcome, String details) {
-        String sql = "INSERT INTO audit_log(ts, user, action, engine_number, status, level, outcome, details) VALUES(?,?,?,?,?,?,?,?)";
-        try (Connection c = DB.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setLong(1, System.currentTimeMillis());
-            ps.setString(2, user);
-            ps.setString(3, action);
-            ps.setString(4, engineNumber);
-            ps.setString(5, status);
-            ps.setString(6, level);
-            ps.setString(7, outcome);
-            ps.setString(8, details);
-            ps.executeUpdate();
-        } catch (Exception e) {
-            System.err.println("[audit] " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        AuditEvent e = new AuditEvent(System.currentTimeMillis(), user, action, engineNumber, status, level, outcome, details);
+        if (writer != null && writer.submit(e)) return;
+        try {
+            insertBatch(List.of(e));
+            syncWritten.incrementAndGet();
+        } catch (Exception ex) {
+            syncFailed.incrementAndGet();
+            System.err.println("[audit] " + ex.getClass().getSimpleName() + ": " + ex.getMessage());
         }
     }
 
+    // Writes all events in one transaction.
+    static void insertBatch(List<AuditEvent> events) throws SQLException {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try (Connection c = DB.getConnection()) {
+            boolean single = events.size() == 1;
+            if (!single) c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(INSERT_SQL)) {
+                for (AuditEvent e : events) {
+                    bind(ps, e);
+                    if (single) {
+                        ps.executeUpdate();
+                    } else {
+                        ps.addBatch();
+                    }
+                }
+                if (!single) {
+                    ps.executeBatch();
+                    c.commit();
+                }
+            }
+            ok = true;
+        } finally {
+            WRITE_METRICS.recordSince(t0, ok);
+        }
+    }
+
+    // Sets INSERT_SQL's parameters; also used to write audit rows inside another transaction.
+    static void bind(PreparedStatement ps, AuditEvent e) throws SQLException {
+        ps.setLong(1, e.ts());
+        ps.setString(2, e.user());
+        ps.setString(3, e.action());
+        ps.setString(4, e.engineNumber());
+        ps.setString(5, e.status());
+        ps.setString(6, e.level());
+        ps.setString(7, e.outcome());
+        ps.setString(8, e.details());
+    }
+
+    // Blocks until everything logged so far is committed. No-op in synchronous mode.
+    public void flush() {
+        if (writer != null) writer.flush();
+    }
+
+    // Drains and stops the background writer; later log() calls fall back to synchronous writes.
+    @Override
+    public void close() {
+        if (writer != null) writer.close();
+    }
+
+    public boolean isAsync() {
+        return writer != null;
+    }
+
+    public long getQueuedCount() {
+        return writer == null ? 0 : writer.queued.get();
+    }
+
+    public long getWrittenCount() {
+        return syncWritten.get() + (writer == null ? 0 : writer.written.get());
+    }
+
+    public long getDroppedCount() {
+        return writer == null ? 0 : writer.dropped.get();
+    }
+
+    public long getFailedCount() {
+        return syncFailed.get() + (writer == null ? 0 : writer.failed.get());
+    }
+
+    public int getPendingCount() {
+        return writer == null ? 0 : writer.pending();
+    }
+
     public void logException(String user, String action, String engineNumber, Exception ex) {
         log(user, action, engineNumber, null, null, "ERROR", ex.getClass().getSimpleName() + ": " + ex.getMessage());
     }
@@ -37,6 +145,7 @@ public class AuditLogger {
             ORDER BY id DESC
             LIMIT ?
         """;
+        flush();
         System.out.println("\n--- Audit Log (latest " + limit + ") ---");
         try (Connection c = DB.getConnection();
              PreparedStatement ps = c.prepareStatement(sql)) {
@@ -47,7 +156,7 @@ public class AuditLogger {
                     return;
                 }
                 while (rs.next()) {
-                    String when = TS.format(new Date(rs.getLong("ts")));
+                    String when = TS.format(Instant.ofEpochMilli(rs.getLong("ts")));
                     String user = Optional.ofNullable(rs.getString("user")).orElse("-");
                     String action = rs.getString("action");
                     String eng = Optional.ofNullable(rs.getString("engine_number")).orElse("-");
@@ -63,64 +172,118 @@ public class AuditLogger {
         }
     }
 
+    // Filtered, keyset-paginated audit search (newest first). Any combination of engine number,
+    // user, action, outcome and time range; each filter lines up with one of the audit_log indexes.
+    // Rolled-over rows are searched too when the query asks for them (AuditQuery.includeArchive).
+    public AuditPage search(AuditQuery q) throws SQLException {
+        flush();
+        StringBuilder sql = new StringBuilder(
+                "SELECT id, ts, user, action, engine_number, status, level, outcome, details FROM audit_log WHERE 1=1");
+        List<Object> args = new ArrayList<>();
+        if (q.engineNumber != null) { sql.append(" AND engine_number = ?"); args.add(q.engineNumber); }
+        if (q.user != null) { sql.append(" AND user = ?"); args.add(q.user); }
+        if (q.action != null) { sql.append(" AND action = ?"); args.add(q.action); }
+        if (q.outcome != null) { sql.append(" AND outcome = ?"); args.add(q.outcome); }
+        if (q.fromTs != null) { sql.append(" AND ts >= ?"); args.add(q.fromTs); }
+        if (q.toTs != null) { sql.append(" AND ts < ?"); args.add(q.toTs); }
+        if (q.beforeTs != null) {
+            // written so SQLite can use "ts <= ?" as an index range bound
+            sql.append(" AND ts <= ? AND (ts < ? OR id < ?)");
+            args.add(q.beforeTs);
+            args.add(q.beforeTs);
+            args.add(q.beforeId);
+        }
+        sql.append(" ORDER BY ts DESC, id DESC LIMIT ?");
+        args.add(q.limit + 1);   // one extra row tells us whether another page exists
+
+        List<AuditRecord> out = new ArrayList<>(Math.min(q.limit + 1, 1_000));
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    out.add(new AuditRecord(rs.getLong("id"), rs.getLong("ts"), rs.getString("user"),
+                            rs.getString("action"), rs.getString("engine_number"), rs.getString("status"),
+                            rs.getString("level"), rs.getString("outcome"), rs.getString("details")));
+                }
+            }
+        }
+        if (q.archive != null) out = mergeArchived(out, q);
+
+        boolean more = out.size() > q.limit;
+        if (more) out = out.subList(0, q.limit);
+        AuditQuery next = null;
+        if (more) {
+            AuditRecord last = out.get(out.size() - 1);
+            next = q.copy().before(last.ts(), last.id());
+        }
+        return new AuditPage(out, next);
+    }
+
+    // Live rows and archived rows, newest first, cut to limit + 1. A row can be in both places
+    // briefly if a rollover was interrupted; the live copy wins.
+    private static List<AuditRecord> mergeArchived(List<AuditRecord> live, AuditQuery q) throws SQLException {
+        List<AuditRecord> archived;
+        try {
+            archived = q.archive.search(q, q.limit + 1);
+        } catch (java.io.IOException e) {
+            throw new SQLException("Audit archive read failed: " + e.getMessage(), e);
+        }
+        Set<Long> ids = new HashSet<>();
+        List<AuditRecord> merged = new ArrayList<>(live.size() + archived.size());
+        for (AuditRecord r : live) if (ids.add(r.id())) merged.add(r);
+        for (AuditRecord r : archived) if (ids.add(r.id())) merged.add(r);
+        merged.sort(Comparator.comparingLong(AuditRecord::ts).thenComparingLong(AuditRecord::id).reversed());
+        return merged.size() > q.limit + 1 ? merged.subList(0, q.limit + 1) : merged;
+    }
+
     // Reconciliation & Exception reporting:
     // Validates simple business rules and prints a report; also logs a summary row.
-    public void reconcileAndReport(String user, InventoryRepository repo) {
-        final Set<String> ALLOWED_STATUS = Set.of("On-hand", "Old");
-        final Set<String> ALLOWED_LEVEL  = Set.of("New", "Sold");
+    // Issues are printed as they are produced, so none are kept in memory.
+    public ReconcileResult reconcileAndReport(String user, InventoryRepository repo) {
+        return reconcileAndReport(user, repo, ReconcileMode.SCAN);
+    }
 
-        List<String> issues = new ArrayList<>();
-        int scanned = 0;
+    // SCAN validates rows in Java via the repository; PUSHDOWN evaluates the rules inside
+    // SQLite and only reads offending rows; INCREMENTAL/RESCAN maintain a stored issue set
+    // (see IncrementalReconciler). All but SCAN need the repository to be backed by DB.
+    public ReconcileResult reconcileAndReport(String user, InventoryRepository repo, ReconcileMode mode) {
         try {
-            List<InventoryData> all = repo.findAllSortedByEngineNumber();
-            scanned = all.size();
-            for (InventoryData d : all) {
-                String eng = d.getEngineNumber();
-                String brand = d.getBrand();
-                String status = d.getStatus();
-                String level = d.getLevel();
-
-                if (eng == null || !eng.matches("\\d{10}")) {
-                    issues.add(eng + " -> invalid engine number format");
-                }
-                if (brand == null || brand.isBlank()) {
-                    issues.add(eng + " -> missing brand");
-                }
-                if (d.getDateEntered() == null) {
-                    issues.add(eng + " -> missing date_entered");
-                }
-                if (status == null || !ALLOWED_STATUS.contains(status)) {
-                    issues.add(eng + " -> invalid status '" + status + "'");
-                }
-                if (level == null || !ALLOWED_LEVEL.contains(level)) {
-                    issues.add(eng + " -> invalid level '" + level + "'");
-                }
-                // Cross-field consistency rules (customizable)
-                if ("On-hand".equalsIgnoreCase(status) && "Sold".equalsIgnoreCase(level)) {
-                    issues.add(eng + " -> inconsistent: On-hand cannot be Sold");
-                }
-                if ("Old".equalsIgnoreCase(status) && "New".equalsIgnoreCase(level)) {
-                    issues.add(eng + " -> inconsistent: Old cannot be New");
-                }
+            System.out.println("\n--- Reconciliation & Exception Report ---");
+            PrintStream out = System.out;
+            Consumer<ReconcileIssue> sink = issue -> out.println(" - " + issue);
+            OperationMetrics runMetrics = Metrics.operation("reconcile." + mode.name().toLowerCase());
+            long t0 = System.nanoTime();
+            boolean ok = false;
+            ReconcileResult result;
+            try {
+                result = mode.run(repo, sink);
+                ok = true;
+            } finally {
+                runMetrics.recordSince(t0, ok);
             }
 
-            // Print report
-            System.out.println("\n--- Reconciliation & Exception Report ---");
-            System.out.println("Records scanned: " + scanned);
-            System.out.println("Issues found  : " + issues.size());
-            if (issues.isEmpty()) {
+            System.out.println("Records scanned: " + result.getScanned());
+            System.out.println("Issues found  : " + result.getTotalIssues());
+            if (result.getTotalIssues() == 0) {
                 System.out.println("No inconsistencies detected.\n");
             } else {
-                for (String i : issues) System.out.println(" - " + i);
+                for (ReconcileRule r : ReconcileRule.values()) {
+                    long n = result.getCount(r);
+                    if (n > 0) System.out.printf("   %-40s %d%n", r.getDescription(), n);
+                }
                 System.out.println();
             }
 
             // Log summary
             log(user, "RECONCILE", null, null, null, "SUCCESS",
-                    "scanned=" + scanned + ", issues=" + issues.size());
+                    "scanned=" + result.getScanned() + ", issues=" + result.getTotalIssues()
+                            + ", mode=" + mode.name().toLowerCase());
+            return result;
         } catch (Exception e) {
             System.out.println("Reconciliation failed. See error log.");
             logException(user, "RECONCILE", null, e);
+            return null;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,27 @@
+package com.motorph.inventory;
+
+import java.util.List;
+
+// One page of audit search results plus the query for the following page.
+public final class AuditPage {
+    private final List<AuditRecord> records;
+    private final AuditQuery next;
+
+    AuditPage(List<AuditRecord> records, AuditQuery next) {
+        this.records = List.copyOf(records);
+        this.next = next;
+    }
+
+    public List<AuditRecord> getRecords() {
+        return records;
+    }
+
+    public boolean hasMore() {
+        return next != null;
+    }
+
+    // Query for the next (older) page, or null when this was the last one.
+    public AuditQuery next() {
+        return next;
+    }
+}
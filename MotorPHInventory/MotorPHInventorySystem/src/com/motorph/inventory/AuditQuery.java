@@ -0,0 +1,100 @@
+package com.motorph.inventory;
+
+// Filter for AuditLogger.search. Unset fields match everything; results are newest first.
+// Paging is keyset-based: pass the previous page's next() cursor to continue.
+//
+//     AuditPage page = audit.search(new AuditQuery().engineNumber("1234567890").limit(50));
+//     while (page.hasMore()) page = audit.search(page.next());
+public final class AuditQuery {
+    String engineNumber;
+    String user;
+    String action;
+    String outcome;
+    Long fromTs;        // inclusive, epoch millis
+    Long toTs;          // exclusive, epoch millis
+    int limit = 100;
+    // Keyset cursor: only rows strictly older than (beforeTs, beforeId).
+    Long beforeTs;
+    Long beforeId;
+    // Also search rolled-over rows; null = live audit_log only.
+    AuditArchive archive;
+
+    public AuditQuery engineNumber(String engineNumber) {
+        this.engineNumber = engineNumber;
+        return this;
+    }
+
+    public AuditQuery user(String user) {
+        this.user = user;
+        return this;
+    }
+
+    public AuditQuery action(String action) {
+        this.action = action;
+        return this;
+    }
+
+    public AuditQuery outcome(String outcome) {
+        this.outcome = outcome;
+        return this;
+    }
+
+    public AuditQuery from(long fromTsInclusive) {
+        this.fromTs = fromTsInclusive;
+        return this;
+    }
+
+    public AuditQuery to(long toTsExclusive) {
+        this.toTs = toTsExclusive;
+        return this;
+    }
+
+    public AuditQuery limit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        this.limit = limit;
+        return this;
+    }
+
+    public AuditQuery before(long ts, long id) {
+        this.beforeTs = ts;
+        this.beforeId = id;
+        return this;
+    }
+
+    // Includes rows already moved to the default archive by AuditArchiver.
+    public AuditQuery includeArchive() {
+        return includeArchive(AuditArchive.getDefault());
+    }
+
+    public AuditQuery includeArchive(AuditArchive archive) {
+        this.archive = archive;
+        return this;
+    }
+
+    // Same filter in Java, for rows read back from archive segments.
+    boolean matches(AuditRecord r) {
+        if (engineNumber != null && !engineNumber.equals(r.engineNumber())) return false;
+        if (user != null && !user.equals(r.user())) return false;
+        if (action != null && !action.equals(r.action())) return false;
+        if (outcome != null && !outcome.equals(r.outcome())) return false;
+        if (fromTs != null && r.ts() < fromTs) return false;
+        if (toTs != null && r.ts() >= toTs) return false;
+        if (beforeTs != null && !(r.ts() < beforeTs || (r.ts() == beforeTs && r.id() < beforeId))) return false;
+        return true;
+    }
+
+    AuditQuery copy() {
+        AuditQuery q = new AuditQuery();
+        q.engineNumber = engineNumber;
+        q.user = user;
+        q.action = action;
+        q.outcome = outcome;
+        q.fromTs = fromTs;
+        q.toTs = toTs;
+        q.limit = limit;
+        q.beforeTs = beforeTs;
+        q.beforeId = beforeId;
+        q.archive = archive;
+        return q;
+    }
+}
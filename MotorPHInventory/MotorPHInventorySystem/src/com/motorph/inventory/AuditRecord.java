@@ -0,0 +1,6 @@
+package com.motorph.inventory;
+
+// A stored audit_log row as returned by AuditLogger.search.
+public record AuditRecord(long id, long ts, String user, String action, String engineNumber,
+                          String status, String level, String outcome, String details) {
+}
@@ -1,35 +1,264 @@
 package com.motorph.inventory;
 
-import java.util.HashMap;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+// Users live in the `users` table with salted PBKDF2 password hashes, stored as
+//     pbkdf2-sha256$<iterations>$<salt>$<hash>     (base64)
+// in the password column. A plaintext value, or a hash weaker than the current setting, is
+// replaced with a fresh hash on the next successful login. An empty table is seeded with
+// the two default accounts.
+//
+// Hashing is deliberately slow, so callers that make many requests should log in once and
+// then present the session token: token checks and role lookups are answered from memory.
+// Sessions expire a fixed time after login and the cache is bounded (oldest dropped first).
+// Roles are cached for a short time; putUser() refreshes them at once.
+//
+// Keys: motorph.auth.iterations (default 210000), motorph.auth.sessionMinutes (30),
+//       motorph.auth.maxSessions (10000), motorph.auth.roleCacheSeconds (60).
 public class AuthService {
 
-    private final Map<String, String> userDatabase;
+    public record Session(String token, String username, String role, long expiresAtMillis) {
+        public boolean isAdmin() {
+            return "ADMIN".equalsIgnoreCase(role);
+        }
+    }
+
+    private record CachedRole(String role, long loadedAtNanos) {}
+
+    private static final String SCHEME = "pbkdf2-sha256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final int MAX_CACHED_ROLES = 10_000;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final Base64.Encoder B64 = Base64.getEncoder().withoutPadding();
+    private static final Base64.Decoder B64D = Base64.getDecoder();
+    private static final OperationMetrics HASH_METRICS = Metrics.operation("auth.hash");
+
+    private final int iterations;
+    private final long sessionTtlMillis;
+    private final int maxSessions;
+    private final long roleTtlNanos;
+    // Verified against when the user does not exist, so the answer takes as long either way.
+    private final String dummyHash;
 
-    private final Map<String, String> roles;
+    private final LinkedHashMap<String, Session> sessions;
+    private final ConcurrentHashMap<String, CachedRole> roles = new ConcurrentHashMap<>();
 
     public AuthService() {
-        userDatabase = new HashMap<>();
-        // Predefined users (username -> password)
-        userDatabase.put("admin", "admin123");
-        userDatabase.put("user", "user123");
+        this(Long.getLong("motorph.auth.sessionMinutes", 30) * 60_000L,
+                Integer.getInteger("motorph.auth.maxSessions", 10_000));
+    }
 
-        roles = new HashMap<>();
-        roles.put("admin", "ADMIN");
-        roles.put("user", "USER");
+    public AuthService(long sessionTtlMillis, int maxSessions) {
+        this.iterations = Integer.getInteger("motorph.auth.iterations", 210_000);
+        this.sessionTtlMillis = sessionTtlMillis;
+        this.maxSessions = maxSessions;
+        this.roleTtlNanos = Long.getLong("motorph.auth.roleCacheSeconds", 60) * 1_000_000_000L;
+        this.dummyHash = hash("dummy".toCharArray(), iterations);
+        this.sessions = new LinkedHashMap<>(16, 0.75f, false) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+                return size() > AuthService.this.maxSessions;
+            }
+        };
+        seedDefaults();
     }
 
     public boolean authenticate(String username, String password) {
-        return userDatabase.containsKey(username) && userDatabase.get(username).equals(password);
+        if (username == null || password == null) return false;
+        String stored;
+        String role;
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT password, role FROM users WHERE username = ?")) {
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                stored = rs.next() ? rs.getString(1) : null;
+                role = stored != null ? rs.getString(2) : null;
+            }
+        } catch (SQLException e) {
+            System.err.println("[auth] " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            return false;
+        }
+        if (stored == null) {
+            verify(dummyHash, password);
+            return false;
+        }
+        if (!verify(stored, password)) return false;
+        roles.put(username, new CachedRole(role, System.nanoTime()));
+        if (needsRehash(stored)) storePassword(username, password);
+        return true;
+    }
+
+    // Checks the password once and returns a session for later requests, or null.
+    public Session login(String username, String password) {
+        if (!authenticate(username, password)) return null;
+        byte[] raw = new byte[32];
+        RANDOM.nextBytes(raw);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(raw);
+        Session s = new Session(token, username, getRole(username), System.currentTimeMillis() + sessionTtlMillis);
+        synchronized (sessions) {
+            sessions.put(token, s);
+        }
+        return s;
+    }
+
+    // The live session for token, or null if it is unknown, expired or logged out.
+    public Session session(String token) {
+        if (token == null) return null;
+        synchronized (sessions) {
+            Session s = sessions.get(token);
+            if (s == null) return null;
+            if (s.expiresAtMillis() <= System.currentTimeMillis()) {
+                sessions.remove(token);
+                return null;
+            }
+            return s;
+        }
+    }
+
+    public void logout(String token) {
+        if (token == null) return;
+        synchronized (sessions) {
+            sessions.remove(token);
+        }
+    }
+
+    public int getSessionCount() {
+        synchronized (sessions) {
+            return sessions.size();
+        }
     }
 
     public String getRole(String username) {
-        return roles.getOrDefault(username, "USER");
+        long now = System.nanoTime();
+        CachedRole cached = roles.get(username);
+        if (cached != null && now - cached.loadedAtNanos() < roleTtlNanos) return cached.role();
+        String role;
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT role FROM users WHERE username = ?")) {
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                role = rs.next() ? rs.getString(1) : "USER";
+            }
+        } catch (SQLException e) {
+            System.err.println("[auth] " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            return "USER";   // fail closed, and do not cache the guess
+        }
+        if (roles.size() >= MAX_CACHED_ROLES) roles.clear();
+        roles.put(username, new CachedRole(role, now));
+        return role;
     }
 
     public boolean isAdmin(String username) {
         return "ADMIN".equalsIgnoreCase(getRole(username));
     }
-    
+
+    // Creates the user or replaces its password and role. Open sessions of that user end.
+    public void putUser(String username, String password, String role) throws SQLException {
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "INSERT INTO users(username, password, role) VALUES(?,?,?) "
+                             + "ON CONFLICT(username) DO UPDATE SET password=excluded.password, role=excluded.role")) {
+            ps.setString(1, username);
+            ps.setString(2, hash(password.toCharArray(), iterations));
+            ps.setString(3, role);
+            ps.executeUpdate();
+        }
+        roles.remove(username);
+        synchronized (sessions) {
+            sessions.values().removeIf(s -> s.username().equals(username));
+        }
+    }
+
+    private void seedDefaults() {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM users")) {
+            if (rs.next() && rs.getLong(1) > 0) return;
+        } catch (SQLException e) {
+            System.err.println("[auth] " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            return;
+        }
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("INSERT OR IGNORE INTO users(username, password, role) VALUES(?,?,?)")) {
+            ps.setString(1, "admin");
+            ps.setString(2, hash("admin123".toCharArray(), iterations));
+            ps.setString(3, "ADMIN");
+            ps.addBatch();
+            ps.setString(1, "user");
+            ps.setString(2, hash("user123".toCharArray(), iterations));
+            ps.setString(3, "USER");
+            ps.addBatch();
+            ps.executeBatch();
+            System.out.println("[auth] Created default users 'admin' and 'user'; change their passwords.");
+        } catch (SQLException e) {
+            System.err.println("[auth] " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        }
+    }
+
+    private void storePassword(String username, String password) {
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("UPDATE users SET password = ? WHERE username = ?")) {
+            ps.setString(1, hash(password.toCharArray(), iterations));
+            ps.setString(2, username);
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            // the login itself succeeded; the upgrade is retried next time
+            System.err.println("[auth] rehash failed: " + e.getMessage());
+        }
+    }
+
+    private boolean needsRehash(String stored) {
+        String[] parts = stored.split("\\$");
+        return parts.length != 4 || !parts[0].equals(SCHEME) || Integer.parseInt(parts[1]) < iterations;
+    }
+
+    static String hash(char[] password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        return SCHEME + "$" + iterations + "$" + B64.encodeToString(salt) + "$"
+                + B64.encodeToString(pbkdf2(password, salt, iterations));
+    }
+
+    // Constant-time check of password against a stored value; a value that is not in the
+    // hash format is a plaintext password left from before hashing.
+    static boolean verify(String stored, String password) {
+        String[] parts = stored.split("\\$");
+        if (parts.length != 4 || !parts[0].equals(SCHEME)) {
+            return MessageDigest.isEqual(stored.getBytes(StandardCharsets.UTF_8), password.getBytes(StandardCharsets.UTF_8));
+        }
+        try {
+            byte[] expected = B64D.decode(parts[3]);
+            byte[] actual = pbkdf2(password.toCharArray(), B64D.decode(parts[2]), Integer.parseInt(parts[1]));
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;   // corrupt row
+        }
+    }
+
+    private static byte[] pbkdf2(char[] password, byte[] salt, int iterations) {
+        long t0 = System.nanoTime();
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance("PBKDF2WithHmacSHA256").generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("PBKDF2WithHmacSHA256 unavailable", e);
+        } finally {
+            spec.clearPassword();
+            HASH_METRICS.recordSince(t0, true);
+        }
+    }
 }
@@ -0,0 +1,235 @@
+package com.motorph.inventory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Headless command interpreter for scanners and scripts (Main --batch).
+//
+// One command per line, comma-separated like the CSV import; blank lines and # comments skipped:
+//   ADD,<engine>,<brand>
+//   SEARCH,<engine>
+//   SELL,<engine>                       (admin only; same rules as Delete Stock, no confirm prompt)
+//   RECONCILE[,scan|pushdown|incremental|rescan]   (default incremental, scan for the mmap store; rescan is admin only)
+//   AUDIT[,engine=..][,user=..][,action=..][,outcome=..][,from=ms][,to=ms][,limit=n][,archive=true]
+//
+// Every command produces exactly one JSON result line on the output, in input order:
+//   {"line":3,"op":"ADD","ok":true,"engineNumber":"1234567890"}
+//   {"line":4,"op":"SELL","ok":false,"engineNumber":"1234567891","error":"Not found"}
+// RECONCILE also streams one {"op":"ISSUE",...} line per issue before its result, and the run
+// ends with a {"op":"SUMMARY",...} line. Consecutive ADDs are committed together through
+// InventoryRepository.insertAll, up to batchSize rows per flush; any other command flushes
+// the pending ADDs first, so later commands always see earlier ones.
+public class BatchCommandRunner {
+
+    public record Summary(long commands, long succeeded, long failed, long elapsedMillis) {}
+
+    private final InventoryRepository repo;
+    private final AuditLogger audit;
+    private final StockService stock;
+    private final String user;
+    private final boolean admin;
+    private final PrintStream out;
+    private final int batchSize;
+
+    private final List<InventoryData> pendingAdds = new ArrayList<>();
+    private final List<Long> pendingLines = new ArrayList<>();
+    private long commands;
+    private long succeeded;
+    private long failed;
+
+    public BatchCommandRunner(InventoryRepository repo, AuditLogger audit, String user, String role, PrintStream out) {
+        this(repo, audit, user, role, out, JdbcInventoryRepository.BULK_CHUNK_SIZE);
+    }
+
+    public BatchCommandRunner(InventoryRepository repo, AuditLogger audit, String user, String role, PrintStream out,
+                              int batchSize) {
+        if (batchSize < 1) throw new IllegalArgumentException("batchSize must be >= 1");
+        this.repo = repo;
+        this.audit = audit;
+        this.stock = new StockService(repo, audit);
+        this.user = user;
+        this.admin = "ADMIN".equalsIgnoreCase(role);
+        this.out = out;
+        this.batchSize = batchSize;
+    }
+
+    public Summary run(Reader source) throws IOException {
+        long start = System.currentTimeMillis();
+        BufferedReader in = source instanceof BufferedReader b ? b : new BufferedReader(source);
+        long lineNo = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+            List<String> args = CsvInventoryImporter.split(trimmed);
+            for (int i = 0; i < args.size(); i++) args.set(i, args.get(i).trim());
+            String op = args.get(0).toUpperCase(Locale.ROOT);
+            if (!op.equals("ADD")) flushAdds();
+            String eng = args.size() > 1 ? args.get(1) : null;
+            try {
+                switch (op) {
+                    case "ADD" -> add(lineNo, args);
+                    case "SEARCH" -> search(lineNo, eng);
+                    case "SELL" -> sell(lineNo, eng);
+                    case "RECONCILE" -> reconcile(lineNo, args);
+                    case "AUDIT" -> auditQuery(lineNo, args);
+                    default -> fail(lineNo, op, null, "Unknown command");
+                }
+            } catch (Exception e) {
+                System.err.println("[batch] line " + lineNo + ": " + e.getClass().getName() + ": " + e.getMessage());
+                audit.logException(user, op, eng, e);
+                fail(lineNo, op, eng, e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }
+        flushAdds();
+        audit.flush();
+        Summary s = new Summary(commands, succeeded, failed, System.currentTimeMillis() - start);
+        out.println(Json.object().put("op", "SUMMARY").put("commands", s.commands())
+                .put("ok", s.succeeded()).put("failed", s.failed()).put("elapsedMs", s.elapsedMillis()));
+        out.flush();
+        return s;
+    }
+
+    private void add(long lineNo, List<String> args) {
+        String eng = args.size() > 1 ? args.get(1) : "";
+        String brand = args.size() > 2 ? args.get(2) : "";
+        String error = StockService.validateAdd(eng, brand);
+        if (error != null) {
+            flushAdds();   // keep results in input order
+            audit.log(user, "ADD", eng, null, null, "REJECTED", error);
+            fail(lineNo, "ADD", eng, error);
+            return;
+        }
+        pendingAdds.add(new InventoryData(brand, eng, new Date(), "On-hand", "New"));
+        pendingLines.add(lineNo);
+        if (pendingAdds.size() >= batchSize) flushAdds();
+    }
+
+    private void flushAdds() {
+        if (pendingAdds.isEmpty()) return;
+        try {
+            BulkInsertResult r = repo.insertAll(pendingAdds);
+            Map<Long, String> rejected = new HashMap<>();
+            for (BulkInsertResult.Rejection rej : r.getRejections()) rejected.put(rej.index(), rej.reason());
+            for (int i = 0; i < pendingAdds.size(); i++) {
+                InventoryData d = pendingAdds.get(i);
+                String reason = rejected.get((long) i);
+                if (reason == null) {
+                    audit.log(user, "ADD", d.getEngineNumber(), d.getStatus(), d.getLevel(), "SUCCESS", "batch");
+                    succeed(pendingLines.get(i), "ADD", d.getEngineNumber());
+                } else {
+                    audit.log(user, "ADD", d.getEngineNumber(), null, null, "REJECTED", reason);
+                    fail(pendingLines.get(i), "ADD", d.getEngineNumber(), reason);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("[batch] ADD batch: " + e.getClass().getName() + ": " + e.getMessage());
+            audit.logException(user, "ADD", null, e);
+            for (int i = 0; i < pendingAdds.size(); i++) {
+                fail(pendingLines.get(i), "ADD", pendingAdds.get(i).getEngineNumber(),
+                        e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        } finally {
+            pendingAdds.clear();
+            pendingLines.clear();
+        }
+    }
+
+    private void search(long lineNo, String eng) throws Exception {
+        if (!EngineNumbers.isValid(eng)) {
+            fail(lineNo, "SEARCH", eng, "Invalid engine number format");
+            return;
+        }
+        InventoryData d = repo.findByEngineNumber(eng);
+        Json.Obj result = result(lineNo, "SEARCH", true).put("engineNumber", eng).put("found", d != null);
+        if (d != null) result.put("record", Json.record(d));
+        succeeded++;
+        out.println(result);
+    }
+
+    private void sell(long lineNo, String eng) throws Exception {
+        StockService.Outcome o = stock.sell(user, admin, eng, "batch sell");
+        if (!o.ok()) {
+            fail(lineNo, "SELL", eng, o.error());
+            return;
+        }
+        succeeded++;
+        out.println(result(lineNo, "SELL", true).put("engineNumber", eng).put("record", Json.record(o.record())));
+    }
+
+    private void reconcile(long lineNo, List<String> args) throws Exception {
+        ReconcileMode mode = args.size() > 1
+                ? ReconcileMode.valueOf(args.get(1).toUpperCase(Locale.ROOT))
+                : ReconcileMode.defaultFor(repo);
+        if (mode == ReconcileMode.RESCAN && !admin) {
+            audit.log(user, "RECONCILE", null, null, null, "DENIED", "Non-admin attempted rescan");
+            fail(lineNo, "RECONCILE", null, "Admin role required for rescan");
+            return;
+        }
+        ReconcileResult r = mode.run(repo, this::emitIssue);
+        audit.log(user, "RECONCILE", null, null, null, "SUCCESS",
+                "scanned=" + r.getScanned() + ", issues=" + r.getTotalIssues() + ", mode=" + mode.name().toLowerCase());
+        succeeded++;
+        out.println(result(lineNo, "RECONCILE", true).put("mode", mode.name().toLowerCase())
+                .put("scanned", r.getScanned()).put("issues", r.getTotalIssues())
+                .put("counts", r.getCountsByRule()).put("elapsedMs", r.getElapsedMillis()));
+    }
+
+    private void emitIssue(ReconcileIssue issue) {
+        out.println(Json.object().put("op", "ISSUE").put("engineNumber", issue.engineNumber())
+                .put("rule", issue.rule().name()).put("value", issue.value()));
+    }
+
+    private void auditQuery(long lineNo, List<String> args) throws Exception {
+        AuditQuery q = new AuditQuery();
+        for (String arg : args.subList(1, args.size())) {
+            int eq = arg.indexOf('=');
+            if (eq < 0) throw new IllegalArgumentException("Expected key=value, got '" + arg + "'");
+            String key = arg.substring(0, eq).trim().toLowerCase(Locale.ROOT);
+            String value = arg.substring(eq + 1).trim();
+            switch (key) {
+                case "engine" -> q.engineNumber(value);
+                case "user" -> q.user(value);
+                case "action" -> q.action(value.toUpperCase(Locale.ROOT));
+                case "outcome" -> q.outcome(value.toUpperCase(Locale.ROOT));
+                case "from" -> q.from(Long.parseLong(value));
+                case "to" -> q.to(Long.parseLong(value));
+                case "limit" -> q.limit(Integer.parseInt(value));
+                case "archive" -> {
+                    if (Boolean.parseBoolean(value)) q.includeArchive();
+                }
+                default -> throw new IllegalArgumentException("Unknown AUDIT filter '" + key + "'");
+            }
+        }
+        AuditPage page = audit.search(q);
+        List<Json.Obj> records = new ArrayList<>(page.getRecords().size());
+        for (AuditRecord r : page.getRecords()) records.add(Json.record(r));
+        succeeded++;
+        out.println(result(lineNo, "AUDIT", true).put("count", records.size())
+                .put("more", page.hasMore()).put("records", records));
+    }
+
+    private Json.Obj result(long lineNo, String op, boolean ok) {
+        commands++;
+        return Json.object().put("line", lineNo).put("op", op).put("ok", ok);
+    }
+
+    private void succeed(long lineNo, String op, String eng) {
+        succeeded++;
+        out.println(result(lineNo, op, true).put("engineNumber", eng));
+    }
+
+    private void fail(long lineNo, String op, String eng, String error) {
+        failed++;
+        out.println(result(lineNo, op, false).put("engineNumber", eng).put("error", error));
+    }
+}
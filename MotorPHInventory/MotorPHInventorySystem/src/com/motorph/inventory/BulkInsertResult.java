@@ -0,0 +1,37 @@
+package com.motorph.inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Outcome of InventoryRepository.insertAll: how many rows went in, and which ones were
+// rejected (index = 0-based position in the input).
+public final class BulkInsertResult {
+
+    public record Rejection(long index, String engineNumber, String reason) {}
+
+    private int inserted;
+    private final List<Rejection> rejections = new ArrayList<>();
+
+    // Filled in by InventoryRepository implementations, which need not live in this package.
+    public void addInserted(int n) {
+        inserted += n;
+    }
+
+    public void reject(long index, String engineNumber, String reason) {
+        rejections.add(new Rejection(index, engineNumber, reason));
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public List<Rejection> getRejections() {
+        return Collections.unmodifiableList(rejections);
+    }
+
+    @Override
+    public String toString() {
+        return "inserted=" + inserted + ", rejected=" + rejections.size();
+    }
+}
@@ -0,0 +1,202 @@
+package com.motorph.inventory;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Read-through LRU cache in front of another repository.
+// Caches point lookups by engine number, including "not found" results. Scans and pages
+// always go to the delegate. InventoryData is immutable, so cached instances are handed
+// out as-is.
+// Writes drop the entry once the delegate is done rather than storing the new value: two
+// writers to the same key can finish in either order, and only a fresh read is sure to
+// match the database. The version counter then keeps a racing read from re-filling it.
+public class CachingInventoryRepository implements InventoryRepository {
+
+    public record Stats(long hits, long negativeHits, long misses, long evictions, int size, int capacity) {
+        public double hitRatio() {
+            long total = hits + negativeHits + misses;
+            return total == 0 ? 0.0 : (double) (hits + negativeHits) / total;
+        }
+    }
+
+    // Marks an engine number known to be absent.
+    private static final InventoryData ABSENT = new InventoryData(null, null, null, null, null);
+
+    private final InventoryRepository delegate;
+    private final int capacity;
+    private final LinkedHashMap<String, InventoryData> cache;
+
+    private long hits;
+    private long negativeHits;
+    private long misses;
+    private long evictions;
+    private long version;   // bumped by every write; guards read-through fills
+
+    public CachingInventoryRepository(InventoryRepository delegate, int capacity) {
+        if (capacity < 1) throw new IllegalArgumentException("capacity must be >= 1");
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.cache = new LinkedHashMap<>(Math.min(capacity, 1 << 16), 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, InventoryData> eldest) {
+                if (size() > CachingInventoryRepository.this.capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public void insert(InventoryData d) throws Exception {
+        try {
+            delegate.insert(d);
+        } finally {
+            invalidate(d.getEngineNumber());
+        }
+    }
+
+    @Override
+    public InventoryData findByEngineNumber(String engineNumber) throws Exception {
+        long seenVersion;
+        synchronized (this) {
+            InventoryData cached = cache.get(engineNumber);
+            if (cached == ABSENT) {
+                negativeHits++;
+                return null;
+            }
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            seenVersion = version;
+        }
+        InventoryData loaded = delegate.findByEngineNumber(engineNumber);
+        // Skip the fill if any write landed while we were loading: the row we read may
+        // already be stale, and caching it would outlive that write's invalidation.
+        synchronized (this) {
+            if (version == seenVersion) cache.put(engineNumber, loaded == null ? ABSENT : loaded);
+        }
+        return loaded;
+    }
+
+    @Override
+    public void update(InventoryData d) throws Exception {
+        try {
+            delegate.update(d);
+        } finally {
+            invalidate(d.getEngineNumber());
+        }
+    }
+
+    @Override
+    public void deleteByEngineNumber(String engineNumber) throws Exception {
+        try {
+            delegate.deleteByEngineNumber(engineNumber);
+        } finally {
+            invalidate(engineNumber);
+        }
+    }
+
+    @Override
+    public SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+        // A rejected sell only read the row, and a write may have landed since; drop it too.
+        try {
+            return delegate.sell(engineNumber, expectedStatus, user, details);
+        } finally {
+            invalidate(engineNumber);
+        }
+    }
+
+    @Override
+    public List<InventoryData> findAllSortedByEngineNumber() throws Exception {
+        return delegate.findAllSortedByEngineNumber();
+    }
+
+    @Override
+    public List<InventoryData> findPage(String afterEngineNumber, int limit) throws Exception {
+        return delegate.findPage(afterEngineNumber, limit);
+    }
+
+    @Override
+    public void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) throws Exception {
+        delegate.forEachSortedByEngineNumber(action);
+    }
+
+    @Override
+    public void forEachMatching(InventoryQuery q, Consumer<? super InventoryData> action) throws Exception {
+        delegate.forEachMatching(q, action);
+    }
+
+    @Override
+    public long count(InventoryQuery q) throws Exception {
+        return delegate.count(q);
+    }
+
+    @Override
+    public BulkInsertResult insertAll(Iterable<InventoryData> rows) throws Exception {
+        // Whether inserted or rejected as a duplicate, every key in the input exists afterwards,
+        // so any cached "absent" marker for it is stale. Keys are collected as rows stream past
+        // and dropped once the delegate is done, so a lookup racing the insert cannot re-cache
+        // "absent" after the fact.
+        List<String> keys = new ArrayList<>();
+        try {
+            return delegate.insertAll(() -> new Iterator<>() {
+                private final Iterator<InventoryData> it = rows.iterator();
+
+                @Override
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+
+                @Override
+                public InventoryData next() {
+                    InventoryData d = it.next();
+                    keys.add(d.getEngineNumber());
+                    return d;
+                }
+            });
+        } finally {
+            synchronized (this) {
+                version++;
+                for (String k : keys) {
+                    if (k != null) cache.remove(k);
+                }
+            }
+        }
+    }
+
+    public synchronized void invalidateAll() {
+        version++;
+        cache.clear();
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(hits, negativeHits, misses, evictions, cache.size(), capacity);
+    }
+
+    public synchronized void resetStats() {
+        hits = negativeHits = misses = evictions = 0;
+    }
+
+    private synchronized void invalidate(String engineNumber) {
+        version++;
+        if (engineNumber != null) cache.remove(engineNumber);
+    }
+
+    @Override
+    public boolean usesInventoryTable() {
+        return delegate.usesInventoryTable();
+    }
+
+    @Override
+    public void syncInventoryTable() throws Exception {
+        delegate.syncInventoryTable();
+    }
+}
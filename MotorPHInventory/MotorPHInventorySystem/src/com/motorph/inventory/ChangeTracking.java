@@ -0,0 +1,43 @@
+package com.motorph.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Change sequence for the inventory table (schema in DB.ensureSchema).
+//
+// Every insert or update stamps the row's mod_seq with a number reserved from the one-row
+// inventory_seq counter, and every delete leaves a tombstone in inventory_deleted, in the
+// same transaction as the row change. A reader that sees counter value C therefore sees
+// every change numbered <= C, and any later change gets a larger number. That is what lets
+// IncrementalReconciler re-examine only what changed since its checkpoint.
+//
+// Rows written by other tools keep mod_seq 0 and are picked up by a full rescan.
+final class ChangeTracking {
+
+    static final String TOMBSTONE_SQL = "INSERT INTO inventory_deleted(engine_number, mod_seq) VALUES(?,?) "
+            + "ON CONFLICT(engine_number) DO UPDATE SET mod_seq=excluded.mod_seq";
+
+    // Reserves n consecutive numbers and returns the first. The caller must be inside a
+    // transaction (autocommit off) that also writes the rows carrying the numbers; the
+    // UPDATE takes SQLite's write lock first, so the transaction never has to upgrade.
+    static long reserve(Connection c, int n) throws SQLException {
+        try (PreparedStatement up = c.prepareStatement("UPDATE inventory_seq SET value = value + ?")) {
+            up.setInt(1, n);
+            up.executeUpdate();
+        }
+        return current(c) - n + 1;
+    }
+
+    // Highest number handed out, as visible to c's current transaction.
+    static long current(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT value FROM inventory_seq")) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    private ChangeTracking() {}
+}
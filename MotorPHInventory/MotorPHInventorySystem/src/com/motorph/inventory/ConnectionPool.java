@@ -0,0 +1,221 @@
+package com.motorph.inventory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Small bounded pool of JDBC connections.
+// Borrowed connections are proxies: close() hands the physical connection back
+// to the pool instead of closing it.
+final class ConnectionPool {
+
+    // Hook for per-connection setup (pragmas, etc.), run once when a physical connection is opened.
+    interface Initializer {
+        void init(Connection c) throws SQLException;
+    }
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String url;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final Initializer initializer;
+
+    private final Semaphore permits;
+    private final Deque<IdleConnection> idle = new ArrayDeque<>();
+    private volatile boolean shutdown;
+
+    private int opened;   // physical connections currently alive (guarded by this)
+
+    ConnectionPool(String url, int maxSize, long idleTimeoutMillis, long borrowTimeoutMillis, Initializer initializer) {
+        if (maxSize < 1) throw new IllegalArgumentException("maxSize must be >= 1");
+        this.url = url;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.initializer = initializer;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    Connection borrow() throws SQLException {
+        if (shutdown) throw new SQLException("Connection pool is shut down");
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection (pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            Connection raw = takeIdle();
+            if (raw == null) raw = open();
+            return wrap(raw);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    int getMaxSize() {
+        return maxSize;
+    }
+
+    synchronized int getIdleCount() {
+        return idle.size();
+    }
+
+    synchronized int getOpenCount() {
+        return opened;
+    }
+
+    void shutdown() {
+        shutdown = true;
+        synchronized (this) {
+            for (IdleConnection ic : idle) closeQuietly(ic.connection);
+            idle.clear();
+        }
+    }
+
+    private Connection takeIdle() {
+        long now = System.currentTimeMillis();
+        while (true) {
+            IdleConnection candidate;
+            synchronized (this) {
+                evictExpired(now);
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) return null;
+            if (isUsable(candidate.connection)) return candidate.connection;
+            closeQuietly(candidate.connection);
+        }
+    }
+
+    // Caller holds the monitor. Oldest idle connections sit at the tail.
+    private void evictExpired(long now) {
+        Iterator<IdleConnection> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            IdleConnection ic = it.next();
+            if (now - ic.idleSince < idleTimeoutMillis) break;
+            it.remove();
+            closeQuietly(ic.connection);
+        }
+    }
+
+    private Connection open() throws SQLException {
+        Connection raw = DriverManager.getConnection(url);
+        synchronized (this) {
+            opened++;
+        }
+        try {
+            if (initializer != null) initializer.init(raw);
+        } catch (SQLException | RuntimeException e) {
+            closeQuietly(raw);
+            throw e;
+        }
+        return raw;
+    }
+
+    private boolean isUsable(Connection c) {
+        try {
+            return !c.isClosed() && c.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(Connection raw) {
+        try {
+            boolean reusable = !shutdown && !raw.isClosed();
+            if (reusable && !raw.getAutoCommit()) {
+                // Never hand out a connection with a half-finished transaction.
+                raw.rollback();
+                raw.setAutoCommit(true);
+            }
+            if (reusable) {
+                synchronized (this) {
+                    idle.addFirst(new IdleConnection(raw, System.currentTimeMillis()));
+                }
+            } else {
+                closeQuietly(raw);
+            }
+        } catch (SQLException e) {
+            closeQuietly(raw);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void closeQuietly(Connection c) {
+        try {
+            c.close();
+        } catch (SQLException ignored) {
+            // already broken; nothing left to clean up
+        } finally {
+            synchronized (this) {
+                opened--;
+            }
+        }
+    }
+
+    private Connection wrap(Connection raw) {
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                new PooledHandler(raw));
+    }
+
+    private final class PooledHandler implements InvocationHandler {
+        private final Connection raw;
+        private boolean closed;
+
+        PooledHandler(Connection raw) {
+            this.raw = raw;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        release(raw);
+                    }
+                    return null;
+                }
+                case "isClosed" -> {
+                    return closed || raw.isClosed();
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                case "toString" -> {
+                    return "Pooled[" + raw + "]";
+                }
+                default -> {
+                    if (closed) throw new SQLException("Connection already returned to the pool");
+                    try {
+                        return method.invoke(raw, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }
+            }
+        }
+    }
+
+    private record IdleConnection(Connection connection, long idleSince) {}
+}
@@ -0,0 +1,152 @@
+package com.motorph.inventory;
+
+import java.io.BufferedReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+// Streams a CSV file into the repository in fixed-size chunks, so memory use does not
+// depend on file size. Expected columns:
+//   engine_number,brand[,date_entered[,status[,level]]]
+// date_entered may be epoch millis, yyyy-MM-dd or yyyy-MM-dd HH:mm; blank means "now".
+// status/level default to On-hand/New. A first line starting with "engine_number" is skipped.
+public class CsvInventoryImporter {
+
+    public record LineError(long line, String engineNumber, String reason) {}
+
+    public static final class Report {
+        private long linesRead;
+        private int inserted;
+        private final List<LineError> errors = new ArrayList<>();
+
+        public long getLinesRead() { return linesRead; }
+        public int getInserted() { return inserted; }
+        public List<LineError> getErrors() { return Collections.unmodifiableList(errors); }
+
+        @Override
+        public String toString() {
+            return "lines=" + linesRead + ", inserted=" + inserted + ", rejected=" + errors.size();
+        }
+    }
+
+    private static final int CHUNK_SIZE = JdbcInventoryRepository.BULK_CHUNK_SIZE;
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    private final InventoryRepository repo;
+
+    public CsvInventoryImporter(InventoryRepository repo) {
+        this.repo = repo;
+    }
+
+    public Report importFile(Path file) throws Exception {
+        try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return importFrom(in);
+        }
+    }
+
+    public Report importFrom(Reader source) throws Exception {
+        BufferedReader in = source instanceof BufferedReader b ? b : new BufferedReader(source);
+        Report report = new Report();
+        List<InventoryData> chunk = new ArrayList<>(CHUNK_SIZE);
+        long[] lineOf = new long[CHUNK_SIZE];
+        long lineNo = 0;
+        String line;
+        while ((line = in.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank()) continue;
+            if (lineNo == 1 && line.trim().toLowerCase().startsWith("engine_number")) continue;
+            report.linesRead++;
+            List<String> cols = split(line);
+            String eng = col(cols, 0);
+            String error = validate(cols, eng);
+            if (error != null) {
+                report.errors.add(new LineError(lineNo, eng, error));
+                continue;
+            }
+            lineOf[chunk.size()] = lineNo;
+            chunk.add(new InventoryData(col(cols, 1), eng, parseDate(col(cols, 2)),
+                    orDefault(col(cols, 3), "On-hand"), orDefault(col(cols, 4), "New")));
+            if (chunk.size() == CHUNK_SIZE) {
+                submit(chunk, lineOf, report);
+            }
+        }
+        if (!chunk.isEmpty()) submit(chunk, lineOf, report);
+        return report;
+    }
+
+    private void submit(List<InventoryData> chunk, long[] lineOf, Report report) throws Exception {
+        BulkInsertResult r = repo.insertAll(chunk);
+        report.inserted += r.getInserted();
+        for (BulkInsertResult.Rejection rej : r.getRejections()) {
+            report.errors.add(new LineError(lineOf[(int) rej.index()], rej.engineNumber(), rej.reason()));
+        }
+        chunk.clear();
+    }
+
+    private String validate(List<String> cols, String eng) {
+        if (!EngineNumbers.isValid(eng)) return "Invalid engine number format";
+        if (col(cols, 1).isEmpty()) return "Missing brand";
+        try {
+            parseDate(col(cols, 2));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return "Invalid date_entered '" + col(cols, 2) + "'";
+        }
+        return null;
+    }
+
+    private static Date parseDate(String s) {
+        if (s.isEmpty()) return new Date();
+        if (s.chars().allMatch(Character::isDigit)) return new Date(Long.parseLong(s));
+        LocalDateTime t = s.length() <= 10 ? LocalDate.parse(s).atStartOfDay() : LocalDateTime.parse(s, DATE_TIME);
+        return Date.from(t.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String col(List<String> cols, int i) {
+        return i < cols.size() ? cols.get(i).trim() : "";
+    }
+
+    private static String orDefault(String s, String def) {
+        return s.isEmpty() ? def : s;
+    }
+
+    // Minimal RFC 4180 split: handles quoted fields and doubled quotes, no embedded newlines.
+    static List<String> split(String line) {
+        List<String> out = new ArrayList<>(5);
+        StringBuilder cur = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char ch = line.charAt(i);
+            if (quoted) {
+                if (ch == '"') {
+                    if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        cur.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    cur.append(ch);
+                }
+            } else if (ch == '"') {
+                quoted = true;
+            } else if (ch == ',') {
+                out.add(cur.toString());
+                cur.setLength(0);
+            } else {
+                cur.append(ch);
+            }
+        }
+        out.add(cur.toString());
+        return out;
+    }
+}
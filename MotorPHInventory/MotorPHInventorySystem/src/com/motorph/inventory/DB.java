@@ -4,23 +4,71 @@ import java.nio.file.*;
 import java.sql.*;
 
 public final class DB {
-    private static final String URL = "jdbc:sqlite:data/motorph_inventory.db";
+    // Path, PRAGMAs and pool sizing; see StorageProfile for the property keys.
+    // Overridable so benchmarks and experiments never touch the real inventory file.
+    private static final StorageProfile PROFILE = StorageProfile.load();
+    private static final String DB_PATH = PROFILE.getPath();
+
+    private static final ConnectionPool POOL = new ConnectionPool(PROFILE.getUrl(), PROFILE.getPoolSize(),
+            PROFILE.getIdleTimeoutMs(), PROFILE.getBorrowTimeoutMs(), PROFILE::apply);
+    private static volatile boolean schemaReady;
+    private static final OperationMetrics ACQUIRE = Metrics.operation("db.getConnection");
 
     static {
         try {
-            Files.createDirectories(Paths.get("data"));
+            Path parent = Paths.get(DB_PATH).toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
             Class.forName("org.sqlite.JDBC");
         } catch (Exception e) {
             throw new RuntimeException("SQLite JDBC driver not on the classpath", e);
         }
     }
 
+    // Borrows a pooled connection; close() returns it to the pool.
     public static Connection getConnection() throws SQLException {
-        Connection conn = DriverManager.getConnection(URL);
-        ensureSchema(conn);
+        long t0 = System.nanoTime();
+        Connection conn;
+        try {
+            conn = POOL.borrow();
+        } catch (SQLException | RuntimeException e) {
+            ACQUIRE.recordSince(t0, false);
+            throw e;
+        }
+        ACQUIRE.recordSince(t0, true);
+        if (!schemaReady) {
+            try {
+                bootstrapSchema(conn);
+            } catch (SQLException | RuntimeException e) {
+                conn.close();
+                throw e;
+            }
+        }
         return conn;
     }
 
+    private static synchronized void bootstrapSchema(Connection conn) throws SQLException {
+        if (schemaReady) return;
+        ensureSchema(conn);
+        migrateAutoVacuum(conn);
+        schemaReady = true;
+    }
+
+    // auto_vacuum can only be switched on an existing file by rebuilding it, so files
+    // created before StorageProfile asked for INCREMENTAL stay at NONE and AuditArchiver
+    // could never give space back. Rebuild such a file once; later starts see mode 2.
+    private static void migrateAutoVacuum(Connection conn) throws SQLException {
+        try (Statement st = conn.createStatement()) {
+            try (ResultSet rs = st.executeQuery("PRAGMA auto_vacuum")) {
+                if (rs.next() && rs.getInt(1) == 2) return;
+            }
+            long t0 = System.currentTimeMillis();
+            st.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            st.execute("VACUUM");
+            System.err.println("[DB] Rebuilt " + DB_PATH + " for incremental auto-vacuum in "
+                    + (System.currentTimeMillis() - t0) + " ms");
+        }
+    }
+
     private static void ensureSchema(Connection conn) throws SQLException {
         try (Statement st = conn.createStatement()) {
             st.executeUpdate("""
@@ -29,10 +77,46 @@ public final class DB {
                     brand         TEXT NOT NULL,
                     date_entered  INTEGER NOT NULL,  -- epoch millis
                     status        TEXT NOT NULL,
-                    level         TEXT NOT NULL
+                    level         TEXT NOT NULL,
+                    mod_seq       INTEGER NOT NULL DEFAULT 0  -- change sequence, see ChangeTracking
                 )
             """);
-            // Optional: users table (if you later want DB-backed AuthService)
+            if (!hasColumn(st, "inventory", "mod_seq")) {
+                st.executeUpdate("ALTER TABLE inventory ADD COLUMN mod_seq INTEGER NOT NULL DEFAULT 0");
+            }
+            // Secondary indexes for InventoryQuery. Each one holds every filter column, so
+            // count() never touches the table whichever predicates are combined.
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_brand_date ON inventory(brand, date_entered, status, level)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_status_level_date ON inventory(status, level, date_entered)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_date ON inventory(date_entered, status, level)");
+            // Change tracking for incremental reconciliation: one-row counter, rows changed
+            // since a checkpoint by mod_seq, and tombstones for deleted engine numbers.
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_inventory_mod_seq ON inventory(mod_seq)");
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS inventory_seq (value INTEGER NOT NULL)");
+            st.executeUpdate("INSERT INTO inventory_seq(value) SELECT 0 WHERE NOT EXISTS (SELECT 1 FROM inventory_seq)");
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS inventory_deleted (
+                    engine_number TEXT PRIMARY KEY,
+                    mod_seq       INTEGER NOT NULL
+                )
+            """);
+            // Issue set kept by IncrementalReconciler, valid as of reconcile_state.checkpoint.
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS reconcile_issue (
+                    engine_number TEXT,
+                    rule          TEXT NOT NULL,        -- ReconcileRule name
+                    value         TEXT,
+                    PRIMARY KEY (engine_number, rule)
+                )
+            """);
+            st.executeUpdate("""
+                CREATE TABLE IF NOT EXISTS reconcile_state (
+                    id          INTEGER PRIMARY KEY CHECK (id = 1),
+                    checkpoint  INTEGER NOT NULL,     -- inventory_seq value the issue set reflects
+                    last_full   INTEGER NOT NULL      -- epoch millis of the last full rescan
+                )
+            """);
+            // users for AuthService; password holds a PBKDF2 hash (see AuthService)
             st.executeUpdate("""
                 CREATE TABLE IF NOT EXISTS users (
                     username TEXT PRIMARY KEY,
@@ -54,18 +138,39 @@ public final class DB {
                     details       TEXT
                 )
             """);
+            // Audit investigations: an engine's history, one user's actions, or all
+            // events of a kind, each newest-first by ts.
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_audit_engine_ts ON audit_log(engine_number, ts)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_audit_user_ts ON audit_log(user, ts)");
+            st.executeUpdate("CREATE INDEX IF NOT EXISTS idx_audit_action_outcome_ts ON audit_log(action, outcome, ts)");
+        }
+    }
+
+    private static boolean hasColumn(Statement st, String table, String column) throws SQLException {
+        try (ResultSet rs = st.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) return true;
+            }
+            return false;
         }
     }
 
     public static void ensureReady() {
         try (Connection ignored = getConnection()) {
-            System.out.println("[DB] Ready at " + Paths.get("data/motorph_inventory.db").toAbsolutePath());
+            System.out.println("[DB] Ready at " + Paths.get(DB_PATH).toAbsolutePath());
+            System.out.println("[DB] Storage profile: " + PROFILE);
         } catch (SQLException e) {
             throw new RuntimeException("Database init failed: " + e.getMessage(), e);
         }
     }
 
-    
+    public static StorageProfile getProfile() {
+        return PROFILE;
+    }
+
+    public static void shutdown() {
+        POOL.shutdown();
+    }
 
     private DB() {}
 }
\ No newline at end of file
@@ -0,0 +1,267 @@
+package com.motorph.inventory;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+
+// In-memory index from engine number to a long (MappedLogInventoryRepository keeps log
+// offsets in it), keyed by primitive long.
+// Open addressing with linear probing over parallel arrays: no boxing, no per-entry
+// objects, and lookups do not allocate. Ordered iteration uses a sorted copy of the
+// keys that is rebuilt only after the key set changes.
+// Callers keep using String engine numbers; encoding happens here.
+//
+// Thread-safe: lookups share a read lock, put/remove take the write lock. Ordered reads
+// copy the values under the read lock and hand them out after releasing it.
+public class EngineNumberIndex {
+    public static final long ABSENT = -1L;   // returned for a missing key; not a valid value
+
+    private static final long FREE = -1L;   // valid keys are 0 .. 9_999_999_999
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+
+    private volatile long[] sortedKeys;   // null when stale; rebuilt by readers
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    public EngineNumberIndex() {
+        this(16);
+    }
+
+    public EngineNumberIndex(int expectedSize) {
+        int cap = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        allocate(cap);
+    }
+
+    public int size() {
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    // The value stored for engineNumber, or ABSENT.
+    public long get(String engineNumber) {
+        long key = EngineNumbers.encode(engineNumber);
+        if (key < 0) return ABSENT;
+        readLock.lock();
+        try {
+            return get(key);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    public boolean containsKey(String engineNumber) {
+        return get(engineNumber) != ABSENT;
+    }
+
+    // Adds or replaces the value stored under engineNumber; returns the previous one or ABSENT.
+    public long put(String engineNumber, long value) {
+        long key = EngineNumbers.encode(engineNumber);
+        if (key < 0) throw new IllegalArgumentException("Engine number must be exactly 10 digits: " + engineNumber);
+        if (value < 0) throw new IllegalArgumentException("Negative value: " + value);
+        writeLock.lock();
+        try {
+            int slot = slotOf(key);
+            while (keys[slot] != FREE) {
+                if (keys[slot] == key) {
+                    long old = values[slot];
+                    values[slot] = value;
+                    return old;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+            sortedKeys = null;
+            if (++size >= resizeAt) rehash(keys.length << 1);
+            return ABSENT;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Returns the removed value, or ABSENT.
+    public long remove(String engineNumber) {
+        long key = EngineNumbers.encode(engineNumber);
+        if (key < 0) return ABSENT;
+        writeLock.lock();
+        try {
+            int slot = slotOf(key);
+            while (keys[slot] != FREE) {
+                if (keys[slot] == key) {
+                    long old = values[slot];
+                    shiftBack(slot);
+                    size--;
+                    sortedKeys = null;
+                    return old;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return ABSENT;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public void clear() {
+        writeLock.lock();
+        try {
+            Arrays.fill(keys, FREE);
+            size = 0;
+            sortedKeys = null;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Every value, in engine number order.
+    public long[] valuesInOrder() {
+        return valuesAfter(null, Integer.MAX_VALUE);
+    }
+
+    // Values of up to limit engine numbers sorting strictly after afterEngineNumber (any
+    // string; null = from the start), in order.
+    public long[] valuesAfter(String afterEngineNumber, int limit) {
+        readLock.lock();
+        try {
+            long[] sorted = sorted();
+            int from = afterEngineNumber == null ? 0 : firstAfter(sorted, afterEngineNumber);
+            int n = Math.min(sorted.length - from, Math.max(0, limit));
+            long[] out = new long[n];
+            for (int i = 0; i < n; i++) out[i] = get(sorted[from + i]);
+            return out;
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    // Values for fromEngineNumber <= engine number <= toEngineNumber, in order.
+    public void forEachInRange(String fromEngineNumber, String toEngineNumber, LongConsumer action) {
+        long from = EngineNumbers.encode(fromEngineNumber);
+        long to = EngineNumbers.encode(toEngineNumber);
+        if (from < 0 || to < 0) throw new IllegalArgumentException("Range bounds must be 10-digit engine numbers");
+        long[] out;
+        readLock.lock();
+        try {
+            long[] sorted = sorted();
+            int i = Arrays.binarySearch(sorted, from);
+            if (i < 0) i = -i - 1;
+            int j = i;
+            while (j < sorted.length && sorted[j] <= to) j++;
+            out = new long[j - i];
+            for (int k = i; k < j; k++) out[k - i] = get(sorted[k]);
+        } finally {
+            readLock.unlock();
+        }
+        for (long v : out) action.accept(v);
+    }
+
+    // Caller holds a lock.
+    private long get(long key) {
+        int slot = slotOf(key);
+        long k;
+        while ((k = keys[slot]) != FREE) {
+            if (k == key) return values[slot];
+            slot = (slot + 1) & mask;
+        }
+        return ABSENT;
+    }
+
+    // Caller holds a lock. Concurrent readers may both rebuild; each publishes a complete array.
+    private long[] sorted() {
+        long[] s = sortedKeys;
+        if (s == null) {
+            s = new long[size];
+            int n = 0;
+            for (long k : keys) {
+                if (k != FREE) s[n++] = k;
+            }
+            Arrays.sort(s);
+            sortedKeys = s;
+        }
+        return s;
+    }
+
+    // Index of the first key whose 10-digit form sorts after s. Keys are fixed width, so
+    // numeric order is string order; any other string is compared as text.
+    private static int firstAfter(long[] sorted, String s) {
+        long key = EngineNumbers.encode(s);
+        if (key >= 0) {
+            int i = Arrays.binarySearch(sorted, key);
+            return i >= 0 ? i + 1 : -i - 1;
+        }
+        int lo = 0, hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (EngineNumbers.decode(sorted[mid]).compareTo(s) > 0) hi = mid;
+            else lo = mid + 1;
+        }
+        return lo;
+    }
+
+    // Backward-shift deletion keeps probe chains intact without tombstones.
+    private void shiftBack(int slot) {
+        int hole = slot;
+        int next = (hole + 1) & mask;
+        while (keys[next] != FREE) {
+            int home = slotOf(keys[next]);
+            // move the entry if its home slot is not within (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                values[hole] = values[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        keys[hole] = FREE;
+    }
+
+    private void rehash(int newCapacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(newCapacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long k = oldKeys[i];
+            if (k == FREE) continue;
+            int slot = slotOf(k);
+            while (keys[slot] != FREE) slot = (slot + 1) & mask;
+            keys[slot] = k;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        Arrays.fill(keys, FREE);
+        values = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private int slotOf(long key) {
+        // murmur3 finalizer: sequential engine numbers would otherwise cluster
+        long h = key;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return (int) h & mask;
+    }
+}
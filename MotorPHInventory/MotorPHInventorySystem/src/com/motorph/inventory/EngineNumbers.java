@@ -0,0 +1,40 @@
+package com.motorph.inventory;
+
+// Engine number helpers. Hand-rolled instead of String.matches("\\d{10}"),
+// which compiles a new Pattern on every call.
+final class EngineNumbers {
+    static final int LENGTH = 10;
+
+    static boolean isValid(String s) {
+        if (s == null || s.length() != LENGTH) return false;
+        for (int i = 0; i < LENGTH; i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return false;
+        }
+        return true;
+    }
+
+    // Packs a valid engine number into a long (ordering is preserved because the width is fixed).
+    // Returns -1 for anything that is not exactly 10 digits.
+    static long encode(String s) {
+        if (s == null || s.length() != LENGTH) return -1;
+        long v = 0;
+        for (int i = 0; i < LENGTH; i++) {
+            char ch = s.charAt(i);
+            if (ch < '0' || ch > '9') return -1;
+            v = v * 10 + (ch - '0');
+        }
+        return v;
+    }
+
+    static String decode(long v) {
+        char[] buf = new char[LENGTH];
+        for (int i = LENGTH - 1; i >= 0; i--) {
+            buf[i] = (char) ('0' + (v % 10));
+            v /= 10;
+        }
+        return new String(buf);
+    }
+
+    private EngineNumbers() {}
+}
@@ -0,0 +1,241 @@
+package com.motorph.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Reconciliation that keeps its result between runs. The issue set lives in reconcile_issue
+// and is valid as of reconcile_state.checkpoint, an inventory_seq value (see ChangeTracking).
+// A run re-examines only rows stamped after the checkpoint and engine numbers deleted since,
+// replaces their issues and moves the checkpoint, so its cost follows churn rather than
+// table size. rescan() rebuilds the whole set; the first run on a database does that too.
+//
+// Rows are read in one transaction and the issue set is written in a second, short one, so
+// writers are never held up by a long read. The write only commits if the checkpoint is
+// still the one the read saw. Runs in this process are serialized; if another process
+// moves the checkpoint first, the run starts over.
+public class IncrementalReconciler {
+
+    private static final ReconcileRule[] RULES = ReconcileRule.values();
+    private static final ReentrantLock RUN_LOCK = new ReentrantLock();
+    private static final int MAX_ATTEMPTS = 3;
+    private static final int FETCH_SIZE = 500;
+
+    // Issue-set changes computed by the read transaction.
+    private record Delta(Long checkpoint, long upTo, boolean full, List<String> touched,
+                         List<ReconcileIssue> issues, long scanned) {}
+
+    // Re-examines what changed since the last run, then reports the whole current issue set.
+    public ReconcileResult run(Consumer<? super ReconcileIssue> sink) throws SQLException {
+        return run(sink, false);
+    }
+
+    // Re-examines every row and rebuilds the issue set, then reports it.
+    public ReconcileResult rescan(Consumer<? super ReconcileIssue> sink) throws SQLException {
+        return run(sink, true);
+    }
+
+    private ReconcileResult run(Consumer<? super ReconcileIssue> sink, boolean full) throws SQLException {
+        long start = System.currentTimeMillis();
+        RUN_LOCK.lock();
+        try {
+            long scanned = -1;
+            for (int attempt = 1; scanned < 0; attempt++) {
+                if (attempt > MAX_ATTEMPTS) {
+                    throw new SQLException("Reconcile checkpoint moved by another process; try again");
+                }
+                scanned = refresh(full);
+            }
+            long[] counts = new long[RULES.length];
+            report(counts, sink);
+            return new ReconcileResult(scanned, counts, System.currentTimeMillis() - start);
+        } finally {
+            RUN_LOCK.unlock();
+        }
+    }
+
+    // Brings the issue set up to date. Returns the rows examined, or -1 when another
+    // process moved the checkpoint in between.
+    private long refresh(boolean full) throws SQLException {
+        Delta delta;
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                Long checkpoint = readCheckpoint(c);   // first read fixes the snapshot
+                long upTo = ChangeTracking.current(c);
+                delta = full || checkpoint == null ? readAll(c, checkpoint, upTo) : readChanges(c, checkpoint, upTo);
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                if (!apply(c, delta)) {
+                    c.rollback();
+                    return -1;
+                }
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+        return delta.scanned();
+    }
+
+    private static Long readCheckpoint(Connection c) throws SQLException {
+        try (Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT checkpoint FROM reconcile_state WHERE id = 1")) {
+            return rs.next() ? rs.getLong(1) : null;
+        }
+    }
+
+    private static Delta readAll(Connection c, Long checkpoint, long upTo) throws SQLException {
+        List<ReconcileIssue> issues = new ArrayList<>();
+        long scanned = check(c, "SELECT engine_number, brand, date_entered, status, level FROM inventory",
+                -1, null, issues);
+        return new Delta(checkpoint, upTo, true, List.of(), issues, scanned);
+    }
+
+    private static Delta readChanges(Connection c, long checkpoint, long upTo) throws SQLException {
+        List<String> touched = new ArrayList<>();
+        try (PreparedStatement ps = c.prepareStatement("SELECT engine_number FROM inventory_deleted WHERE mod_seq > ?")) {
+            ps.setLong(1, checkpoint);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) touched.add(rs.getString(1));
+            }
+        }
+        List<ReconcileIssue> issues = new ArrayList<>();
+        long scanned = check(c, "SELECT engine_number, brand, date_entered, status, level FROM inventory "
+                + "WHERE mod_seq > ? ORDER BY mod_seq", checkpoint, touched, issues);
+        return new Delta(checkpoint, upTo, false, touched, issues, scanned);
+    }
+
+    // Runs the rules over the query's rows in columnar chunks, as Reconciler does.
+    private static long check(Connection c, String sql, long after, List<String> touched,
+                              List<ReconcileIssue> issues) throws SQLException {
+        long[] counts = new long[RULES.length];
+        InventoryColumns chunk = new InventoryColumns(Reconciler.DEFAULT_CHUNK_SIZE);
+        long scanned = 0;
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            if (after >= 0) ps.setLong(1, after);
+            ps.setFetchSize(FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String eng = rs.getString(1);
+                    long entered = rs.getLong(3);
+                    if (rs.wasNull()) entered = InventoryData.NO_DATE;
+                    chunk.add(new InventoryData(rs.getString(2), eng, entered, rs.getString(4), rs.getString(5)));
+                    if (touched != null) touched.add(eng);
+                    if (chunk.size() == Reconciler.DEFAULT_CHUNK_SIZE) {
+                        scanned += checkChunk(chunk, counts, issues);
+                    }
+                }
+            }
+        }
+        return scanned + checkChunk(chunk, counts, issues);
+    }
+
+    private static int checkChunk(InventoryColumns chunk, long[] counts, List<ReconcileIssue> issues) {
+        int n = chunk.size();
+        for (int i = 0; i < n; i++) Reconciler.check(chunk, i, counts, issues);
+        chunk.clear();
+        return n;
+    }
+
+    // Writes the delta if the checkpoint is still the one it was computed from.
+    private static boolean apply(Connection c, Delta d) throws SQLException {
+        // The state row is written first, so this transaction holds the write lock throughout.
+        String claim = d.checkpoint() == null
+                ? "INSERT INTO reconcile_state(id, checkpoint, last_full) VALUES(1, ?, ?) ON CONFLICT(id) DO NOTHING"
+                : "UPDATE reconcile_state SET checkpoint = ?, last_full = CASE WHEN ? > 0 THEN ? ELSE last_full END "
+                        + "WHERE id = 1 AND checkpoint = ?";
+        try (PreparedStatement ps = c.prepareStatement(claim)) {
+            long now = d.full() ? System.currentTimeMillis() : 0;
+            ps.setLong(1, d.upTo());
+            ps.setLong(2, now);
+            if (d.checkpoint() != null) {
+                ps.setLong(3, now);
+                ps.setLong(4, d.checkpoint());
+            }
+            if (ps.executeUpdate() == 0) return false;
+        }
+        if (d.full()) {
+            try (Statement st = c.createStatement()) {
+                st.executeUpdate("DELETE FROM reconcile_issue");
+            }
+        } else if (!d.touched().isEmpty()) {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM reconcile_issue WHERE engine_number IS ?")) {
+                for (String eng : d.touched()) {
+                    ps.setString(1, eng);
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        if (!d.issues().isEmpty()) {
+            try (PreparedStatement ps = c.prepareStatement(
+                    "INSERT INTO reconcile_issue(engine_number, rule, value) VALUES(?,?,?)")) {
+                for (ReconcileIssue issue : d.issues()) {
+                    ps.setString(1, issue.engineNumber());
+                    ps.setString(2, issue.rule().name());
+                    ps.setString(3, issue.value());
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        }
+        // tombstones at or below the new checkpoint have been accounted for
+        try (PreparedStatement ps = c.prepareStatement("DELETE FROM inventory_deleted WHERE mod_seq <= ?")) {
+            ps.setLong(1, d.upTo());
+            ps.executeUpdate();
+        }
+        return true;
+    }
+
+    // Per-rule counts and (if sink is given) every stored issue, from one read transaction.
+    private static void report(long[] counts, Consumer<? super ReconcileIssue> sink) throws SQLException {
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try (Statement st = c.createStatement()) {
+                try (ResultSet rs = st.executeQuery("SELECT rule, COUNT(*) FROM reconcile_issue GROUP BY rule")) {
+                    while (rs.next()) {
+                        ReconcileRule rule = rule(rs.getString(1));
+                        if (rule != null) counts[rule.ordinal()] = rs.getLong(2);
+                    }
+                }
+                if (sink != null) {
+                    st.setFetchSize(FETCH_SIZE);
+                    try (ResultSet rs = st.executeQuery(
+                            "SELECT engine_number, rule, value FROM reconcile_issue ORDER BY engine_number, rule")) {
+                        while (rs.next()) {
+                            ReconcileRule rule = rule(rs.getString(2));
+                            if (rule != null) sink.accept(new ReconcileIssue(rs.getString(1), rule, rs.getString(3)));
+                        }
+                    }
+                }
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // null for a rule name this build no longer has; the next rescan drops such rows.
+    private static ReconcileRule rule(String name) {
+        for (ReconcileRule r : RULES) {
+            if (r.name().equals(name)) return r;
+        }
+        return null;
+    }
+}
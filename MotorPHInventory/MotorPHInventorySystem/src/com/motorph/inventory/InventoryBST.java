@@ -1,121 +1,296 @@
 package com.motorph.inventory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// Ordered in-memory index keyed by engine number.
+// Red-black tree with iterative operations, so sequential keys (the usual case)
+// keep O(log n) depth instead of degrading into a linked list.
+//
+// Thread-safe: lookups share a read lock, insert/delete take the write lock. Iteration
+// copies the matching records under the read lock and runs the callback after releasing
+// it, so callbacks see a consistent snapshot and may freely modify the tree.
 public class InventoryBST {
-    private class Node {
+    private static final class Node {
         InventoryData data;
-        Node left, right;
+        Node left, right, parent;
+        boolean black;
 
-        Node(InventoryData data) {
+        Node(InventoryData data, Node parent) {
             this.data = data;
-            left = right = null;
+            this.parent = parent;
+        }
+
+        String key() {
+            return data.getEngineNumber();
         }
     }
 
     private Node root;
+    private int size;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Lock readLock = lock.readLock();
+    private final Lock writeLock = lock.writeLock();
+
+    public void insert(InventoryData data) {
+        writeLock.lock();
+        try {
+            insertLocked(data);
+        } finally {
+            writeLock.unlock();
+        }
+    }
 
-    // Pretty-print helpers for inOrder()
-    private static final String ROW_FORMAT = "%-15s %-12s %-16s %-10s %-10s";
-    private static final java.text.SimpleDateFormat DATE_FMT =
-            new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm");
+    private void insertLocked(InventoryData data) {
+        String key = data.getEngineNumber();
+        Node t = root;
+        if (t == null) {
+            root = new Node(data, null);
+            root.black = true;
+            size = 1;
+            return;
+        }
+        Node parent;
+        int cmp;
+        do {
+            parent = t;
+            cmp = key.compareTo(t.key());
+            if (cmp < 0) {
+                t = t.left;
+            } else if (cmp > 0) {
+                t = t.right;
+            } else {
+                return; // duplicates are ignored, same as before
+            }
+        } while (t != null);
+        Node e = new Node(data, parent);
+        if (cmp < 0) {
+            parent.left = e;
+        } else {
+            parent.right = e;
+        }
+        fixAfterInsertion(e);
+        size++;
+    }
 
-    private void printHeader() {
-        String header = String.format(ROW_FORMAT, "Brand", "Engine No.", "Date Entered", "Status", "Level");
-        System.out.println(header);
-        System.out.println(lineOf(header.length()));
+    public InventoryData search(String engineNumber) {
+        readLock.lock();
+        try {
+            Node node = findNode(engineNumber);
+            return (node != null) ? node.data : null;
+        } finally {
+            readLock.unlock();
+        }
     }
 
-    private void printRow(InventoryData d) {
-        String date = d.getDateEntered() != null ? DATE_FMT.format(d.getDateEntered()) : "";
-        System.out.printf(ROW_FORMAT + "%n",
-                safe(d.getBrand()),
-                safe(d.getEngineNumber()),
-                date,
-                safe(d.getStatus()),
-                safe(d.getLevel()));
+    public void delete(String engineNumber) {
+        writeLock.lock();
+        try {
+            Node p = findNode(engineNumber);
+            if (p != null) deleteNode(p);
+        } finally {
+            writeLock.unlock();
+        }
     }
 
-    private String lineOf(int n) {
-        StringBuilder sb = new StringBuilder(n);
-        for (int i = 0; i < n; i++) sb.append('-');
-        return sb.toString();
+    // Replaces the record stored under the same engine number; returns false if absent.
+    // Records are immutable, so this is how a status change reaches the index.
+    public boolean replace(InventoryData data) {
+        writeLock.lock();
+        try {
+            Node p = findNode(data.getEngineNumber());
+            if (p == null) return false;
+            p.data = data;
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
     }
 
-    private String safe(String s) {
-        return s == null ? "" : s;
+    public int size() {
+        readLock.lock();
+        try {
+            return size;
+        } finally {
+            readLock.unlock();
+        }
     }
 
-    public void insert(InventoryData data) {
-        root = insertRec(root, data);
+    public boolean isEmpty() {
+        return size() == 0;
     }
 
-    private Node insertRec(Node root, InventoryData data) {
-        if (root == null) {
-            return new Node(data);
+    // Greatest record with engine number <= key, or null.
+    public InventoryData floor(String key) {
+        readLock.lock();
+        try {
+            Node p = root;
+            Node best = null;
+            while (p != null) {
+                int cmp = key.compareTo(p.key());
+                if (cmp == 0) return p.data;
+                if (cmp < 0) {
+                    p = p.left;
+                } else {
+                    best = p;
+                    p = p.right;
+                }
+            }
+            return best != null ? best.data : null;
+        } finally {
+            readLock.unlock();
         }
-        if (data.getEngineNumber().compareTo(root.data.getEngineNumber()) < 0) {
-            root.left = insertRec(root.left, data);
-        } else if (data.getEngineNumber().compareTo(root.data.getEngineNumber()) > 0) {
-            root.right = insertRec(root.right, data);
+    }
+
+    // Smallest record with engine number >= key, or null.
+    public InventoryData ceiling(String key) {
+        readLock.lock();
+        try {
+            Node n = ceilingNode(key);
+            return n != null ? n.data : null;
+        } finally {
+            readLock.unlock();
         }
-        return root;
     }
 
-    public InventoryData search(String engineNumber) {
-        Node node = searchRec(root, engineNumber);
-        return (node != null) ? node.data : null;
+    // Records with fromKey <= engine number <= toKey, in order.
+    public List<InventoryData> range(String fromKey, String toKey) {
+        readLock.lock();
+        try {
+            List<InventoryData> out = new ArrayList<>();
+            for (Node n = ceilingNode(fromKey); n != null && n.key().compareTo(toKey) <= 0; n = successor(n)) {
+                out.add(n.data);
+            }
+            return out;
+        } finally {
+            readLock.unlock();
+        }
     }
 
-    private Node searchRec(Node root, String engineNumber) {
-        if (root == null || root.data.getEngineNumber().equals(engineNumber)) {
-            return root;
+    // Up to limit records with engine number >= fromKey (null = from the first), in order.
+    // Walks successors from the start node, so a page costs O(log n + limit).
+    public List<InventoryData> page(String fromKey, int limit) {
+        readLock.lock();
+        try {
+            List<InventoryData> out = new ArrayList<>(Math.min(limit, size));
+            for (Node n = fromKey == null ? first() : ceilingNode(fromKey); n != null && out.size() < limit; n = successor(n)) {
+                out.add(n.data);
+            }
+            return out;
+        } finally {
+            readLock.unlock();
         }
-        if (engineNumber.compareTo(root.data.getEngineNumber()) < 0) {
-            return searchRec(root.left, engineNumber);
+    }
+
+    public void forEachInRange(String fromKey, String toKey, Consumer<? super InventoryData> action) {
+        range(fromKey, toKey).forEach(action);
+    }
+
+    public void forEach(Consumer<? super InventoryData> action) {
+        snapshot().forEach(action);
+    }
+
+    // All records in engine-number order, as of one instant.
+    public List<InventoryData> snapshot() {
+        readLock.lock();
+        try {
+            List<InventoryData> out = new ArrayList<>(size);
+            for (Node n = first(); n != null; n = successor(n)) out.add(n.data);
+            return out;
+        } finally {
+            readLock.unlock();
         }
-        return searchRec(root.right, engineNumber);
     }
 
-    public void delete(String engineNumber) {
-        root = deleteRec(root, engineNumber);
+    // Longest root-to-leaf path; stays within 2*log2(n+1) for a red-black tree.
+    public int height() {
+        readLock.lock();
+        try {
+            if (root == null) return 0;
+            int h = 0;
+            ArrayDeque<Node> level = new ArrayDeque<>();
+            level.add(root);
+            while (!level.isEmpty()) {
+                h++;
+                for (int i = level.size(); i > 0; i--) {
+                    Node n = level.poll();
+                    if (n.left != null) level.add(n.left);
+                    if (n.right != null) level.add(n.right);
+                }
+            }
+            return h;
+        } finally {
+            readLock.unlock();
+        }
     }
 
-    private Node deleteRec(Node root, String engineNumber) {
-        if (root == null) {
-            return root;
+    private Node findNode(String key) {
+        Node p = root;
+        while (p != null) {
+            int cmp = key.compareTo(p.key());
+            if (cmp < 0) {
+                p = p.left;
+            } else if (cmp > 0) {
+                p = p.right;
+            } else {
+                return p;
+            }
         }
-        if (engineNumber.compareTo(root.data.getEngineNumber()) < 0) {
-            root.left = deleteRec(root.left, engineNumber);
-        } else if (engineNumber.compareTo(root.data.getEngineNumber()) > 0) {
-            root.right = deleteRec(root.right, engineNumber);
-        } else {
-            if (root.left == null) {
-                return root.right;
-            } else if (root.right == null) {
-                return root.left;
+        return null;
+    }
+
+    private Node ceilingNode(String key) {
+        Node p = root;
+        Node best = null;
+        while (p != null) {
+            int cmp = key.compareTo(p.key());
+            if (cmp == 0) return p;
+            if (cmp > 0) {
+                p = p.right;
+            } else {
+                best = p;
+                p = p.left;
             }
-            root.data = minValue(root.right);
-            root.right = deleteRec(root.right, root.data.getEngineNumber());
         }
-        return root;
+        return best;
     }
 
-    private InventoryData minValue(Node root) {
-        InventoryData minv = root.data;
-        while (root.left != null) {
-            minv = root.left.data;
-            root = root.left;
+    private Node first() {
+        Node p = root;
+        if (p != null) {
+            while (p.left != null) p = p.left;
+        }
+        return p;
+    }
+
+    private static Node successor(Node t) {
+        if (t.right != null) {
+            Node p = t.right;
+            while (p.left != null) p = p.left;
+            return p;
+        }
+        Node p = t.parent;
+        Node ch = t;
+        while (p != null && ch == p.right) {
+            ch = p;
+            p = p.parent;
         }
-        return minv;
+        return p;
     }
 
     public void inOrder() {
-        if (root == null) {
+        List<InventoryData> rows = snapshot();
+        if (rows.isEmpty()) {
             System.out.println("(no records)");
             return;
         }
-        printHeader();
-        inOrderRec(root);
-        System.out.println(); // spacer after table
+        print(rows);
     }
 
     // Public helper to print a single record using the same table formatting
@@ -124,16 +299,202 @@ public class InventoryBST {
             System.out.println("(no record)");
             return;
         }
-        printHeader();
-        printRow(d);
-        System.out.println(); // spacer after table
+        print(List.of(d));
+    }
+
+    private static void print(List<InventoryData> rows) {
+        try {
+            InventoryTable table = InventoryTable.console();
+            table.header().rows(rows).line(""); // spacer after table
+            table.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // ---- red-black balancing (CLR, as in java.util.TreeMap) ----
+
+    private void deleteNode(Node p) {
+        size--;
+        if (p.left != null && p.right != null) {
+            Node s = successor(p);
+            p.data = s.data;
+            p = s;
+        }
+        Node replacement = (p.left != null) ? p.left : p.right;
+        if (replacement != null) {
+            replacement.parent = p.parent;
+            if (p.parent == null) {
+                root = replacement;
+            } else if (p == p.parent.left) {
+                p.parent.left = replacement;
+            } else {
+                p.parent.right = replacement;
+            }
+            p.left = p.right = p.parent = null;
+            if (p.black) fixAfterDeletion(replacement);
+        } else if (p.parent == null) {
+            root = null;
+        } else {
+            if (p.black) fixAfterDeletion(p);
+            if (p.parent != null) {
+                if (p == p.parent.left) {
+                    p.parent.left = null;
+                } else if (p == p.parent.right) {
+                    p.parent.right = null;
+                }
+                p.parent = null;
+            }
+        }
     }
 
-    private void inOrderRec(Node root) {
-        if (root != null) {
-            inOrderRec(root.left);
-            printRow(root.data);
-            inOrderRec(root.right);
+    private void fixAfterInsertion(Node x) {
+        x.black = false;
+        while (x != null && x != root && !x.parent.black) {
+            if (parentOf(x) == leftOf(parentOf(parentOf(x)))) {
+                Node y = rightOf(parentOf(parentOf(x)));
+                if (!isBlack(y)) {
+                    setBlack(parentOf(x), true);
+                    setBlack(y, true);
+                    setBlack(parentOf(parentOf(x)), false);
+                    x = parentOf(parentOf(x));
+                } else {
+                    if (x == rightOf(parentOf(x))) {
+                        x = parentOf(x);
+                        rotateLeft(x);
+                    }
+                    setBlack(parentOf(x), true);
+                    setBlack(parentOf(parentOf(x)), false);
+                    rotateRight(parentOf(parentOf(x)));
+                }
+            } else {
+                Node y = leftOf(parentOf(parentOf(x)));
+                if (!isBlack(y)) {
+                    setBlack(parentOf(x), true);
+                    setBlack(y, true);
+                    setBlack(parentOf(parentOf(x)), false);
+                    x = parentOf(parentOf(x));
+                } else {
+                    if (x == leftOf(parentOf(x))) {
+                        x = parentOf(x);
+                        rotateRight(x);
+                    }
+                    setBlack(parentOf(x), true);
+                    setBlack(parentOf(parentOf(x)), false);
+                    rotateLeft(parentOf(parentOf(x)));
+                }
+            }
         }
+        root.black = true;
+    }
+
+    private void fixAfterDeletion(Node x) {
+        while (x != root && isBlack(x)) {
+            if (x == leftOf(parentOf(x))) {
+                Node sib = rightOf(parentOf(x));
+                if (!isBlack(sib)) {
+                    setBlack(sib, true);
+                    setBlack(parentOf(x), false);
+                    rotateLeft(parentOf(x));
+                    sib = rightOf(parentOf(x));
+                }
+                if (isBlack(leftOf(sib)) && isBlack(rightOf(sib))) {
+                    setBlack(sib, false);
+                    x = parentOf(x);
+                } else {
+                    if (isBlack(rightOf(sib))) {
+                        setBlack(leftOf(sib), true);
+                        setBlack(sib, false);
+                        rotateRight(sib);
+                        sib = rightOf(parentOf(x));
+                    }
+                    setBlack(sib, isBlack(parentOf(x)));
+                    setBlack(parentOf(x), true);
+                    setBlack(rightOf(sib), true);
+                    rotateLeft(parentOf(x));
+                    x = root;
+                }
+            } else {
+                Node sib = leftOf(parentOf(x));
+                if (!isBlack(sib)) {
+                    setBlack(sib, true);
+                    setBlack(parentOf(x), false);
+                    rotateRight(parentOf(x));
+                    sib = leftOf(parentOf(x));
+                }
+                if (isBlack(rightOf(sib)) && isBlack(leftOf(sib))) {
+                    setBlack(sib, false);
+                    x = parentOf(x);
+                } else {
+                    if (isBlack(leftOf(sib))) {
+                        setBlack(rightOf(sib), true);
+                        setBlack(sib, false);
+                        rotateLeft(sib);
+                        sib = leftOf(parentOf(x));
+                    }
+                    setBlack(sib, isBlack(parentOf(x)));
+                    setBlack(parentOf(x), true);
+                    setBlack(leftOf(sib), true);
+                    rotateRight(parentOf(x));
+                    x = root;
+                }
+            }
+        }
+        setBlack(x, true);
+    }
+
+    private void rotateLeft(Node p) {
+        if (p == null) return;
+        Node r = p.right;
+        p.right = r.left;
+        if (r.left != null) r.left.parent = p;
+        r.parent = p.parent;
+        if (p.parent == null) {
+            root = r;
+        } else if (p.parent.left == p) {
+            p.parent.left = r;
+        } else {
+            p.parent.right = r;
+        }
+        r.left = p;
+        p.parent = r;
+    }
+
+    private void rotateRight(Node p) {
+        if (p == null) return;
+        Node l = p.left;
+        p.left = l.right;
+        if (l.right != null) l.right.parent = p;
+        l.parent = p.parent;
+        if (p.parent == null) {
+            root = l;
+        } else if (p.parent.right == p) {
+            p.parent.right = l;
+        } else {
+            p.parent.left = l;
+        }
+        l.right = p;
+        p.parent = l;
+    }
+
+    // Null-safe accessors; null children count as black.
+    private static boolean isBlack(Node n) {
+        return n == null || n.black;
+    }
+
+    private static void setBlack(Node n, boolean black) {
+        if (n != null) n.black = black;
+    }
+
+    private static Node parentOf(Node n) {
+        return n == null ? null : n.parent;
+    }
+
+    private static Node leftOf(Node n) {
+        return n == null ? null : n.left;
+    }
+
+    private static Node rightOf(Node n) {
+        return n == null ? null : n.right;
     }
-}
\ No newline at end of file
+}
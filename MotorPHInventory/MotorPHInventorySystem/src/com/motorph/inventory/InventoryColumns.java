@@ -0,0 +1,199 @@
+package com.motorph.inventory;
+
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+// Column-per-field container for bulk scans (reconciliation chunks, full listings).
+//
+// Engine numbers in the usual 10-digit form are packed into a long; the odd irregular one
+// is kept as a string on the side. Dates are epoch millis. Brand, status and level are
+// dictionary codes, one byte per row until a column sees more than 256 distinct values.
+// That is roughly 20 bytes per row, against well over 100 for a list of InventoryData.
+//
+// get(i) and the iterator hand out InventoryData views built on demand. Not thread-safe;
+// fill it on one thread, then share it read-only.
+public final class InventoryColumns implements Iterable<InventoryData> {
+
+    private static final long IRREGULAR = -1;
+
+    private long[] engines;
+    private long[] dates;
+    private final Codes brands;
+    private final Codes statuses;
+    private final Codes levels;
+    private HashMap<Integer, String> irregular;   // row -> engine number that does not pack
+    private int size;
+
+    public InventoryColumns() {
+        this(1_024);
+    }
+
+    public InventoryColumns(int capacity) {
+        capacity = Math.max(capacity, 16);
+        engines = new long[capacity];
+        dates = new long[capacity];
+        brands = new Codes(capacity);
+        statuses = new Codes(capacity);
+        levels = new Codes(capacity);
+    }
+
+    // Every row of repo in engine-number order.
+    public static InventoryColumns scan(InventoryRepository repo) throws Exception {
+        InventoryColumns c = new InventoryColumns();
+        repo.forEachSortedByEngineNumber(c::add);
+        return c;
+    }
+
+    public void add(InventoryData d) {
+        if (size == engines.length) grow();
+        long packed = EngineNumbers.encode(d.getEngineNumber());
+        if (packed == IRREGULAR) {
+            if (irregular == null) irregular = new HashMap<>();
+            irregular.put(size, d.getEngineNumber());
+        }
+        engines[size] = packed;
+        dates[size] = d.dateEnteredMillis();
+        brands.set(size, d.getBrand());
+        statuses.set(size, d.getStatus());
+        levels.set(size, d.getLevel());
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Keeps the arrays and dictionaries for the next batch.
+    public void clear() {
+        size = 0;
+        irregular = null;
+    }
+
+    public String engineNumber(int i) {
+        check(i);
+        return engines[i] != IRREGULAR ? EngineNumbers.decode(engines[i]) : irregular.get(i);
+    }
+
+    // True when the engine number is exactly 10 digits; answered without building the string.
+    public boolean hasValidEngineNumber(int i) {
+        check(i);
+        return engines[i] != IRREGULAR;
+    }
+
+    public Date dateEntered(int i) {
+        check(i);
+        return dates[i] != InventoryData.NO_DATE ? new Date(dates[i]) : null;
+    }
+
+    public boolean hasDateEntered(int i) {
+        check(i);
+        return dates[i] != InventoryData.NO_DATE;
+    }
+
+    public String brand(int i) {
+        check(i);
+        return brands.get(i);
+    }
+
+    public String status(int i) {
+        check(i);
+        return statuses.get(i);
+    }
+
+    public String level(int i) {
+        check(i);
+        return levels.get(i);
+    }
+
+    public InventoryData.Status statusCode(int i) {
+        return InventoryData.Status.of(status(i));
+    }
+
+    public InventoryData.Level levelCode(int i) {
+        return InventoryData.Level.of(level(i));
+    }
+
+    public InventoryData get(int i) {
+        return new InventoryData(brand(i), engineNumber(i), dates[i], status(i), level(i));
+    }
+
+    @Override
+    public Iterator<InventoryData> iterator() {
+        return new Iterator<>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public InventoryData next() {
+                if (next >= size) throw new NoSuchElementException();
+                return get(next++);
+            }
+        };
+    }
+
+    private void check(int i) {
+        if (i < 0 || i >= size) throw new IndexOutOfBoundsException("row " + i + " of " + size);
+    }
+
+    private void grow() {
+        int n = engines.length * 2;
+        engines = Arrays.copyOf(engines, n);
+        dates = Arrays.copyOf(dates, n);
+        brands.grow(n);
+        statuses.grow(n);
+        levels.grow(n);
+    }
+
+    // One dictionary-coded column. Codes are bytes until the 257th distinct value, then ints.
+    private static final class Codes {
+        private final HashMap<String, Integer> ids = new HashMap<>();
+        private String[] values = new String[8];
+        private byte[] narrow;
+        private int[] wide;
+
+        Codes(int capacity) {
+            narrow = new byte[capacity];
+        }
+
+        void set(int row, String value) {
+            Integer id = ids.get(value);
+            if (id == null) {
+                id = ids.size();
+                ids.put(value, id);
+                if (id == values.length) values = Arrays.copyOf(values, id * 2);
+                values[id] = value;
+                if (id == 256) widen();
+            }
+            if (wide != null) {
+                wide[row] = id;
+            } else {
+                narrow[row] = (byte) (int) id;
+            }
+        }
+
+        String get(int row) {
+            return values[wide != null ? wide[row] : narrow[row] & 0xFF];
+        }
+
+        void grow(int capacity) {
+            if (wide != null) {
+                wide = Arrays.copyOf(wide, capacity);
+            } else {
+                narrow = Arrays.copyOf(narrow, capacity);
+            }
+        }
+
+        private void widen() {
+            wide = new int[narrow.length];
+            for (int i = 0; i < narrow.length; i++) wide[i] = narrow[i] & 0xFF;
+            narrow = null;
+        }
+    }
+}
@@ -1,20 +1,102 @@
 package com.motorph.inventory;
 
 import java.util.Date;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
-public class InventoryData {
-    private String brand;
-    private String engineNumber;
-    private Date dateEntered;
-    private String status;
-    private String level;
+// Immutable snapshot of one inventory row, safe to share between threads and caches.
+// State changes produce a new instance (withStatusAndLevel) that is then saved through
+// the repository.
+//
+// Status, level and brand repeat across the whole table, so each instance points at one
+// shared copy of those strings instead of its own (see canonical). For bulk scans,
+// InventoryColumns stores the same fields column by column.
+public final class InventoryData {
+
+    public enum Status {
+        ON_HAND("On-hand"), OLD("Old");
+
+        private final String label;
+
+        Status(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        // Exact match on the stored label; null for anything else.
+        public static Status of(String s) {
+            if (ON_HAND.label.equals(s)) return ON_HAND;
+            if (OLD.label.equals(s)) return OLD;
+            return null;
+        }
+    }
+
+    public enum Level {
+        NEW("New"), SOLD("Sold");
+
+        private final String label;
+
+        Level(String label) {
+            this.label = label;
+        }
+
+        public String label() {
+            return label;
+        }
+
+        public static Level of(String s) {
+            if (NEW.label.equals(s)) return NEW;
+            if (SOLD.label.equals(s)) return SOLD;
+            return null;
+        }
+    }
+
+    private final String brand;
+    private final String engineNumber;
+    private final long dateEntered;      // epoch millis; NO_DATE when absent
+    private final String status;
+    private final String level;
+
+    static final long NO_DATE = Long.MIN_VALUE;
+
+    // Shared copies of brand (and odd status/level) values. Bounded, so a table full of
+    // distinct junk values cannot grow it without limit: when full it starts over, so values
+    // seen later are still shared. Rows built before that keep their copy; equality is by value.
+    private static final int POOL_LIMIT = 4_096;
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
 
     public InventoryData(String brand, String engineNumber, Date dateEntered, String status, String level) {
-        this.brand = brand;
+        this(brand, engineNumber, dateEntered != null ? dateEntered.getTime() : NO_DATE, status, level);
+    }
+
+    InventoryData(String brand, String engineNumber, long dateEntered, String status, String level) {
+        this.brand = canonical(brand);
         this.engineNumber = engineNumber;
         this.dateEntered = dateEntered;
-        this.status = status;
-        this.level = level;
+        this.status = canonicalStatus(status);
+        this.level = canonicalLevel(level);
+    }
+
+    static String canonical(String s) {
+        if (s == null) return null;
+        String shared = POOL.get(s);
+        if (shared != null) return shared;
+        if (POOL.size() >= POOL_LIMIT) POOL.clear();
+        shared = POOL.putIfAbsent(s, s);
+        return shared != null ? shared : s;
+    }
+
+    static String canonicalStatus(String s) {
+        Status known = Status.of(s);
+        return known != null ? known.label : canonical(s);
+    }
+
+    static String canonicalLevel(String s) {
+        Level known = Level.of(s);
+        return known != null ? known.label : canonical(s);
     }
 
     // Getters
@@ -26,8 +108,9 @@ public class InventoryData {
         return engineNumber;
     }
 
+    // A fresh Date each call, so callers cannot change the snapshot through it.
     public Date getDateEntered() {
-        return dateEntered;
+        return dateEntered != NO_DATE ? new Date(dateEntered) : null;
     }
 
     public String getStatus() {
@@ -38,13 +121,42 @@ public class InventoryData {
         return level;
     }
 
-    // Setters
-    public void setStatus(String status) {
-        this.status = status;
+    // null when the stored status is not one of the known values.
+    public Status getStatusCode() {
+        return Status.of(status);
+    }
+
+    public Level getLevelCode() {
+        return Level.of(level);
+    }
+
+    // Epoch millis, or NO_DATE.
+    long dateEnteredMillis() {
+        return dateEntered;
+    }
+
+    public InventoryData withStatusAndLevel(String status, String level) {
+        return new InventoryData(brand, engineNumber, dateEntered, status, level);
+    }
+
+    public InventoryData withStatusAndLevel(Status status, Level level) {
+        return new InventoryData(brand, engineNumber, dateEntered, status.label, level.label);
     }
 
-    public void setLevel(String level) {
-        this.level = level;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof InventoryData d)) return false;
+        return dateEntered == d.dateEntered
+                && Objects.equals(brand, d.brand)
+                && Objects.equals(engineNumber, d.engineNumber)
+                && Objects.equals(status, d.status)
+                && Objects.equals(level, d.level);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(brand, engineNumber, dateEntered, status, level);
     }
 
     @Override
@@ -52,9 +164,9 @@ public class InventoryData {
         return "InventoryData{" +
                 "brand='" + brand + '\'' +
                 ", engineNumber='" + engineNumber + '\'' +
-                ", dateEntered=" + dateEntered +
+                ", dateEntered=" + getDateEntered() +
                 ", status='" + status + '\'' +
                 ", level='" + level + '\'' +
                 '}';
     }
-}
\ No newline at end of file
+}
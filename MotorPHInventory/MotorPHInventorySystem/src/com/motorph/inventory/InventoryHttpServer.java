@@ -0,0 +1,369 @@
+package com.motorph.inventory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Embedded HTTP/JSON API over the same repository and audit log as the console.
+// Every exchange runs on its own virtual thread; blocking on the connection pool or SQLite
+// parks the virtual thread instead of tying up a platform thread.
+//
+// All /api routes need credentials: HTTP Basic (checked against the password hash on every
+// request) or a bearer token from POST /api/session (checked in memory, so clients making
+// many calls should log in once). Selling needs the ADMIN role, like Delete Stock in the
+// menu, and so does a reconcile rescan, which rebuilds the stored issue set. Parameters
+// come from the query string or an application/x-www-form-urlencoded body.
+//
+//   GET    /api/health                           no auth
+//   POST   /api/session                          Basic credentials -> {token, role, expiresAt}
+//   DELETE /api/session                          end the bearer token's session
+//   GET    /api/inventory?after=&limit=          one page, sorted by engine number
+//   GET    /api/inventory/{engine}               search
+//   POST   /api/inventory  engineNumber, brand   add
+//   POST   /api/inventory/{engine}/sell          sell (admin)
+//   DELETE /api/inventory/{engine}               same as sell
+//   GET    /api/audit?engine=&user=&action=&outcome=&from=&to=&limit=&before=ts:id&archive=true
+//   POST   /api/reconcile?mode=scan|pushdown|incremental|rescan&limit=   counts plus the first `limit` issues
+//                                                 (mode as in ReconcileMode.defaultFor when omitted; rescan: admin)
+public class InventoryHttpServer implements AutoCloseable {
+
+    static final int MAX_PAGE = 1_000;
+    private static final int MAX_BODY = 64 * 1024;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final InventoryRepository repo;
+    private final AuditLogger audit;
+    private final AuthService auth;
+    private final StockService stock;
+
+    private record Caller(String user, boolean admin) {}
+
+    // Thrown by handlers to end the exchange with a status code and {"error": message}.
+    private static final class HttpError extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int status;
+
+        HttpError(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+    }
+
+    public InventoryHttpServer(InetSocketAddress address, InventoryRepository repo, AuditLogger audit, AuthService auth)
+            throws IOException {
+        this.repo = repo;
+        this.audit = audit;
+        this.auth = auth;
+        this.stock = new StockService(repo, audit);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        this.server = HttpServer.create(address, 0);
+        this.server.setExecutor(executor);
+        this.server.createContext("/api/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.close();
+    }
+
+    private void handle(HttpExchange ex) throws IOException {
+        String method = ex.getRequestMethod().toUpperCase(Locale.ROOT);
+        String[] path = ex.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+        // path[0] is "", path[1] is "api"
+        String route = path.length > 2 ? path[2] : "";
+        // metric names come from a fixed set so arbitrary URLs cannot grow the registry
+        String known = switch (route) {
+            case "health", "session", "inventory", "audit", "reconcile" -> route;
+            default -> "other";
+        };
+        OperationMetrics metrics = Metrics.operation("http." + known);
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            if (route.equals("health")) {
+                send(ex, 200, Json.object().put("status", "UP"));
+                ok = true;
+                return;
+            }
+            if (route.equals("session")) {
+                send(ex, method.equals("POST") ? 201 : 200, session(method, ex));
+                ok = true;
+                return;
+            }
+            Caller caller = authenticate(ex);
+            Map<String, String> params = params(ex);
+            Json.Obj body = switch (route) {
+                case "inventory" -> inventory(method, path, params, caller);
+                case "audit" -> {
+                    requireMethod(method, "GET");
+                    yield auditQuery(params);
+                }
+                case "reconcile" -> {
+                    requireMethod(method, "POST");
+                    yield reconcile(params, caller);
+                }
+                default -> throw new HttpError(404, "No such resource");
+            };
+            int status = (route.equals("inventory") && method.equals("POST") && path.length == 3) ? 201 : 200;
+            send(ex, status, body);
+            ok = true;
+        } catch (HttpError e) {
+            if (e.status == 401) {
+                ex.getResponseHeaders().add("WWW-Authenticate", "Basic realm=\"motorph\"");
+                ex.getResponseHeaders().add("WWW-Authenticate", "Bearer realm=\"motorph\"");
+            }
+            send(ex, e.status, Json.object().put("error", e.getMessage()));
+            ok = e.status < 500;
+        } catch (Exception e) {
+            // details (SQL, file paths) stay in the log; the client learns only that it failed
+            System.err.println("[http] " + method + " " + ex.getRequestURI() + ": "
+                    + e.getClass().getName() + ": " + e.getMessage());
+            send(ex, 500, Json.object().put("error", "Internal server error"));
+        } finally {
+            metrics.recordSince(t0, ok);
+            ex.close();
+        }
+    }
+
+    private Json.Obj inventory(String method, String[] path, Map<String, String> params, Caller caller)
+            throws Exception {
+        if (path.length == 3) {
+            if (method.equals("GET")) return listPage(params);
+            requireMethod(method, "POST");
+            return outcome(stock.add(caller.user(), params.get("engineNumber"), params.get("brand")));
+        }
+        String eng = path[3];
+        if (path.length == 4 && method.equals("GET")) {
+            if (!EngineNumbers.isValid(eng)) throw new HttpError(400, "Invalid engine number format");
+            InventoryData d = repo.findByEngineNumber(eng);
+            if (d == null) throw new HttpError(404, "Not found");
+            return Json.record(d);
+        }
+        boolean sell = (path.length == 4 && method.equals("DELETE"))
+                || (path.length == 5 && path[4].equals("sell") && method.equals("POST"));
+        if (!sell) throw new HttpError(405, "Method not allowed");
+        return outcome(stock.sell(caller.user(), caller.admin(), eng, "http"));
+    }
+
+    private Json.Obj listPage(Map<String, String> params) throws Exception {
+        int limit = intParam(params, "limit", 100);
+        if (limit < 1 || limit > MAX_PAGE) throw new HttpError(400, "limit must be 1.." + MAX_PAGE);
+        List<InventoryData> page = repo.findPage(params.get("after"), limit);
+        List<Json.Obj> records = new ArrayList<>(page.size());
+        for (InventoryData d : page) records.add(Json.record(d));
+        String next = page.size() == limit ? page.get(page.size() - 1).getEngineNumber() : null;
+        return Json.object().put("records", records).put("next", next);
+    }
+
+    private Json.Obj auditQuery(Map<String, String> params) throws Exception {
+        AuditQuery q = new AuditQuery();
+        if (params.containsKey("engine")) q.engineNumber(params.get("engine"));
+        if (params.containsKey("user")) q.user(params.get("user"));
+        if (params.containsKey("action")) q.action(params.get("action").toUpperCase(Locale.ROOT));
+        if (params.containsKey("outcome")) q.outcome(params.get("outcome").toUpperCase(Locale.ROOT));
+        if (params.containsKey("from")) q.from(longParam(params, "from"));
+        if (params.containsKey("to")) q.to(longParam(params, "to"));
+        int limit = intParam(params, "limit", 100);
+        if (limit < 1 || limit > MAX_PAGE) throw new HttpError(400, "limit must be 1.." + MAX_PAGE);
+        q.limit(limit);
+        String before = params.get("before");
+        if (before != null) {
+            int colon = before.indexOf(':');
+            try {
+                q.before(Long.parseLong(before.substring(0, colon)), Long.parseLong(before.substring(colon + 1)));
+            } catch (RuntimeException e) {
+                throw new HttpError(400, "before must be <ts>:<id>");
+            }
+        }
+        if (Boolean.parseBoolean(params.get("archive"))) q.includeArchive();
+
+        AuditPage page = audit.search(q);
+        List<Json.Obj> records = new ArrayList<>(page.getRecords().size());
+        for (AuditRecord r : page.getRecords()) records.add(Json.record(r));
+        String next = page.hasMore() ? page.next().beforeTs + ":" + page.next().beforeId : null;
+        return Json.object().put("records", records).put("next", next);
+    }
+
+    private Json.Obj reconcile(Map<String, String> params, Caller caller) throws Exception {
+        ReconcileMode mode = ReconcileMode.defaultFor(repo);
+        if (params.containsKey("mode")) {
+            try {
+                mode = ReconcileMode.valueOf(params.get("mode").toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new HttpError(400, "mode must be scan, pushdown, incremental or rescan");
+            }
+        }
+        if (!mode.supports(repo)) {
+            throw new HttpError(400, "mode " + mode.name().toLowerCase() + " needs the SQLite inventory table; use scan");
+        }
+        if (mode == ReconcileMode.RESCAN && !caller.admin()) {
+            audit.log(caller.user(), "RECONCILE", null, null, null, "DENIED", "Non-admin attempted rescan");
+            throw new HttpError(403, "Admin role required for rescan");
+        }
+        int limit = intParam(params, "limit", 100);
+        List<Json.Obj> issues = new ArrayList<>();
+        java.util.function.Consumer<ReconcileIssue> sink = issue -> {
+            if (issues.size() < limit) {
+                issues.add(Json.object().put("engineNumber", issue.engineNumber())
+                        .put("rule", issue.rule().name()).put("value", issue.value()));
+            }
+        };
+        ReconcileResult r = mode.run(repo, sink);
+        audit.log(caller.user(), "RECONCILE", null, null, null, "SUCCESS",
+                "scanned=" + r.getScanned() + ", issues=" + r.getTotalIssues() + ", mode=" + mode.name().toLowerCase());
+        return Json.object().put("mode", mode.name().toLowerCase()).put("scanned", r.getScanned())
+                .put("issues", r.getTotalIssues()).put("counts", r.getCountsByRule())
+                .put("elapsedMs", r.getElapsedMillis()).put("sample", issues);
+    }
+
+    private static Json.Obj outcome(StockService.Outcome o) {
+        if (o.ok()) return Json.record(o.record());
+        int status = switch (o.status()) {
+            case INVALID -> 400;
+            case DENIED -> 403;
+            case NOT_FOUND -> 404;
+            case CONFLICT -> 409;
+            case OK -> 200;
+        };
+        throw new HttpError(status, o.error());
+    }
+
+    private Caller authenticate(HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        String token = bearerToken(header);
+        if (token != null) {
+            AuthService.Session s = auth.session(token);
+            if (s == null) throw new HttpError(401, "Session expired or unknown");
+            return new Caller(s.username(), s.isAdmin());
+        }
+        String[] credentials = basicCredentials(header);
+        if (!auth.authenticate(credentials[0], credentials[1])) throw new HttpError(401, "Invalid credentials");
+        return new Caller(credentials[0], auth.isAdmin(credentials[0]));
+    }
+
+    // POST trades Basic credentials for a bearer token; DELETE ends the bearer token's session.
+    private Json.Obj session(String method, HttpExchange ex) {
+        String header = ex.getRequestHeaders().getFirst("Authorization");
+        switch (method) {
+            case "POST" -> {
+                String[] credentials = basicCredentials(header);
+                AuthService.Session s = auth.login(credentials[0], credentials[1]);
+                if (s == null) throw new HttpError(401, "Invalid credentials");
+                return Json.object()
+                        .put("token", s.token())
+                        .put("user", s.username())
+                        .put("role", s.role())
+                        .put("expiresAt", s.expiresAtMillis());
+            }
+            case "DELETE" -> {
+                String token = bearerToken(header);
+                if (token == null) throw new HttpError(401, "Bearer token required");
+                auth.logout(token);
+                return Json.object().put("status", "LOGGED_OUT");
+            }
+            default -> throw new HttpError(405, "Method not allowed");
+        }
+    }
+
+    private static String bearerToken(String header) {
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return header.substring(7).trim();
+    }
+
+    // {user, password} from a Basic Authorization header.
+    private static String[] basicCredentials(String header) {
+        if (header == null || !header.regionMatches(true, 0, "Basic ", 0, 6)) {
+            throw new HttpError(401, "Authentication required");
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getDecoder().decode(header.substring(6).trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new HttpError(401, "Malformed credentials");
+        }
+        int colon = decoded.indexOf(':');
+        if (colon < 0) throw new HttpError(401, "Malformed credentials");
+        return new String[] {decoded.substring(0, colon), decoded.substring(colon + 1)};
+    }
+
+    private static Map<String, String> params(HttpExchange ex) throws IOException {
+        Map<String, String> out = new HashMap<>();
+        parseForm(ex.getRequestURI().getRawQuery(), out);
+        String type = ex.getRequestHeaders().getFirst("Content-Type");
+        if (type != null && type.toLowerCase(Locale.ROOT).startsWith("application/x-www-form-urlencoded")) {
+            try (InputStream in = ex.getRequestBody()) {
+                byte[] body = in.readNBytes(MAX_BODY + 1);
+                if (body.length > MAX_BODY) throw new HttpError(413, "Request body too large");
+                parseForm(new String(body, StandardCharsets.UTF_8), out);
+            }
+        }
+        return out;
+    }
+
+    private static void parseForm(String raw, Map<String, String> out) {
+        if (raw == null || raw.isEmpty()) return;
+        for (String pair : raw.split("&")) {
+            if (pair.isEmpty()) continue;
+            int eq = pair.indexOf('=');
+            String key = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            out.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+    }
+
+    private static int intParam(Map<String, String> params, String name, int def) {
+        String v = params.get(name);
+        if (v == null) return def;
+        try {
+            return Integer.parseInt(v);
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, name + " must be a number");
+        }
+    }
+
+    private static long longParam(Map<String, String> params, String name) {
+        try {
+            return Long.parseLong(params.get(name));
+        } catch (NumberFormatException e) {
+            throw new HttpError(400, name + " must be a number");
+        }
+    }
+
+    private static void requireMethod(String method, String expected) {
+        if (!method.equals(expected)) throw new HttpError(405, "Method not allowed");
+    }
+
+    private static void send(HttpExchange ex, int status, Json.Obj body) throws IOException {
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        ex.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        ex.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = ex.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
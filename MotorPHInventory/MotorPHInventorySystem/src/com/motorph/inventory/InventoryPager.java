@@ -0,0 +1,148 @@
+package com.motorph.inventory;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+
+// Interactive, keyset-paged view over an ordered inventory source, rendered through
+// InventoryTable. Commands at the prompt:
+//   Enter / N          next page
+//   P                  previous page
+//   J <engine no.>     jump to the page starting at that engine number (or the next one)
+//   S <file>           save the whole listing to a file
+//   Q                  back to the menu
+// Only the current page is held in memory; previous pages are refetched from their start key.
+public final class InventoryPager {
+
+    // Up to limit records with engine number >= fromKey (null = from the first), in order.
+    @FunctionalInterface
+    public interface PageSource {
+        List<InventoryData> page(String fromKey, int limit) throws Exception;
+    }
+
+    private static final int EXPORT_BATCH = 1_000;
+
+    private final PageSource source;
+    private final int pageSize;
+    private final Scanner in;
+    private final InventoryTable table;
+
+    public InventoryPager(PageSource source, int pageSize, Scanner in, InventoryTable table) {
+        if (pageSize < 1) throw new IllegalArgumentException("pageSize must be positive");
+        this.source = source;
+        this.pageSize = pageSize;
+        this.in = in;
+        this.table = table;
+    }
+
+    public static PageSource of(InventoryRepository repo) {
+        return (fromKey, limit) -> {
+            if (fromKey == null) return repo.findPage(null, limit);
+            // findPage is exclusive of its cursor, so the start key itself is looked up first
+            InventoryData first = repo.findByEngineNumber(fromKey);
+            if (first == null) return repo.findPage(fromKey, limit);
+            List<InventoryData> out = new ArrayList<>(limit);
+            out.add(first);
+            if (limit > 1) out.addAll(repo.findPage(fromKey, limit - 1));
+            return out;
+        };
+    }
+
+    public static PageSource of(InventoryBST bst) {
+        return bst::page;
+    }
+
+    public void run() throws Exception {
+        List<String> starts = new ArrayList<>();   // start keys of the pages behind us
+        String start = null;
+        int pageNo = 1;
+        while (true) {
+            // one extra row tells us where the next page starts, and whether there is one
+            List<InventoryData> rows = source.page(start, pageSize + 1);
+            if (rows.isEmpty() && start == null) {
+                table.line("(no records)").flush();
+                return;
+            }
+            String next = rows.size() > pageSize ? rows.get(pageSize).getEngineNumber() : null;
+            if (next != null) rows = rows.subList(0, pageSize);
+
+            if (rows.isEmpty()) table.line("(no records at or after " + start + ")");
+            table.header().rows(rows).line("");
+            table.line("Page " + pageNo + (next == null ? " (end of inventory)" : "")
+                    + "  [Enter] next  [P] prev  [J <engine no.>] jump  [S <file>] save  [Q] back");
+            table.flush();
+            System.out.print("> ");
+            if (!in.hasNextLine()) return;
+            String cmd = in.nextLine().trim();
+            String arg = cmd.length() > 1 ? cmd.substring(1).trim() : "";
+            switch (cmd.isEmpty() ? 'N' : Character.toUpperCase(cmd.charAt(0))) {
+                case 'N' -> {
+                    if (next == null) return;
+                    starts.add(start);
+                    start = next;
+                    pageNo++;
+                }
+                case 'P' -> {
+                    if (starts.isEmpty()) {
+                        table.line("(already at the first page)");
+                    } else {
+                        start = starts.remove(starts.size() - 1);
+                        pageNo--;
+                    }
+                }
+                case 'J' -> {
+                    if (arg.isEmpty()) {
+                        System.out.print("Jump to Engine Number: ");
+                        arg = in.hasNextLine() ? in.nextLine().trim() : "";
+                    }
+                    if (!EngineNumbers.isValid(arg)) {
+                        table.line("Invalid engine number: Must be exactly 10 digits.");
+                    } else {
+                        starts.add(start);
+                        start = arg;
+                        pageNo++;
+                    }
+                }
+                case 'S' -> {
+                    if (arg.isEmpty()) {
+                        table.line("Usage: S <file>");
+                    } else {
+                        try {
+                            long n = export(source, Path.of(arg));
+                            table.line("Saved " + n + " records to " + Path.of(arg).toAbsolutePath());
+                        } catch (IOException | InvalidPathException e) {
+                            table.line("Unable to save listing: " + e.getMessage());
+                        }
+                    }
+                }
+                case 'Q' -> {
+                    return;
+                }
+                default -> table.line("Unknown command: " + cmd);
+            }
+        }
+    }
+
+    // Renders the whole source to a file in batches; returns the number of records written.
+    public static long export(PageSource source, Path file) throws Exception {
+        try (Writer w = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            InventoryTable table = new InventoryTable(w).header();
+            String start = null;
+            while (true) {
+                List<InventoryData> rows = source.page(start, EXPORT_BATCH + 1);
+                if (rows.size() <= EXPORT_BATCH) {
+                    table.rows(rows).flush();
+                    return table.getRowCount();
+                }
+                table.rows(rows.subList(0, EXPORT_BATCH));
+                start = rows.get(EXPORT_BATCH).getEngineNumber();
+            }
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.motorph.inventory;
+
+// Filter for InventoryRepository.find / forEachMatching / count. Unset fields match
+// everything; predicates combine with AND. Results come back in engine-number order, and
+// after() continues from the last engine number of the previous page.
+//
+//     // all On-hand Hondas entered last month
+//     repo.find(new InventoryQuery().brand("Honda").status("On-hand").enteredFrom(start).enteredTo(end));
+public final class InventoryQuery {
+    String brand;
+    String status;
+    String level;
+    Long enteredFrom;   // inclusive, epoch millis
+    Long enteredTo;     // exclusive, epoch millis
+    String after;       // keyset cursor: only engine numbers > after
+    int limit;          // 0 = no limit
+
+    public InventoryQuery brand(String brand) {
+        this.brand = brand;
+        return this;
+    }
+
+    public InventoryQuery status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public InventoryQuery level(String level) {
+        this.level = level;
+        return this;
+    }
+
+    public InventoryQuery enteredFrom(long fromInclusive) {
+        this.enteredFrom = fromInclusive;
+        return this;
+    }
+
+    public InventoryQuery enteredTo(long toExclusive) {
+        this.enteredTo = toExclusive;
+        return this;
+    }
+
+    public InventoryQuery after(String engineNumber) {
+        this.after = engineNumber;
+        return this;
+    }
+
+    public InventoryQuery limit(int limit) {
+        if (limit < 1) throw new IllegalArgumentException("limit must be >= 1");
+        this.limit = limit;
+        return this;
+    }
+
+    // Same filter in Java, for repositories without secondary indexes.
+    public boolean matches(InventoryData d) {
+        if (brand != null && !brand.equals(d.getBrand())) return false;
+        if (status != null && !status.equals(d.getStatus())) return false;
+        if (level != null && !level.equals(d.getLevel())) return false;
+        if (enteredFrom != null || enteredTo != null) {
+            if (d.getDateEntered() == null) return false;
+            long t = d.getDateEntered().getTime();
+            if (enteredFrom != null && t < enteredFrom) return false;
+            if (enteredTo != null && t >= enteredTo) return false;
+        }
+        if (after != null && d.getEngineNumber().compareTo(after) <= 0) return false;
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "InventoryQuery{brand=" + brand + ", status=" + status + ", level=" + level
+                + ", enteredFrom=" + enteredFrom + ", enteredTo=" + enteredTo
+                + ", after=" + after + ", limit=" + limit + '}';
+    }
+}
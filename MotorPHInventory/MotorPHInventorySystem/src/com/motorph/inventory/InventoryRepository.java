@@ -1,11 +1,77 @@
 package com.motorph.inventory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
-interface InventoryRepository {
+public interface InventoryRepository {
     void insert(InventoryData d) throws Exception;
     InventoryData findByEngineNumber(String engineNumber) throws Exception;
     void update(InventoryData d) throws Exception;
     void deleteByEngineNumber(String engineNumber) throws Exception;
     List<InventoryData> findAllSortedByEngineNumber() throws Exception;
-}
\ No newline at end of file
+    // Keyset pagination: up to limit rows with engine_number > afterEngineNumber (null = from the start).
+    List<InventoryData> findPage(String afterEngineNumber, int limit) throws Exception;
+    // Streams every row in engine-number order over an open cursor; nothing is buffered.
+    void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) throws Exception;
+    // Batched insert; duplicate engine numbers (already stored or repeated in the input) are
+    // skipped and reported per row instead of failing the whole load.
+    BulkInsertResult insertAll(Iterable<InventoryData> rows) throws Exception;
+
+    // Sells a record: if its status equals expectedStatus (ignoring case) it goes to Old/Sold
+    // and is removed, and a DELETE/SUCCESS audit row with the given user and details is
+    // written. Rejections are not audited here; the caller knows the context. The default
+    // is a read-check-delete sequence for stores without transactions;
+    // JdbcInventoryRepository does it all in one transaction with a conditional DELETE.
+    default SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+        InventoryData stored = findByEngineNumber(engineNumber);
+        if (stored == null) return SellResult.notFound();
+        if (!expectedStatus.equalsIgnoreCase(stored.getStatus())) return SellResult.wrongStatus(stored);
+        deleteByEngineNumber(engineNumber);
+        SellResult r = SellResult.sold(stored);
+        AuditLogger.insertBatch(List.of(SellResult.auditEvent(r.record(), user, details)));
+        return r;
+    }
+
+    // Rows matching q in engine-number order, up to q's limit, streamed to action. The
+    // default filters a full scan in Java; JdbcInventoryRepository answers from indexes.
+    default void forEachMatching(InventoryQuery q, Consumer<? super InventoryData> action) throws Exception {
+        long[] left = {q.limit == 0 ? Long.MAX_VALUE : q.limit};
+        forEachSortedByEngineNumber(d -> {
+            if (left[0] > 0 && q.matches(d)) {
+                left[0]--;
+                action.accept(d);
+            }
+        });
+    }
+
+    default List<InventoryData> find(InventoryQuery q) throws Exception {
+        List<InventoryData> out = new ArrayList<>();
+        forEachMatching(q, out::add);
+        return out;
+    }
+
+    // Number of rows matching q's filters; after() and limit() are ignored.
+    default long count(InventoryQuery q) throws Exception {
+        InventoryQuery all = new InventoryQuery();
+        all.brand = q.brand;
+        all.status = q.status;
+        all.level = q.level;
+        all.enteredFrom = q.enteredFrom;
+        all.enteredTo = q.enteredTo;
+        long[] n = {0};
+        forEachMatching(all, d -> n[0]++);
+        return n[0];
+    }
+
+    // True when rows live in the database's inventory table, so the SQL reconciliation modes
+    // (see ReconcileMode) can read that table instead of going through the repository.
+    default boolean usesInventoryTable() {
+        return false;
+    }
+
+    // Makes the inventory table reflect every write made through this repository so far.
+    // Called before reading the table directly; only stores that write behind need it.
+    default void syncInventoryTable() throws Exception {
+    }
+}
@@ -1,6 +1,6 @@
 package com.motorph.inventory;
 
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 import java.util.Scanner;
@@ -14,20 +14,90 @@ public class InventorySystem {
     private final InventoryRepository repo;
     private final AuditLogger audit;
 
+    private static final int RECORD_CACHE_SIZE = 10_000;
+
     public InventorySystem() {
         bst = new InventoryBST();
         scanner = new Scanner(System.in);
         auth = new AuthService();
-        repo = new JdbcInventoryRepository();
-        audit = new AuditLogger();
+        repo = createRepository();
+        audit = AuditLogger.async();
     }
 
-    public void start() {
+    // Set once when -Dmotorph.repository=snapshot; one instance per process owns the table.
+    private static SnapshotInventoryRepository snapshot;
+    // Set once when -Dmotorph.repository=mmap; one instance per process owns the log file.
+    private static MappedLogInventoryRepository mapped;
 
-        if (!authenticate()) {
-            System.out.println("Exiting system.");
-            return;
+    // Repository stack shared by the interactive menu, batch mode and the HTTP server.
+    // -Dmotorph.repository=snapshot serves reads from memory and writes behind to SQLite;
+    // "mmap" keeps inventory in a memory-mapped log file (users and audit stay in SQLite);
+    // the default "jdbc" reads through an LRU record cache.
+    static InventoryRepository createRepository() {
+        String mode = System.getProperty("motorph.repository", "jdbc");
+        return switch (mode.toLowerCase()) {
+            case "snapshot" -> new MeteredInventoryRepository(snapshot(), "repo");
+            case "mmap" -> new MeteredInventoryRepository(mapped(), "repo");
+            case "jdbc" -> new MeteredInventoryRepository(
+                    new CachingInventoryRepository(new JdbcInventoryRepository(), RECORD_CACHE_SIZE), "repo");
+            default -> throw new IllegalArgumentException("Unknown motorph.repository: " + mode);
+        };
+    }
+
+    private static synchronized SnapshotInventoryRepository snapshot() {
+        if (snapshot == null) {
+            try {
+                snapshot = SnapshotInventoryRepository.fromSystemProperties();
+            } catch (Exception e) {
+                throw new RuntimeException("Snapshot load failed: " + e.getMessage(), e);
+            }
         }
+        return snapshot;
+    }
+
+    // -Dmotorph.mmap.compactSeconds (default 60) sets how often dead space is checked.
+    private static synchronized MappedLogInventoryRepository mapped() {
+        if (mapped == null) {
+            try {
+                mapped = MappedLogInventoryRepository.fromSystemProperties();
+            } catch (Exception e) {
+                throw new RuntimeException("Inventory log open failed: " + e.getMessage(), e);
+            }
+            mapped.startCompaction(Long.getLong("motorph.mmap.compactSeconds", 60));
+        }
+        return mapped;
+    }
+
+    // Persists whatever the snapshot still has queued and closes the inventory log;
+    // call before DB.shutdown().
+    static synchronized void closeRepository() {
+        if (snapshot != null) {
+            snapshot.close();
+            snapshot = null;
+        }
+        if (mapped != null) {
+            try {
+                mapped.close();
+            } catch (IOException e) {
+                System.err.println("[mmap] close failed: " + e.getMessage());
+            }
+            mapped = null;
+        }
+    }
+
+    // The audit logger is closed (drained) on every way out, so queued events are written
+    // before Main shuts the connection pool down.
+    public void start() {
+        try (audit) {
+            if (!authenticate()) {
+                System.out.println("Exiting system.");
+                return;
+            }
+            menu();
+        }
+    }
+
+    private void menu() {
         while (true) {
             displayMainMenu();
             System.out.print("Select an option: ");
@@ -49,8 +119,13 @@ public class InventorySystem {
                     return;
                 }
                 case "6" -> audit.printRecent(50); // view audit log
-                case "7" -> audit.reconcileAndReport(currentUser, repo); // reconciliation
-                default -> System.out.println("Invalid option: Please enter a number between 1 and 7.");
+                case "7" -> { // reconciliation
+                    verifySnapshot();
+                    audit.reconcileAndReport(currentUser, repo, ReconcileMode.defaultFor(repo));
+                }
+                case "8" -> importStock();
+                case "9" -> System.out.println("\n--- Performance Metrics ---\n" + Metrics.dump());
+                default -> System.out.println("Invalid option: Please enter a number between 1 and 9.");
             }
         }
     }
@@ -83,7 +158,9 @@ public class InventorySystem {
         System.out.println("4. Display Inventory (Sorted)");
         System.out.println("5. Exit ");
         System.out.println("6. View Audit Log");
-        System.out.println("7. Reconciliation & Exception Report\n");
+        System.out.println("7. Reconciliation & Exception Report");
+        System.out.println("8. Import Stock from CSV");
+        System.out.println("9. Performance Metrics\n");
     }
     
     private boolean isAdmin() {
@@ -91,7 +168,7 @@ public class InventorySystem {
     }
 
     private boolean isValidEngineNumber(String value) {
-        return value != null && value.matches("\\d{10}");
+        return EngineNumbers.isValid(value);
     }
 
     private void addStock() {
@@ -131,6 +208,34 @@ public class InventorySystem {
         }
     }
 
+    private void importStock() {
+        System.out.print("Enter path of CSV file to import (or type CANCEL to return): ");
+        String path = scanner.nextLine().trim();
+        if (path.equalsIgnoreCase("CANCEL") || path.isEmpty()) {
+            System.out.println("Import cancelled. Returning to main menu.");
+            return;
+        }
+        try {
+            long start = System.currentTimeMillis();
+            CsvInventoryImporter.Report report = new CsvInventoryImporter(repo).importFile(java.nio.file.Paths.get(path));
+            long ms = System.currentTimeMillis() - start;
+            System.out.println("Import finished in " + ms + " ms: " + report);
+            int shown = 0;
+            for (CsvInventoryImporter.LineError err : report.getErrors()) {
+                if (shown++ == 20) {
+                    System.out.println(" ... " + (report.getErrors().size() - 20) + " more");
+                    break;
+                }
+                System.out.println(" - line " + err.line() + " (" + err.engineNumber() + "): " + err.reason());
+            }
+            audit.log(currentUser, "IMPORT", null, null, null, "SUCCESS", path + ": " + report);
+        } catch (Exception e) {
+            System.out.println("Import failed. Please check the file and try again.");
+            System.err.println("[importStock] " + e.getClass().getName() + ": " + e.getMessage());
+            audit.logException(currentUser, "IMPORT", null, e);
+        }
+    }
+
     private void deleteStock() {
         try {
             while (true) {
@@ -176,13 +281,24 @@ public class InventorySystem {
                 }
 
                 if (confirmNumber.equals(engineNumber)) {
-                    record.setStatus("Old");
-                    record.setLevel("Sold");
-                    repo.update(record);
-                    repo.deleteByEngineNumber(engineNumber);
-                    System.out.println("Product deleted successfully:");
-                    bst.printRecordWithHeader(record);
-                    audit.log(currentUser, "DELETE", engineNumber, record.getStatus(), record.getLevel(), "SUCCESS", "");
+                    // Re-checks the status as it removes the row, in case it changed while
+                    // the prompt was open; the SUCCESS audit row commits with the removal.
+                    SellResult r = repo.sell(engineNumber, InventoryData.Status.ON_HAND.label(), currentUser, "");
+                    switch (r.outcome()) {
+                        case SOLD -> {
+                            System.out.println("Product deleted successfully:");
+                            bst.printRecordWithHeader(r.record());
+                        }
+                        case NOT_FOUND -> {
+                            System.out.println("Product was removed by another session. Nothing deleted.");
+                            audit.log(currentUser, "DELETE", engineNumber, null, null, "REJECTED", "Not found");
+                        }
+                        case WRONG_STATUS -> {
+                            System.out.println("Product cannot be deleted. Status changed to '" + r.record().getStatus() + "'.");
+                            audit.log(currentUser, "DELETE", engineNumber, r.record().getStatus(), r.record().getLevel(),
+                                    "REJECTED", "Invalid status for delete");
+                        }
+                    }
                 } else {
                     System.out.println("Engine number mismatch. Deletion not confirmed and has been cancelled.");
                     audit.log(currentUser, "DELETE", engineNumber, record.getStatus(), record.getLevel(), "REJECTED", "Confirm mismatch");
@@ -225,31 +341,37 @@ public class InventorySystem {
         }
     }
 
-    private static final String ROW_FORMAT = "%-15s %-12s %-16s %-10s %-10s";
-    private static final SimpleDateFormat DATE_FMT = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+    // In snapshot mode, first confirm that memory and the database agree.
+    private void verifySnapshot() {
+        SnapshotInventoryRepository s;
+        synchronized (InventorySystem.class) {
+            s = snapshot;
+        }
+        if (s == null) return;
+        try {
+            SnapshotInventoryRepository.ConsistencyReport r = s.verify();
+            System.out.println("\n--- Snapshot Consistency ---");
+            System.out.println("Memory rows   : " + r.memoryRows());
+            System.out.println("Database rows : " + r.databaseRows());
+            System.out.println(r.isConsistent() ? "Status        : consistent" : "Status        : " + r.mismatches() + " mismatches");
+            r.samples().forEach(m -> System.out.println("  " + m));
+        } catch (Exception e) {
+            System.out.println("Unable to verify the in-memory snapshot.");
+            System.err.println("[verifySnapshot] " + e.getClass().getName() + ": " + e.getMessage());
+        }
+    }
 
+    private static final int PAGE_SIZE = 25;
+
+    // Keyset-paged listing (next/prev/jump/save); only one page is held in memory.
     private void displayInventory() {
         System.out.println("Displaying inventory records sorted by Engine Number:");
         try {
-            List<InventoryData> all = repo.findAllSortedByEngineNumber();
-            if (all.isEmpty()) {
-                System.out.println("(no records)");
-                return;
-            }
-            String header = String.format(ROW_FORMAT, "Brand", "Engine No.", "Date Entered", "Status", "Level");
-            System.out.println(header);
-            System.out.println("-".repeat(header.length()));
-            for (InventoryData d : all) {
-                String date = d.getDateEntered() != null ? DATE_FMT.format(d.getDateEntered()) : "";
-                System.out.printf(ROW_FORMAT + "%n",
-                        safe(d.getBrand()), safe(d.getEngineNumber()), date, safe(d.getStatus()), safe(d.getLevel()));
-            }
-            System.out.println();
+            new InventoryPager(InventoryPager.of(repo), PAGE_SIZE, scanner, InventoryTable.console()).run();
         } catch (Exception e) {
             System.out.println("Unable to display inventory.");
+            System.err.println("[displayInventory] " + e.getClass().getName() + ": " + e.getMessage());
         }
     }
 
-    private String safe(String s) { return s == null ? "" : s; }
-
-}
\ No newline at end of file
+}
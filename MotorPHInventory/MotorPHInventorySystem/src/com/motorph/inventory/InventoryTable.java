@@ -0,0 +1,114 @@
+package com.motorph.inventory;
+
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+// Fixed-width inventory table shared by every listing (menu, BST dump, file export).
+// Rows are laid out by hand into one reusable buffer and handed to the writer in large
+// chunks, so a long listing costs a few writes instead of one formatted, synchronized
+// printf per row. Output is the same as the old "%-15s %-12s %-16s %-10s %-10s" layout.
+//
+// Not thread-safe; use one table per listing. Call flush() when done.
+public final class InventoryTable implements Flushable {
+    private static final int[] WIDTHS = {15, 12, 16, 10, 10};
+    private static final String[] TITLES = {"Brand", "Engine No.", "Date Entered", "Status", "Level"};
+    private static final DateTimeFormatter DATE_FMT =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
+    private static final int CHUNK = 64 * 1024;
+
+    private final Writer out;
+    private final StringBuilder buf = new StringBuilder(CHUNK + 256);
+    private char[] chunk = new char[CHUNK + 256];
+    private final String[] cells = new String[WIDTHS.length];
+    private long rows;
+
+    public InventoryTable(Writer out) {
+        this.out = out;
+    }
+
+    // Writes through System.out (as installed now) without ever closing it.
+    public static InventoryTable console() {
+        return new InventoryTable(new OutputStreamWriter(System.out, System.out.charset()));
+    }
+
+    public InventoryTable header() throws IOException {
+        int start = buf.length();
+        for (int c = 0; c < TITLES.length; c++) {
+            int cell = buf.length();
+            buf.append(TITLES[c]);
+            pad(cell, c);
+        }
+        int width = buf.length() - start;
+        buf.append(System.lineSeparator());
+        for (int i = 0; i < width; i++) buf.append('-');
+        buf.append(System.lineSeparator());
+        return drain();
+    }
+
+    public InventoryTable row(InventoryData d) throws IOException {
+        cells[0] = d.getBrand();
+        cells[1] = d.getEngineNumber();
+        cells[2] = null;
+        cells[3] = d.getStatus();
+        cells[4] = d.getLevel();
+        Date date = d.getDateEntered();
+        for (int c = 0; c < cells.length; c++) {
+            int start = buf.length();
+            if (c == 2) {
+                if (date != null) DATE_FMT.formatTo(Instant.ofEpochMilli(date.getTime()), buf);
+            } else if (cells[c] != null) {
+                buf.append(cells[c]);
+            }
+            pad(start, c);
+        }
+        buf.append(System.lineSeparator());
+        rows++;
+        return drain();
+    }
+
+    public InventoryTable rows(Iterable<InventoryData> records) throws IOException {
+        for (InventoryData d : records) row(d);
+        return this;
+    }
+
+    // Free-form line (captions, blank spacer) kept in order with the rows.
+    public InventoryTable line(String text) throws IOException {
+        buf.append(text).append(System.lineSeparator());
+        return drain();
+    }
+
+    public long getRowCount() {
+        return rows;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        if (buf.length() > 0) writeBuffer();
+        out.flush();
+    }
+
+    // Left-justify to the column width; never truncates, like %-Ns.
+    private void pad(int start, int column) {
+        for (int n = buf.length() - start; n < WIDTHS[column]; n++) buf.append(' ');
+        if (column < WIDTHS.length - 1) buf.append(' ');
+    }
+
+    private InventoryTable drain() throws IOException {
+        if (buf.length() >= CHUNK) writeBuffer();
+        return this;
+    }
+
+    private void writeBuffer() throws IOException {
+        int n = buf.length();
+        if (chunk.length < n) chunk = new char[n];
+        buf.getChars(0, n, chunk, 0);
+        out.write(chunk, 0, n);
+        buf.setLength(0);
+    }
+}
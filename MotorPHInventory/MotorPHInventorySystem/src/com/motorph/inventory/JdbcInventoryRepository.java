@@ -2,21 +2,28 @@ package com.motorph.inventory;
 
 import java.sql.*;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class JdbcInventoryRepository implements InventoryRepository {
 
+    // Rows per transaction for insertAll.
+    static final int BULK_CHUNK_SIZE = 1_000;
+    private static final int SCAN_FETCH_SIZE = 500;
+
     @Override
     public void insert(InventoryData d) throws Exception {
-        String sql = "INSERT INTO inventory(engine_number, brand, date_entered, status, level) VALUES(?,?,?,?,?)";
-        try (Connection c = DB.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, d.getEngineNumber());
-            ps.setString(2, d.getBrand());
-            ps.setLong(3, d.getDateEntered() != null ? d.getDateEntered().getTime() : System.currentTimeMillis());
-            ps.setString(4, d.getStatus());
-            ps.setString(5, d.getLevel());
-            ps.executeUpdate();
-        }
+        String sql = "INSERT INTO inventory(engine_number, brand, date_entered, status, level, mod_seq) VALUES(?,?,?,?,?,?)";
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, d.getEngineNumber());
+                ps.setString(2, d.getBrand());
+                ps.setLong(3, d.getDateEntered() != null ? d.getDateEntered().getTime() : System.currentTimeMillis());
+                ps.setString(4, d.getStatus());
+                ps.setString(5, d.getLevel());
+                ps.setLong(6, ChangeTracking.reserve(c, 1));
+                ps.executeUpdate();
+            }
+        });
     }
 
     @Override
@@ -34,25 +41,76 @@ public class JdbcInventoryRepository implements InventoryRepository {
 
     @Override
     public void update(InventoryData d) throws Exception {
-        String sql = "UPDATE inventory SET brand=?, date_entered=?, status=?, level=? WHERE engine_number=?";
-        try (Connection c = DB.getConnection();
-             PreparedStatement ps = c.prepareStatement(sql)) {
-            ps.setString(1, d.getBrand());
-            ps.setLong(2, d.getDateEntered() != null ? d.getDateEntered().getTime() : System.currentTimeMillis());
-            ps.setString(3, d.getStatus());
-            ps.setString(4, d.getLevel());
-            ps.setString(5, d.getEngineNumber());
-            ps.executeUpdate();
-        }
+        String sql = "UPDATE inventory SET brand=?, date_entered=?, status=?, level=?, mod_seq=? WHERE engine_number=?";
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, d.getBrand());
+                ps.setLong(2, d.getDateEntered() != null ? d.getDateEntered().getTime() : System.currentTimeMillis());
+                ps.setString(3, d.getStatus());
+                ps.setString(4, d.getLevel());
+                ps.setLong(5, ChangeTracking.reserve(c, 1));
+                ps.setString(6, d.getEngineNumber());
+                ps.executeUpdate();
+            }
+        });
     }
 
     @Override
     public void deleteByEngineNumber(String engineNumber) throws Exception {
-        try (Connection c = DB.getConnection();
-             PreparedStatement ps = c.prepareStatement("DELETE FROM inventory WHERE engine_number=?")) {
-            ps.setString(1, engineNumber);
-            ps.executeUpdate();
-        }
+        inTransaction(c -> {
+            try (PreparedStatement ps = c.prepareStatement("DELETE FROM inventory WHERE engine_number=?")) {
+                ps.setString(1, engineNumber);
+                if (ps.executeUpdate() == 0) return;
+            }
+            try (PreparedStatement ts = c.prepareStatement(ChangeTracking.TOMBSTONE_SQL)) {
+                ts.setString(1, engineNumber);
+                ts.setLong(2, ChangeTracking.reserve(c, 1));
+                ts.executeUpdate();
+            }
+        });
+    }
+
+    // One transaction: a DELETE whose WHERE carries the status check and RETURNING hands back
+    // the row, then the tombstone and the audit row; a single commit (one fsync). The row is
+    // only read separately when nothing matched, to tell "not found" from "wrong status".
+    @Override
+    public SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+        String sql = "DELETE FROM inventory WHERE engine_number = ? AND status = ? COLLATE NOCASE "
+                + "RETURNING engine_number, brand, date_entered, status, level";
+        SellResult[] result = new SellResult[1];
+        inTransaction(c -> {
+            long seq = ChangeTracking.reserve(c, 1);
+            InventoryData stored = null;
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                ps.setString(1, engineNumber);
+                ps.setString(2, expectedStatus);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (rs.next()) stored = map(rs);
+                }
+            }
+            if (stored == null) {
+                try (PreparedStatement ps = c.prepareStatement(
+                        "SELECT engine_number, brand, date_entered, status, level FROM inventory WHERE engine_number = ?")) {
+                    ps.setString(1, engineNumber);
+                    try (ResultSet rs = ps.executeQuery()) {
+                        result[0] = rs.next() ? SellResult.wrongStatus(map(rs)) : SellResult.notFound();
+                    }
+                }
+                c.rollback();   // nothing changed; drop the reserved number
+                return;
+            }
+            result[0] = SellResult.sold(stored);
+            try (PreparedStatement ts = c.prepareStatement(ChangeTracking.TOMBSTONE_SQL)) {
+                ts.setString(1, engineNumber);
+                ts.setLong(2, seq);
+                ts.executeUpdate();
+            }
+            try (PreparedStatement audit = c.prepareStatement(AuditLogger.INSERT_SQL)) {
+                AuditLogger.bind(audit, SellResult.auditEvent(result[0].record(), user, details));
+                audit.executeUpdate();
+            }
+        });
+        return result[0];
     }
 
     @Override
@@ -67,10 +125,183 @@ public class JdbcInventoryRepository implements InventoryRepository {
         return out;
     }
 
-    private InventoryData map(ResultSet rs) throws SQLException {
+    @Override
+    public List<InventoryData> findPage(String afterEngineNumber, int limit) throws Exception {
+        String sql = "SELECT engine_number, brand, date_entered, status, level FROM inventory "
+                + "WHERE engine_number > ? ORDER BY engine_number ASC LIMIT ?";
+        List<InventoryData> out = new ArrayList<>(Math.min(limit, 1_000));
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            // Every TEXT value sorts after '', so '' means "from the first row".
+            ps.setString(1, afterEngineNumber == null ? "" : afterEngineNumber);
+            ps.setInt(2, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) out.add(map(rs));
+            }
+        }
+        return out;
+    }
+
+    @Override
+    public void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) throws Exception {
+        String sql = "SELECT engine_number, brand, date_entered, status, level FROM inventory ORDER BY engine_number ASC";
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql)) {
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) action.accept(map(rs));
+            }
+        }
+    }
+
+    @Override
+    public void forEachMatching(InventoryQuery q, Consumer<? super InventoryData> action) throws Exception {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT engine_number, brand, date_entered, status, level FROM inventory");
+        where(q, sql, args);
+        if (q.after != null) { sql.append(" AND engine_number > ?"); args.add(q.after); }
+        sql.append(" ORDER BY engine_number ASC");
+        if (q.limit > 0) { sql.append(" LIMIT ?"); args.add(q.limit); }
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            ps.setFetchSize(SCAN_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) action.accept(map(rs));
+            }
+        }
+    }
+
+    @Override
+    public long count(InventoryQuery q) throws Exception {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM inventory");
+        where(q, sql, args);
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0;
+            }
+        }
+    }
+
+    // SQLite's plan for count(q), one line per step; a plan that only reads
+    // "COVERING INDEX" steps never touches the table.
+    public List<String> explainCount(InventoryQuery q) throws Exception {
+        List<Object> args = new ArrayList<>();
+        StringBuilder sql = new StringBuilder("EXPLAIN QUERY PLAN SELECT COUNT(*) FROM inventory");
+        where(q, sql, args);
+        List<String> plan = new ArrayList<>();
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(sql.toString())) {
+            for (int i = 0; i < args.size(); i++) ps.setObject(i + 1, args.get(i));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) plan.add(rs.getString("detail"));
+            }
+        }
+        return plan;
+    }
+
+    private static void where(InventoryQuery q, StringBuilder sql, List<Object> args) {
+        sql.append(" WHERE 1=1");
+        if (q.brand != null) { sql.append(" AND brand = ?"); args.add(q.brand); }
+        if (q.status != null) { sql.append(" AND status = ?"); args.add(q.status); }
+        if (q.level != null) { sql.append(" AND level = ?"); args.add(q.level); }
+        if (q.enteredFrom != null) { sql.append(" AND date_entered >= ?"); args.add(q.enteredFrom); }
+        if (q.enteredTo != null) { sql.append(" AND date_entered < ?"); args.add(q.enteredTo); }
+    }
+
+    @Override
+    public boolean usesInventoryTable() {
+        return true;
+    }
+
+    @Override
+    public BulkInsertResult insertAll(Iterable<InventoryData> rows) throws Exception {
+        // OR IGNORE turns a duplicate key into an update count of 0, so the whole chunk
+        // still goes through in one executeBatch and we can tell which rows were skipped.
+        String sql = "INSERT OR IGNORE INTO inventory(engine_number, brand, date_entered, status, level, mod_seq) VALUES(?,?,?,?,?,?)";
+        BulkInsertResult result = new BulkInsertResult();
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement ps = c.prepareStatement(sql)) {
+                String[] engines = new String[BULK_CHUNK_SIZE];
+                long[] positions = new long[BULK_CHUNK_SIZE];
+                int pending = 0;
+                long index = -1;
+                long seqBase = 0;
+                for (InventoryData d : rows) {
+                    index++;
+                    // OR IGNORE would also swallow NOT NULL violations, so catch those here.
+                    if (d.getEngineNumber() == null || d.getBrand() == null
+                            || d.getStatus() == null || d.getLevel() == null) {
+                        result.reject(index, d.getEngineNumber(), "Missing required field");
+                        continue;
+                    }
+                    ps.setString(1, d.getEngineNumber());
+                    ps.setString(2, d.getBrand());
+                    ps.setLong(3, d.getDateEntered() != null ? d.getDateEntered().getTime() : System.currentTimeMillis());
+                    ps.setString(4, d.getStatus());
+                    ps.setString(5, d.getLevel());
+                    // one reservation per chunk; numbers left over by skipped rows are just gaps
+                    if (pending == 0) seqBase = ChangeTracking.reserve(c, BULK_CHUNK_SIZE);
+                    ps.setLong(6, seqBase + pending);
+                    ps.addBatch();
+                    engines[pending] = d.getEngineNumber();
+                    positions[pending] = index;
+                    if (++pending == BULK_CHUNK_SIZE) {
+                        flushChunk(c, ps, engines, positions, pending, result);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) flushChunk(c, ps, engines, positions, pending, result);
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+        return result;
+    }
+
+    private void flushChunk(Connection c, PreparedStatement ps, String[] engines, long[] positions, int n,
+                            BulkInsertResult result) throws SQLException {
+        int[] counts = ps.executeBatch();
+        c.commit();
+        int inserted = 0;
+        for (int i = 0; i < n; i++) {
+            if (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO) {
+                inserted++;
+            } else {
+                result.reject(positions[i], engines[i], "Duplicate engine number");
+            }
+            engines[i] = null;
+        }
+        result.addInserted(inserted);
+    }
+
+    private interface SqlWork {
+        void run(Connection c) throws SQLException;
+    }
+
+    // Row change plus its change-sequence bookkeeping, committed together.
+    private static void inTransaction(SqlWork work) throws SQLException {
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                work.run(c);
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    private static InventoryData map(ResultSet rs) throws SQLException {
         String engine = rs.getString("engine_number");
         String brand = rs.getString("brand");
-        java.util.Date entered = new java.util.Date(rs.getLong("date_entered"));
+        long entered = rs.getLong("date_entered");
         String status = rs.getString("status");
         String level = rs.getString("level");
         return new InventoryData(brand, engine, entered, status, level);
@@ -0,0 +1,102 @@
+package com.motorph.inventory;
+
+import java.util.Map;
+
+// Minimal JSON writer for machine-readable output; no parsing, no dependencies.
+//
+//     Json.object().put("op", "ADD").put("ok", true).toString()  ->  {"op":"ADD","ok":true}
+final class Json {
+
+    private Json() {}
+
+    static Obj object() {
+        return new Obj();
+    }
+
+    static final class Obj {
+        private final StringBuilder sb = new StringBuilder("{");
+
+        // Values: null, String, Number, Boolean, Obj, Map or Iterable; anything else via toString().
+        Obj put(String key, Object value) {
+            if (sb.length() > 1) sb.append(',');
+            quote(sb, key);
+            sb.append(':');
+            value(sb, value);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return sb + "}";
+        }
+    }
+
+    static Obj record(InventoryData d) {
+        return object()
+                .put("engineNumber", d.getEngineNumber())
+                .put("brand", d.getBrand())
+                .put("dateEntered", d.getDateEntered() == null ? null : d.getDateEntered().getTime())
+                .put("status", d.getStatus())
+                .put("level", d.getLevel());
+    }
+
+    static Obj record(AuditRecord r) {
+        return object()
+                .put("id", r.id())
+                .put("ts", r.ts())
+                .put("user", r.user())
+                .put("action", r.action())
+                .put("engineNumber", r.engineNumber())
+                .put("status", r.status())
+                .put("level", r.level())
+                .put("outcome", r.outcome())
+                .put("details", r.details());
+    }
+
+    private static void value(StringBuilder sb, Object v) {
+        if (v == null) {
+            sb.append("null");
+        } else if (v instanceof String s) {
+            quote(sb, s);
+        } else if (v instanceof Number || v instanceof Boolean || v instanceof Obj) {
+            sb.append(v);
+        } else if (v instanceof Map<?, ?> m) {
+            Obj o = object();
+            for (Map.Entry<?, ?> e : m.entrySet()) o.put(String.valueOf(e.getKey()), e.getValue());
+            sb.append(o);
+        } else if (v instanceof Iterable<?> it) {
+            sb.append('[');
+            boolean first = true;
+            for (Object x : it) {
+                if (!first) sb.append(',');
+                value(sb, x);
+                first = false;
+            }
+            sb.append(']');
+        } else {
+            quote(sb, v.toString());
+        }
+    }
+
+    static void quote(StringBuilder sb, String s) {
+        sb.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"' -> sb.append("\\\"");
+                case '\\' -> sb.append("\\\\");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> sb.append("\\r");
+                case '\t' -> sb.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+                }
+            }
+        }
+        sb.append('"');
+    }
+}
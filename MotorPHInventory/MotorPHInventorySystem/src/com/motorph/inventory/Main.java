@@ -1,5 +1,20 @@
 package com.motorph.inventory;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Console;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.InputStreamReader;
+import java.net.InetSocketAddress;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
 public class Main {
     public static void main(String[] args) {
         try {
@@ -11,7 +26,124 @@ public class Main {
             System.exit(1);
         }
 
-        InventorySystem system = new InventorySystem();
-        system.start();
+        // -Dmotorph.metrics.dumpSeconds=N prints operation latencies to stderr every N seconds.
+        long dumpSeconds = Long.getLong("motorph.metrics.dumpSeconds", 0L);
+        if (dumpSeconds > 0) Metrics.startReporter(System.err, dumpSeconds);
+
+        // Audit rows older than -Dmotorph.audit.retentionDays (default 90) are rolled into
+        // compressed archive segments at startup and every motorph.audit.rolloverMinutes (0 = off).
+        AuditArchiver archiver = AuditArchiver.fromSystemProperties();
+        long rolloverMinutes = Long.getLong("motorph.audit.rolloverMinutes", 60L);
+        if (rolloverMinutes > 0) archiver.start(rolloverMinutes);
+
+        int exitCode = 0;
+        try {
+            if (args.length > 0 && args[0].equals("--batch")) {
+                exitCode = runBatch(args);
+            } else if (args.length > 0 && args[0].equals("--serve")) {
+                exitCode = runServer(args);
+            } else {
+                new InventorySystem().start();
+            }
+        } finally {
+            archiver.stop();
+            InventorySystem.closeRepository();
+            DB.shutdown();
+        }
+        if (exitCode != 0) System.exit(exitCode);
+    }
+
+    // Headless mode:  --batch <file|-> --user <name>
+    // The password comes from MOTORPH_PASSWORD, or a console prompt when one is attached.
+    // JSON results go to stdout, diagnostics to stderr. Exit code 0 = all commands succeeded,
+    // 1 = at least one failed, 2 = bad arguments or login failure.
+    private static int runBatch(String[] args) {
+        String source = null;
+        String user = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--user") && i + 1 < args.length) {
+                user = args[++i];
+            } else if (source == null) {
+                source = args[i];
+            } else {
+                System.err.println("Unexpected argument: " + args[i]);
+                return 2;
+            }
+        }
+        if (source == null || user == null) {
+            System.err.println("Usage: Main --batch <file|-> --user <name>   (password from MOTORPH_PASSWORD)");
+            return 2;
+        }
+
+        String password = System.getenv("MOTORPH_PASSWORD");
+        Console console = System.console();
+        if (password == null && console != null) {
+            char[] pw = console.readPassword("Password for %s: ", user);
+            password = pw == null ? null : new String(pw);
+        }
+        AuthService auth = new AuthService();
+        if (password == null || !auth.authenticate(user, password)) {
+            System.err.println("Login failed for " + user + ".");
+            return 2;
+        }
+
+        PrintStream out = new PrintStream(new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16),
+                false, StandardCharsets.UTF_8);
+        try (AuditLogger audit = AuditLogger.async();
+             Reader in = source.equals("-")
+                     ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                     : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            BatchCommandRunner runner = new BatchCommandRunner(
+                    InventorySystem.createRepository(), audit, user, auth.getRole(user), out);
+            BatchCommandRunner.Summary summary = runner.run(in);
+            System.err.println("[batch] " + summary.commands() + " commands, " + summary.failed() + " failed, "
+                    + summary.elapsedMillis() + " ms");
+            return summary.failed() == 0 ? 0 : 1;
+        } catch (Exception e) {
+            out.flush();
+            System.err.println("[batch] " + e.getClass().getName() + ": " + e.getMessage());
+            return 2;
+        }
+    }
+
+    // HTTP API:  --serve [port]   (default 8080, or -Dmotorph.http.port). Runs until Ctrl-C.
+    private static int runServer(String[] args) {
+        int port = Integer.getInteger("motorph.http.port", 8080);
+        if (args.length > 1) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("Usage: Main --serve [port]");
+                return 2;
+            }
+        }
+        CountDownLatch stopped = new CountDownLatch(1);
+        CountDownLatch drained = new CountDownLatch(1);
+        // The hook wakes the main thread, then holds the JVM open until the server is closed.
+        Thread hook = new Thread(() -> {
+            stopped.countDown();
+            try {
+                drained.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ignored) {
+                // exiting anyway
+            }
+        }, "http-shutdown");
+        try (AuditLogger audit = AuditLogger.async();
+             InventoryHttpServer server = new InventoryHttpServer(new InetSocketAddress(port),
+                     InventorySystem.createRepository(), audit, new AuthService())) {
+            server.start();
+            System.out.println("[HTTP] Listening on port " + server.getPort());
+            Runtime.getRuntime().addShutdownHook(hook);
+            stopped.await();
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        } catch (Exception e) {
+            System.err.println("[HTTP] " + e.getClass().getName() + ": " + e.getMessage());
+            return 2;
+        } finally {
+            drained.countDown();
+        }
     }
 }
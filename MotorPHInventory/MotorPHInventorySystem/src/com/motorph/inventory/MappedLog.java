@@ -0,0 +1,184 @@
+package com.motorph.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// Append-only record log over a memory-mapped file, used by MappedLogInventoryRepository.
+//
+// The file is mapped in fixed REGION_SIZE windows, added as the log grows. A record never
+// crosses a window: if it does not fit, a SKIP marker (or < 4 spare bytes) sends the
+// scanner to the next window. Record framing:
+//
+//     [int length][int crc32 of the bytes after it][payload ...]
+//
+// length 0 marks the end of the log. recover() scans from the start and stops at the first
+// record whose checksum fails, which drops a torn write from a crash.
+//
+// Readers may run concurrently with the single writer: they only use absolute gets on
+// windows published through a volatile array, and they only see offsets the writer has
+// already finished (the caller publishes offsets through a concurrent index).
+final class MappedLog implements AutoCloseable {
+
+    static final int REGION_SIZE = 16 << 20;
+    private static final int HEADER = 8;
+    private static final int SKIP = -1;
+
+    interface Visitor {
+        void record(long offset, ByteBuffer payload) throws IOException;
+    }
+
+    private final FileChannel ch;
+    private volatile MappedByteBuffer[] regions = new MappedByteBuffer[0];
+    private long end;       // next append offset; writer only
+    private long forced;    // everything before this offset has been forced to disk
+    private final CRC32 crc = new CRC32();   // append only
+
+    private MappedLog(FileChannel ch) {
+        this.ch = ch;
+    }
+
+    // Opens (or creates) the file and maps what is there; call recover() before appending.
+    static MappedLog open(Path path) throws IOException {
+        FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        MappedLog log = new MappedLog(ch);
+        try {
+            long size = ch.size();
+            for (long r = 0; r * REGION_SIZE < size; r++) log.mapRegion();
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+        return log;
+    }
+
+    // Feeds every intact record to the visitor in order and positions appends after the last.
+    void recover(Visitor visitor) throws IOException {
+        end = scan(0, visitor);
+        forced = end;
+        clearTail();
+    }
+
+    long size() {
+        return end;
+    }
+
+    // Appends one record; returns its offset. Caller serializes appends.
+    long append(byte[] payload, int length) throws IOException {
+        int total = HEADER + length;
+        if (total > REGION_SIZE) throw new IllegalArgumentException("record too large: " + total);
+        int within = (int) (end % REGION_SIZE);
+        if (within + total > REGION_SIZE) {
+            if (REGION_SIZE - within >= 4) region(end).putInt(within, SKIP);
+            end += REGION_SIZE - within;
+            within = 0;
+        }
+        MappedByteBuffer buf = region(end);
+        crc.reset();
+        crc.update(payload, 0, length);
+        // payload first, length last: a reader or a scan never sees a length without its bytes
+        buf.putInt(within + 4, (int) crc.getValue());
+        buf.put(within + HEADER, payload, 0, length);
+        buf.putInt(within, total);
+        long offset = end;
+        end += total;
+        return offset;
+    }
+
+    // Payload of the record at offset, as a read-only view.
+    ByteBuffer read(long offset) {
+        MappedByteBuffer buf = regions[(int) (offset / REGION_SIZE)];
+        int within = (int) (offset % REGION_SIZE);
+        int total = buf.getInt(within);
+        return buf.slice(within + HEADER, total - HEADER).asReadOnlyBuffer();
+    }
+
+    int recordLength(long offset) {
+        return regions[(int) (offset / REGION_SIZE)].getInt((int) (offset % REGION_SIZE));
+    }
+
+    // Visits intact records in [from, size()) order; returns the offset after the last one.
+    long scan(long from, Visitor visitor) throws IOException {
+        long pos = from;
+        CRC32 check = new CRC32();
+        MappedByteBuffer[] rs = regions;
+        while (pos / REGION_SIZE < rs.length) {
+            MappedByteBuffer buf = rs[(int) (pos / REGION_SIZE)];
+            int within = (int) (pos % REGION_SIZE);
+            if (REGION_SIZE - within < 4) {
+                pos += REGION_SIZE - within;
+                continue;
+            }
+            int total = buf.getInt(within);
+            if (total == SKIP) {
+                pos += REGION_SIZE - within;
+                continue;
+            }
+            if (total < HEADER || within + total > REGION_SIZE) break;
+            ByteBuffer payload = buf.slice(within + HEADER, total - HEADER);
+            check.reset();
+            check.update(payload.duplicate());
+            if ((int) check.getValue() != buf.getInt(within + 4)) break;
+            visitor.record(pos, payload.asReadOnlyBuffer());
+            pos += total;
+        }
+        return pos;
+    }
+
+    // Forces the windows written since the last call.
+    void force() {
+        if (forced == end) return;
+        MappedByteBuffer[] rs = regions;
+        for (int r = (int) (forced / REGION_SIZE); r < rs.length && (long) r * REGION_SIZE < end; r++) rs[r].force();
+        forced = end;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        ch.close();
+    }
+
+    // Closes without forcing, for a log that has been replaced. Existing mappings stay
+    // readable until they are garbage collected, so in-flight readers are unaffected.
+    void discard() throws IOException {
+        ch.close();
+    }
+
+    private MappedByteBuffer region(long offset) throws IOException {
+        int r = (int) (offset / REGION_SIZE);
+        while (r >= regions.length) mapRegion();
+        return regions[r];
+    }
+
+    private void mapRegion() throws IOException {
+        MappedByteBuffer[] rs = regions;
+        MappedByteBuffer b = ch.map(FileChannel.MapMode.READ_WRITE, (long) rs.length * REGION_SIZE, REGION_SIZE);
+        MappedByteBuffer[] grown = Arrays.copyOf(rs, rs.length + 1);
+        grown[rs.length] = b;
+        regions = grown;
+    }
+
+    // After a crash the bytes past the last good record may hold a torn write (or, with
+    // out-of-order page writeback, a later one). Zero them so a future scan cannot pick
+    // them up once new records are appended in front of them. Chunks that are already zero
+    // are only read, so sparse regions stay sparse.
+    private void clearTail() {
+        MappedByteBuffer[] rs = regions;
+        ByteBuffer zeros = ByteBuffer.allocate(64 * 1024);
+        for (long pos = end; pos < (long) rs.length * REGION_SIZE; ) {
+            MappedByteBuffer buf = rs[(int) (pos / REGION_SIZE)];
+            int within = (int) (pos % REGION_SIZE);
+            int n = Math.min(zeros.capacity(), REGION_SIZE - within);
+            ByteBuffer zero = zeros.slice(0, n);
+            if (buf.slice(within, n).mismatch(zero) >= 0) buf.put(within, zero, 0, n);
+            pos += n;
+        }
+    }
+}
@@ -0,0 +1,551 @@
+package com.motorph.inventory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// InventoryRepository on a memory-mapped, append-only log (MappedLog) instead of SQLite.
+//
+// Every insert/update appends the full row; a delete appends a tombstone. An in-memory
+// EngineNumberIndex maps engine number -> offset of the latest row, so a lookup is one index
+// probe plus one read from the mapping, and ordered listings walk the index. The index is
+// rebuilt by scanning the log at startup. It is keyed by primitive long, so engine numbers
+// must be exactly 10 digits here, as every entry point already requires.
+//
+// Superseded rows and tombstones are dead space. compact() copies the live rows into a
+// fresh log and swaps it in; it runs in the background once at least half the file is dead
+// (see startCompaction). Writers wait only for the short final step that replays rows
+// appended during the copy.
+//
+// Each compaction writes a new generation: generation 0 is the file at `path`, generation
+// n is `path.n`, and `path.gen` names the current one. A mapped file cannot be replaced or
+// deleted on Windows, and Java offers no way to unmap one that readers may still be using,
+// so nothing is renamed over a log: the new file is forced, `path.gen` is atomically
+// replaced, and the directory is synced. Old generations are deleted when the OS allows,
+// and otherwise on the next start, along with any half-written one.
+//
+// Writes reach the OS page cache immediately, so a killed process loses nothing. With
+// syncWrites, each write is also forced to disk before it returns, which also covers power loss.
+// One instance per file.
+public final class MappedLogInventoryRepository implements InventoryRepository, AutoCloseable {
+
+    public record Stats(int records, long fileBytes, long deadBytes, long compactions) {}
+
+    static final double COMPACT_DEAD_RATIO = 0.5;
+    static final long COMPACT_MIN_BYTES = 1 << 20;
+    private static final byte PUT = 1;
+    private static final byte TOMBSTONE = 2;
+
+    // Log and index are swapped together by compaction; readers take one consistent pair.
+    private record State(MappedLog log, EngineNumberIndex index) {}
+
+    private final Path path;
+    private final boolean syncWrites;
+    private long generation;      // current; guarded by compactLock once open
+    private long lastGeneration;  // highest number handed to a compaction, failed ones included
+    private volatile State state;
+    private final OperationMetrics compactMetrics = Metrics.operation("mmap.compact");
+
+    // Serializes appends and guards the counters below.
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final ReentrantLock compactLock = new ReentrantLock();
+    private long deadBytes;
+    private long compactions;
+    private boolean closed;
+    private ByteBuffer scratch = ByteBuffer.allocate(256);
+    private ScheduledExecutorService compactor;
+
+    public MappedLogInventoryRepository(Path path, boolean syncWrites) throws IOException {
+        this.path = path;
+        this.syncWrites = syncWrites;
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) Files.createDirectories(parent);
+        generation = readGeneration();
+        deleteOtherGenerations();
+        MappedLog log = MappedLog.open(logFile(generation));
+        EngineNumberIndex index = new EngineNumberIndex();
+        try {
+            log.recover((offset, payload) -> {
+                byte type = payload.get(0);
+                String key = engineNumber(payload);
+                long prev = type == PUT ? index.put(key, offset) : index.remove(key);
+                if (prev != EngineNumberIndex.ABSENT) deadBytes += log.recordLength(prev);
+                if (type == TOMBSTONE) deadBytes += log.recordLength(offset);
+            });
+        } catch (IOException | RuntimeException e) {
+            log.discard();
+            throw e;
+        }
+        state = new State(log, index);
+    }
+
+    // -Dmotorph.mmap.path (default: "inventory.log" next to the database file),
+    // -Dmotorph.mmap.sync=true to force every write to disk.
+    public static MappedLogInventoryRepository fromSystemProperties() throws IOException {
+        String configured = System.getProperty("motorph.mmap.path");
+        Path p = configured != null
+                ? Paths.get(configured)
+                : Paths.get(DB.getProfile().getPath()).toAbsolutePath().resolveSibling("inventory.log");
+        return new MappedLogInventoryRepository(p, Boolean.getBoolean("motorph.mmap.sync"));
+    }
+
+    // ---- reads ----
+
+    @Override
+    public InventoryData findByEngineNumber(String engineNumber) {
+        State s = state;
+        long offset = s.index.get(engineNumber);
+        return offset != EngineNumberIndex.ABSENT ? decode(s.log.read(offset)) : null;
+    }
+
+    @Override
+    public List<InventoryData> findAllSortedByEngineNumber() {
+        State s = state;
+        long[] offsets = s.index.valuesInOrder();
+        List<InventoryData> out = new ArrayList<>(offsets.length);
+        for (long offset : offsets) out.add(decode(s.log.read(offset)));
+        return out;
+    }
+
+    @Override
+    public List<InventoryData> findPage(String afterEngineNumber, int limit) {
+        State s = state;
+        long[] offsets = s.index.valuesAfter(afterEngineNumber, limit);
+        List<InventoryData> out = new ArrayList<>(offsets.length);
+        for (long offset : offsets) out.add(decode(s.log.read(offset)));
+        return out;
+    }
+
+    @Override
+    public void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) {
+        State s = state;
+        for (long offset : s.index.valuesInOrder()) action.accept(decode(s.log.read(offset)));
+    }
+
+    // ---- writes ----
+
+    // A duplicate key fails with SQLException, as it does for the SQLite-backed stores.
+    @Override
+    public void insert(InventoryData d) throws IOException, SQLException {
+        requireFields(d);
+        if (!EngineNumbers.isValid(d.getEngineNumber())) {
+            throw new IllegalArgumentException("Invalid engine number format: " + d.getEngineNumber());
+        }
+        writeLock.lock();
+        try {
+            State s = open();
+            if (s.index.containsKey(d.getEngineNumber())) {
+                throw new SQLException("Duplicate engine number: " + d.getEngineNumber());
+            }
+            s.index.put(d.getEngineNumber(), appendPut(s.log, d));
+            if (syncWrites) s.log.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void update(InventoryData d) throws IOException {
+        requireFields(d);
+        writeLock.lock();
+        try {
+            State s = open();
+            long prev = s.index.get(d.getEngineNumber());
+            if (prev == EngineNumberIndex.ABSENT) return;   // like UPDATE ... WHERE: no row, no change
+            s.index.put(d.getEngineNumber(), appendPut(s.log, d));
+            deadBytes += s.log.recordLength(prev);
+            if (syncWrites) s.log.force();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteByEngineNumber(String engineNumber) throws IOException {
+        writeLock.lock();
+        try {
+            State s = open();
+            long prev = s.index.get(engineNumber);
+            if (prev == EngineNumberIndex.ABSENT) return;
+            removeLocked(s, engineNumber, prev);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Check and tombstone under the write lock, so two sellers cannot both succeed. The audit
+    // row goes to SQLite after the tombstone is in the log.
+    @Override
+    public SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+        SellResult r;
+        writeLock.lock();
+        try {
+            State s = open();
+            long prev = s.index.get(engineNumber);
+            if (prev == EngineNumberIndex.ABSENT) return SellResult.notFound();
+            InventoryData stored = decode(s.log.read(prev));
+            if (!expectedStatus.equalsIgnoreCase(stored.getStatus())) return SellResult.wrongStatus(stored);
+            removeLocked(s, engineNumber, prev);
+            r = SellResult.sold(stored);
+        } finally {
+            writeLock.unlock();
+        }
+        AuditLogger.insertBatch(List.of(SellResult.auditEvent(r.record(), user, details)));
+        return r;
+    }
+
+    // Caller holds writeLock.
+    private void removeLocked(State s, String engineNumber, long prev) throws IOException {
+        long tomb = appendTombstone(s.log, engineNumber);
+        s.index.remove(engineNumber);
+        deadBytes += s.log.recordLength(prev) + s.log.recordLength(tomb);
+        if (syncWrites) s.log.force();
+    }
+
+    @Override
+    public BulkInsertResult insertAll(Iterable<InventoryData> rows) throws IOException {
+        BulkInsertResult result = new BulkInsertResult();
+        int inserted = 0;
+        long pos = -1;
+        writeLock.lock();
+        try {
+            State s = open();
+            for (InventoryData d : rows) {
+                pos++;
+                if (d.getEngineNumber() == null || d.getBrand() == null
+                        || d.getStatus() == null || d.getLevel() == null) {
+                    result.reject(pos, d.getEngineNumber(), "Missing required field");
+                    continue;
+                }
+                if (!EngineNumbers.isValid(d.getEngineNumber())) {
+                    result.reject(pos, d.getEngineNumber(), "Invalid engine number format");
+                    continue;
+                }
+                if (s.index.containsKey(d.getEngineNumber())) {
+                    result.reject(pos, d.getEngineNumber(), "Duplicate engine number");
+                    continue;
+                }
+                s.index.put(d.getEngineNumber(), appendPut(s.log, d));
+                inserted++;
+            }
+            if (syncWrites) s.log.force();
+        } finally {
+            writeLock.unlock();
+        }
+        result.addInserted(inserted);
+        return result;
+    }
+
+    // ---- compaction ----
+
+    // Compacts when at least half of a file of 1 MB or more is dead. Returns whether it ran.
+    public boolean compactIfNeeded() throws IOException {
+        long size, dead;
+        writeLock.lock();
+        try {
+            size = state.log.size();
+            dead = deadBytes;
+        } finally {
+            writeLock.unlock();
+        }
+        if (size < COMPACT_MIN_BYTES || dead < size * COMPACT_DEAD_RATIO) return false;
+        compact();
+        return true;
+    }
+
+    // Rewrites the live rows into a new log and swaps it in. Readers keep going on the old
+    // mapping; writers are held only while the rows appended during the copy are replayed.
+    public void compact() throws IOException {
+        compactLock.lock();
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            State old;
+            long mark;
+            writeLock.lock();
+            try {
+                old = open();
+                mark = old.log.size();
+            } finally {
+                writeLock.unlock();
+            }
+
+            // a failed attempt's file may still be mapped, so its number is not reused
+            long next = lastGeneration = Math.max(generation, lastGeneration) + 1;
+            Path file = logFile(next);
+            Files.deleteIfExists(file);
+            MappedLog fresh = MappedLog.open(file);
+            fresh.recover((offset, payload) -> { });
+            EngineNumberIndex index = new EngineNumberIndex(old.index.size());
+            byte[] copy = new byte[256];
+            try {
+                // rows at or past the mark changed during the copy; the replay below takes them
+                for (long offset : old.index.valuesInOrder()) {
+                    if (offset >= mark) continue;
+                    ByteBuffer payload = old.log.read(offset);
+                    copy = copyRecord(payload, copy);
+                    index.put(engineNumber(payload), fresh.append(copy, old.log.recordLength(offset) - 8));
+                }
+
+                writeLock.lock();
+                try {
+                    long[] dead = {0};
+                    old.log.scan(mark, (offset, payload) -> {
+                        String key = engineNumber(payload);
+                        if (payload.get(0) == PUT) {
+                            byte[] b = copyRecord(payload, new byte[payload.remaining()]);
+                            long prev = index.put(key, fresh.append(b, b.length));
+                            if (prev != EngineNumberIndex.ABSENT) dead[0] += fresh.recordLength(prev);
+                        } else {
+                            long prev = index.remove(key);
+                            if (prev != EngineNumberIndex.ABSENT) {
+                                // the row was copied above, so the new log needs its tombstone too
+                                byte[] b = copyRecord(payload, new byte[payload.remaining()]);
+                                long tomb = fresh.append(b, b.length);
+                                dead[0] += fresh.recordLength(prev) + fresh.recordLength(tomb);
+                            }
+                        }
+                    });
+                    fresh.force();
+                    syncDirectory();
+                    writeGeneration(next);   // the commit point
+                    state = new State(fresh, index);
+                    deadBytes = dead[0];
+                    compactions++;
+                } finally {
+                    writeLock.unlock();
+                }
+            } catch (IOException | RuntimeException e) {
+                fresh.discard();
+                deleteQuietly(file);
+                throw e;
+            }
+            old.log.discard();
+            deleteQuietly(logFile(generation));
+            generation = next;
+            ok = true;
+        } finally {
+            compactMetrics.recordSince(t0, ok);
+            compactLock.unlock();
+        }
+    }
+
+    // Runs compactIfNeeded() every periodSeconds on a daemon thread.
+    public synchronized void startCompaction(long periodSeconds) {
+        if (compactor != null) return;
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "mmap-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(() -> {
+            try {
+                compactIfNeeded();
+            } catch (Exception e) {
+                System.err.println("[mmap] compaction failed: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            }
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public Stats getStats() {
+        writeLock.lock();
+        try {
+            return new Stats(state.index.size(), state.log.size(), deadBytes, compactions);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        ScheduledExecutorService c;
+        synchronized (this) {
+            c = compactor;
+            compactor = null;
+        }
+        if (c != null) {
+            c.shutdown();
+            try {
+                c.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        compactLock.lock();
+        writeLock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            state.log.close();
+        } finally {
+            writeLock.unlock();
+            compactLock.unlock();
+        }
+    }
+
+    // ---- encoding ----
+    // PUT:       [byte 1][short len][engine][long dateMillis][short len][brand][short len][status][short len][level]
+    // TOMBSTONE: [byte 2][short len][engine]
+    // Strings are UTF-8 with an unsigned 16-bit length.
+
+    // Caller holds writeLock.
+    private long appendPut(MappedLog log, InventoryData d) throws IOException {
+        long entered = d.dateEnteredMillis();
+        ByteBuffer b = scratch(d.getEngineNumber(), d.getBrand(), d.getStatus(), d.getLevel());
+        b.put(PUT);
+        putString(b, d.getEngineNumber());
+        b.putLong(entered != InventoryData.NO_DATE ? entered : System.currentTimeMillis());
+        putString(b, d.getBrand());
+        putString(b, d.getStatus());
+        putString(b, d.getLevel());
+        return log.append(b.array(), b.position());
+    }
+
+    // Caller holds writeLock.
+    private long appendTombstone(MappedLog log, String engineNumber) throws IOException {
+        ByteBuffer b = scratch(engineNumber);
+        b.put(TOMBSTONE);
+        putString(b, engineNumber);
+        return log.append(b.array(), b.position());
+    }
+
+    private ByteBuffer scratch(String... fields) {
+        int need = 1 + 8;
+        for (String f : fields) need += 2 + 3 * f.length();   // UTF-8 worst case for the BMP
+        if (scratch.capacity() < need) scratch = ByteBuffer.allocate(Math.max(need, scratch.capacity() * 2));
+        return scratch.clear();
+    }
+
+    private static void putString(ByteBuffer b, String s) {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IllegalArgumentException("field too long: " + bytes.length + " bytes");
+        b.putShort((short) bytes.length);
+        b.put(bytes);
+    }
+
+    private static InventoryData decode(ByteBuffer p) {
+        p.position(1);
+        String engine = getString(p);
+        long entered = p.getLong();
+        return new InventoryData(getString(p), engine, entered, getString(p), getString(p));
+    }
+
+    private static String engineNumber(ByteBuffer payload) {
+        ByteBuffer p = payload.duplicate().position(1);
+        return getString(p);
+    }
+
+    private static String getString(ByteBuffer p) {
+        int len = Short.toUnsignedInt(p.getShort());
+        byte[] bytes = new byte[len];
+        p.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static byte[] copyRecord(ByteBuffer payload, byte[] into) {
+        ByteBuffer p = payload.duplicate();
+        if (into.length < p.remaining()) into = new byte[p.remaining()];
+        p.get(into, 0, p.remaining());
+        return into;
+    }
+
+    private static void requireFields(InventoryData d) {
+        if (d.getEngineNumber() == null || d.getBrand() == null || d.getStatus() == null || d.getLevel() == null) {
+            throw new IllegalArgumentException("Missing required field");
+        }
+    }
+
+    private State open() {
+        if (closed) throw new IllegalStateException("repository is closed");
+        return state;
+    }
+
+    // ---- generations ----
+
+    private Path logFile(long gen) {
+        return gen == 0 ? path : path.resolveSibling(path.getFileName() + "." + gen);
+    }
+
+    private Path generationFile() {
+        return path.resolveSibling(path.getFileName() + ".gen");
+    }
+
+    private long readGeneration() throws IOException {
+        Path f = generationFile();
+        if (!Files.exists(f)) return 0;
+        String text = Files.readString(f, StandardCharsets.US_ASCII).trim();
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IOException("Corrupt " + f + ": '" + text + "'", e);
+        }
+    }
+
+    // Written to a side file, forced, then renamed over the old one, so a crash leaves
+    // either the old or the new generation current.
+    private void writeGeneration(long gen) throws IOException {
+        Path f = generationFile();
+        Path tmp = f.resolveSibling(f.getFileName() + ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ch.write(ByteBuffer.wrap((gen + "\n").getBytes(StandardCharsets.US_ASCII)));
+            ch.force(true);
+        }
+        Files.move(tmp, f, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        syncDirectory();
+    }
+
+    // Removes logs of other generations: superseded ones that were still mapped when they
+    // were replaced, and one left half-written by a compaction that died.
+    private void deleteOtherGenerations() throws IOException {
+        String base = path.getFileName() + ".";
+        Path dir = path.toAbsolutePath().getParent();
+        Files.deleteIfExists(generationFile().resolveSibling(generationFile().getFileName() + ".tmp"));
+        if (generation != 0) Files.deleteIfExists(path);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, path.getFileName() + ".*")) {
+            for (Path f : files) {
+                String suffix = f.getFileName().toString().substring(base.length());
+                if (!suffix.isEmpty() && suffix.chars().allMatch(Character::isDigit)
+                        && Long.parseLong(suffix) != generation) {
+                    Files.delete(f);
+                }
+            }
+        }
+    }
+
+    // Makes new files and renames in the directory durable. Windows cannot open a directory
+    // as a channel; there the rename is left to the file system.
+    private void syncDirectory() {
+        Path dir = path.toAbsolutePath().getParent();
+        if (dir == null) return;
+        try (FileChannel ch = FileChannel.open(dir, StandardOpenOption.READ)) {
+            ch.force(true);
+        } catch (IOException e) {
+            // not supported on this platform
+        }
+    }
+
+    // A log that is still mapped by a reader cannot be deleted on Windows; the next start does it.
+    private static void deleteQuietly(Path f) {
+        try {
+            Files.deleteIfExists(f);
+        } catch (IOException e) {
+            // retried by deleteOtherGenerations()
+        }
+    }
+}
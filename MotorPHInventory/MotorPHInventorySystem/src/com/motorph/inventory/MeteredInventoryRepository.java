@@ -0,0 +1,184 @@
+package com.motorph.inventory;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+// Records count, errors and latency for every call to the wrapped repository
+// under "<prefix>.<method>" in Metrics.
+public class MeteredInventoryRepository implements InventoryRepository {
+    private final InventoryRepository delegate;
+    private final OperationMetrics insert;
+    private final OperationMetrics find;
+    private final OperationMetrics update;
+    private final OperationMetrics delete;
+    private final OperationMetrics findAll;
+    private final OperationMetrics findPage;
+    private final OperationMetrics forEach;
+    private final OperationMetrics insertAll;
+    private final OperationMetrics query;
+    private final OperationMetrics count;
+    private final OperationMetrics sell;
+
+    public MeteredInventoryRepository(InventoryRepository delegate, String prefix) {
+        this.delegate = delegate;
+        this.insert = Metrics.operation(prefix + ".insert");
+        this.find = Metrics.operation(prefix + ".findByEngineNumber");
+        this.update = Metrics.operation(prefix + ".update");
+        this.delete = Metrics.operation(prefix + ".deleteByEngineNumber");
+        this.findAll = Metrics.operation(prefix + ".findAllSortedByEngineNumber");
+        this.findPage = Metrics.operation(prefix + ".findPage");
+        this.forEach = Metrics.operation(prefix + ".forEachSortedByEngineNumber");
+        this.insertAll = Metrics.operation(prefix + ".insertAll");
+        this.query = Metrics.operation(prefix + ".forEachMatching");
+        this.count = Metrics.operation(prefix + ".count");
+        this.sell = Metrics.operation(prefix + ".sell");
+    }
+
+    @Override
+    public void insert(InventoryData d) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.insert(d);
+            ok = true;
+        } finally {
+            insert.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public InventoryData findByEngineNumber(String engineNumber) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            InventoryData d = delegate.findByEngineNumber(engineNumber);
+            ok = true;
+            return d;
+        } finally {
+            find.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public void update(InventoryData d) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.update(d);
+            ok = true;
+        } finally {
+            update.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public void deleteByEngineNumber(String engineNumber) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.deleteByEngineNumber(engineNumber);
+            ok = true;
+        } finally {
+            delete.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            SellResult r = delegate.sell(engineNumber, expectedStatus, user, details);
+            ok = true;
+            return r;
+        } finally {
+            sell.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public List<InventoryData> findAllSortedByEngineNumber() throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<InventoryData> all = delegate.findAllSortedByEngineNumber();
+            ok = true;
+            return all;
+        } finally {
+            findAll.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public List<InventoryData> findPage(String afterEngineNumber, int limit) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            List<InventoryData> page = delegate.findPage(afterEngineNumber, limit);
+            ok = true;
+            return page;
+        } finally {
+            findPage.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.forEachSortedByEngineNumber(action);
+            ok = true;
+        } finally {
+            forEach.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public BulkInsertResult insertAll(Iterable<InventoryData> rows) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            BulkInsertResult r = delegate.insertAll(rows);
+            ok = true;
+            return r;
+        } finally {
+            insertAll.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public void forEachMatching(InventoryQuery q, Consumer<? super InventoryData> action) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            delegate.forEachMatching(q, action);
+            ok = true;
+        } finally {
+            query.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public long count(InventoryQuery q) throws Exception {
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            long n = delegate.count(q);
+            ok = true;
+            return n;
+        } finally {
+            count.recordSince(t0, ok);
+        }
+    }
+
+    @Override
+    public boolean usesInventoryTable() {
+        return delegate.usesInventoryTable();
+    }
+
+    @Override
+    public void syncInventoryTable() throws Exception {
+        delegate.syncInventoryTable();
+    }
+}
@@ -0,0 +1,82 @@
+package com.motorph.inventory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Process-wide registry of OperationMetrics. Each operation is also registered as an MBean
+// under com.motorph.inventory:type=Operation,name=<operation>, so jconsole/VisualVM can read it.
+public final class Metrics {
+    private static final ConcurrentHashMap<String, OperationMetrics> OPS = new ConcurrentHashMap<>();
+    private static ScheduledExecutorService reporter;
+
+    public static OperationMetrics operation(String name) {
+        OperationMetrics m = OPS.get(name);
+        return m != null ? m : OPS.computeIfAbsent(name, Metrics::create);
+    }
+
+    public static Map<String, OperationMetrics> snapshot() {
+        return new TreeMap<>(OPS);
+    }
+
+    public static void resetAll() {
+        for (OperationMetrics m : OPS.values()) m.reset();
+    }
+
+    // Text table of every operation seen so far, sorted by name.
+    public static String dump() {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(String.format("%-34s %9s %6s %10s %10s %10s %10s %10s%n",
+                "operation", "count", "errors", "mean(us)", "p50(us)", "p99(us)", "p99.9(us)", "max(us)"));
+        for (OperationMetrics m : snapshot().values()) {
+            if (m.getCount() == 0) continue;
+            sb.append(String.format("%-34s %9d %6d %10.1f %10.1f %10.1f %10.1f %10.1f%n",
+                    m.getName(), m.getCount(), m.getErrorCount(), m.getMeanMicros(),
+                    m.getP50Micros(), m.getP99Micros(), m.getP999Micros(), m.getMaxMicros()));
+        }
+        return sb.toString();
+    }
+
+    // Writes dump() to out every periodSeconds on a daemon thread. Calling again replaces the schedule.
+    public static synchronized void startReporter(PrintStream out, long periodSeconds) {
+        stopReporter();
+        reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        SimpleDateFormat fmt = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        reporter.scheduleAtFixedRate(() -> out.print("\n--- Metrics @ " + fmt.format(new Date()) + " ---\n" + dump()),
+                periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void stopReporter() {
+        if (reporter != null) {
+            reporter.shutdownNow();
+            reporter = null;
+        }
+    }
+
+    private static OperationMetrics create(String name) {
+        OperationMetrics m = new OperationMetrics(name);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName on = new ObjectName("com.motorph.inventory:type=Operation,name=" + ObjectName.quote(name));
+            if (!server.isRegistered(on)) server.registerMBean(m, on);
+        } catch (Exception e) {
+            System.err.println("[metrics] JMX registration failed for " + name + ": " + e.getMessage());
+        }
+        return m;
+    }
+
+    private Metrics() {}
+}
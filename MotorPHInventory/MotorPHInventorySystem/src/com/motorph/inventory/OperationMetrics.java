@@ -0,0 +1,77 @@
+package com.motorph.inventory;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Call counter, error counter and latency histogram for one named operation.
+// Typical use:
+//     long t0 = System.nanoTime();
+//     boolean ok = false;
+//     try { ...; ok = true; } finally { metrics.recordSince(t0, ok); }
+public final class OperationMetrics implements OperationMetricsMBean {
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    OperationMetrics(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void recordSince(long startNanos, boolean ok) {
+        latency.record(System.nanoTime() - startNanos);
+        if (!ok) errors.increment();
+    }
+
+    public LatencyHistogram getHistogram() {
+        return latency;
+    }
+
+    @Override
+    public long getCount() {
+        return latency.getCount();
+    }
+
+    @Override
+    public long getErrorCount() {
+        return errors.sum();
+    }
+
+    @Override
+    public double getMeanMicros() {
+        return latency.getMeanNanos() / 1_000.0;
+    }
+
+    @Override
+    public double getP50Micros() {
+        return latency.getPercentileNanos(50) / 1_000.0;
+    }
+
+    @Override
+    public double getP90Micros() {
+        return latency.getPercentileNanos(90) / 1_000.0;
+    }
+
+    @Override
+    public double getP99Micros() {
+        return latency.getPercentileNanos(99) / 1_000.0;
+    }
+
+    @Override
+    public double getP999Micros() {
+        return latency.getPercentileNanos(99.9) / 1_000.0;
+    }
+
+    @Override
+    public double getMaxMicros() {
+        return latency.getMaxNanos() / 1_000.0;
+    }
+
+    @Override
+    public void reset() {
+        latency.reset();
+        errors.reset();
+    }
+}
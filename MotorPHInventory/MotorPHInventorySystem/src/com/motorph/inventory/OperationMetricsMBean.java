@@ -0,0 +1,14 @@
+package com.motorph.inventory;
+
+// JMX view of one instrumented operation. Latencies are in microseconds.
+public interface OperationMetricsMBean {
+    long getCount();
+    long getErrorCount();
+    double getMeanMicros();
+    double getP50Micros();
+    double getP90Micros();
+    double getP99Micros();
+    double getP999Micros();
+    double getMaxMicros();
+    void reset();
+}
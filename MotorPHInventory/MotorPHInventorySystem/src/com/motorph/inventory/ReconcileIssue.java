@@ -0,0 +1,13 @@
+package com.motorph.inventory;
+
+// One rule violation found during reconciliation; value is the offending field where relevant.
+public record ReconcileIssue(String engineNumber, ReconcileRule rule, String value) {
+
+    @Override
+    public String toString() {
+        return switch (rule) {
+            case INVALID_STATUS, INVALID_LEVEL -> engineNumber + " -> " + rule.getDescription() + " '" + value + "'";
+            default -> engineNumber + " -> " + rule.getDescription();
+        };
+    }
+}
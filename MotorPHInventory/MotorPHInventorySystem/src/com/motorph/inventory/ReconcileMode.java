@@ -0,0 +1,38 @@
+package com.motorph.inventory;
+
+import java.util.function.Consumer;
+
+// Where reconciliation rules are evaluated.
+public enum ReconcileMode {
+    SCAN,           // stream rows from the repository and validate them in Java
+    PUSHDOWN,       // compile the rules to SQL and let SQLite return only offending rows
+    INCREMENTAL,    // re-check rows changed since the last run; keep the issue set in the DB
+    RESCAN;         // re-check every row and rebuild the stored issue set
+
+    // The mode used when none is asked for: incremental when repo keeps its rows in the
+    // inventory table, otherwise a scan through the repository.
+    public static ReconcileMode defaultFor(InventoryRepository repo) {
+        return repo.usesInventoryTable() ? INCREMENTAL : SCAN;
+    }
+
+    // SCAN works on any repository; the others read the inventory table directly.
+    public boolean supports(InventoryRepository repo) {
+        return this == SCAN || repo.usesInventoryTable();
+    }
+
+    // SCAN reads through repo; the other modes read the database directly, after letting
+    // repo bring the table up to date.
+    public ReconcileResult run(InventoryRepository repo, Consumer<? super ReconcileIssue> sink) throws Exception {
+        if (!supports(repo)) {
+            throw new IllegalArgumentException(name().toLowerCase() + " reconciliation reads the inventory table, "
+                    + "which this repository does not use; use scan");
+        }
+        if (this != SCAN) repo.syncInventoryTable();
+        return switch (this) {
+            case SCAN -> new Reconciler().run(repo, sink);
+            case PUSHDOWN -> new SqlReconciler().run(sink);
+            case INCREMENTAL -> new IncrementalReconciler().run(sink);
+            case RESCAN -> new IncrementalReconciler().rescan(sink);
+        };
+    }
+}
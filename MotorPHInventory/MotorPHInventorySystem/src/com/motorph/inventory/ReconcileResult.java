@@ -0,0 +1,46 @@
+package com.motorph.inventory;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+// Summary of a reconciliation run: rows scanned and issue counts per rule.
+public final class ReconcileResult {
+    private final long scanned;
+    private final long[] counts;
+    private final long elapsedMillis;
+
+    ReconcileResult(long scanned, long[] counts, long elapsedMillis) {
+        this.scanned = scanned;
+        this.counts = counts.clone();
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getScanned() {
+        return scanned;
+    }
+
+    public long getCount(ReconcileRule rule) {
+        return counts[rule.ordinal()];
+    }
+
+    public long getTotalIssues() {
+        long total = 0;
+        for (long c : counts) total += c;
+        return total;
+    }
+
+    public Map<ReconcileRule, Long> getCountsByRule() {
+        Map<ReconcileRule, Long> out = new EnumMap<>(ReconcileRule.class);
+        for (ReconcileRule r : ReconcileRule.values()) out.put(r, counts[r.ordinal()]);
+        return out;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "scanned=" + scanned + ", issues=" + getTotalIssues();
+    }
+}
@@ -0,0 +1,22 @@
+package com.motorph.inventory;
+
+// Business rules checked by reconciliation.
+public enum ReconcileRule {
+    INVALID_ENGINE_NUMBER("invalid engine number format"),
+    MISSING_BRAND("missing brand"),
+    MISSING_DATE_ENTERED("missing date_entered"),
+    INVALID_STATUS("invalid status"),
+    INVALID_LEVEL("invalid level"),
+    ON_HAND_SOLD("inconsistent: On-hand cannot be Sold"),
+    OLD_NEW("inconsistent: Old cannot be New");
+
+    private final String description;
+
+    ReconcileRule(String description) {
+        this.description = description;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+}
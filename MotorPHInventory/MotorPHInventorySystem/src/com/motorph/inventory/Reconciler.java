@@ -0,0 +1,134 @@
+package com.motorph.inventory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+
+// Reconciliation pipeline: the repository cursor is cut into fixed-size columnar chunks
+// (InventoryColumns), chunks are validated in parallel on a fork-join pool, and issues are
+// handed to the sink in engine-number order as each chunk completes. At most `window`
+// chunks are in flight, so memory stays bounded no matter how big the table or how many
+// issues it has.
+public class Reconciler {
+
+    static final int DEFAULT_CHUNK_SIZE = 2_000;
+
+    private final int chunkSize;
+    private final int window;
+    private final Executor executor;
+
+    public Reconciler() {
+        this(DEFAULT_CHUNK_SIZE, ForkJoinPool.commonPool().getParallelism() * 2, ForkJoinPool.commonPool());
+    }
+
+    Reconciler(int chunkSize, int window, Executor executor) {
+        this.chunkSize = chunkSize;
+        this.window = Math.max(1, window);
+        this.executor = executor;
+    }
+
+    public ReconcileResult run(InventoryRepository repo, Consumer<? super ReconcileIssue> sink) throws Exception {
+        long start = System.currentTimeMillis();
+        Pipeline p = new Pipeline(sink);
+        repo.forEachSortedByEngineNumber(p::accept);
+        p.finish();
+        return new ReconcileResult(p.scanned, p.counts, System.currentTimeMillis() - start);
+    }
+
+    // Checks one row of a chunk; allocation happens only when a rule is violated. The engine
+    // number string is only built for an issue, and the status/level comparisons hit the
+    // shared canonical strings, so they are mostly identity checks.
+    static void check(InventoryColumns rows, int i, long[] counts, List<ReconcileIssue> out) {
+        String brand = rows.brand(i);
+        String status = rows.status(i);
+        String level = rows.level(i);
+
+        if (!rows.hasValidEngineNumber(i)) {
+            String eng = rows.engineNumber(i);
+            add(out, counts, eng, ReconcileRule.INVALID_ENGINE_NUMBER, eng);
+        }
+        if (brand == null || brand.isBlank()) add(out, counts, rows, i, ReconcileRule.MISSING_BRAND, brand);
+        if (!rows.hasDateEntered(i)) add(out, counts, rows, i, ReconcileRule.MISSING_DATE_ENTERED, null);
+        if (!isAllowedStatus(status)) add(out, counts, rows, i, ReconcileRule.INVALID_STATUS, status);
+        if (!isAllowedLevel(level)) add(out, counts, rows, i, ReconcileRule.INVALID_LEVEL, level);
+        if ("On-hand".equalsIgnoreCase(status) && "Sold".equalsIgnoreCase(level)) {
+            add(out, counts, rows, i, ReconcileRule.ON_HAND_SOLD, null);
+        }
+        if ("Old".equalsIgnoreCase(status) && "New".equalsIgnoreCase(level)) {
+            add(out, counts, rows, i, ReconcileRule.OLD_NEW, null);
+        }
+    }
+
+    static boolean isAllowedStatus(String s) {
+        return "On-hand".equals(s) || "Old".equals(s);
+    }
+
+    static boolean isAllowedLevel(String s) {
+        return "New".equals(s) || "Sold".equals(s);
+    }
+
+    private static void add(List<ReconcileIssue> out, long[] counts, InventoryColumns rows, int i,
+                            ReconcileRule rule, String value) {
+        add(out, counts, rows.engineNumber(i), rule, value);
+    }
+
+    private static void add(List<ReconcileIssue> out, long[] counts, String eng, ReconcileRule rule, String value) {
+        counts[rule.ordinal()]++;
+        out.add(new ReconcileIssue(eng, rule, value));
+    }
+
+    private record ChunkResult(int scanned, long[] counts, List<ReconcileIssue> issues) {}
+
+    // Runs on the scanning thread: batches rows, keeps the in-flight window, merges results.
+    private final class Pipeline {
+        final long[] counts = new long[ReconcileRule.values().length];
+        long scanned;
+        private final Consumer<? super ReconcileIssue> sink;
+        private final ArrayDeque<CompletableFuture<ChunkResult>> inFlight = new ArrayDeque<>();
+        private InventoryColumns chunk = new InventoryColumns(chunkSize);
+
+        Pipeline(Consumer<? super ReconcileIssue> sink) {
+            this.sink = sink;
+        }
+
+        void accept(InventoryData d) {
+            chunk.add(d);
+            if (chunk.size() == chunkSize) {
+                submit(chunk);
+                chunk = new InventoryColumns(chunkSize);
+                while (inFlight.size() >= window) drain(inFlight.poll());
+            }
+        }
+
+        void finish() {
+            if (chunk.size() > 0) submit(chunk);
+            while (!inFlight.isEmpty()) drain(inFlight.poll());
+        }
+
+        private void submit(InventoryColumns rows) {
+            inFlight.add(CompletableFuture.supplyAsync(() -> {
+                long[] c = new long[ReconcileRule.values().length];
+                List<ReconcileIssue> issues = new ArrayList<>();
+                for (int i = 0; i < rows.size(); i++) check(rows, i, c, issues);
+                return new ChunkResult(rows.size(), c, issues);
+            }, executor));
+        }
+
+        private void drain(CompletableFuture<ChunkResult> f) {
+            ChunkResult r;
+            try {
+                r = f.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException re ? re : e;
+            }
+            scanned += r.scanned();
+            for (int i = 0; i < counts.length; i++) counts[i] += r.counts()[i];
+            for (ReconcileIssue issue : r.issues()) sink.accept(issue);
+        }
+    }
+}
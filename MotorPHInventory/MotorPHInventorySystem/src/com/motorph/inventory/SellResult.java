@@ -0,0 +1,31 @@
+package com.motorph.inventory;
+
+// Outcome of InventoryRepository.sell. record is the sold record (status Old, level Sold)
+// for SOLD, the unchanged stored record for WRONG_STATUS, and null for NOT_FOUND.
+public record SellResult(Outcome outcome, InventoryData record) {
+
+    public enum Outcome { SOLD, NOT_FOUND, WRONG_STATUS }
+
+    public boolean sold() {
+        return outcome == Outcome.SOLD;
+    }
+
+    static SellResult sold(InventoryData stored) {
+        return new SellResult(Outcome.SOLD,
+                stored.withStatusAndLevel(InventoryData.Status.OLD, InventoryData.Level.SOLD));
+    }
+
+    // The audit row a successful sale writes.
+    static AuditEvent auditEvent(InventoryData sold, String user, String details) {
+        return new AuditEvent(System.currentTimeMillis(), user, "DELETE", sold.getEngineNumber(),
+                sold.getStatus(), sold.getLevel(), "SUCCESS", details);
+    }
+
+    static SellResult notFound() {
+        return new SellResult(Outcome.NOT_FOUND, null);
+    }
+
+    static SellResult wrongStatus(InventoryData stored) {
+        return new SellResult(Outcome.WRONG_STATUS, stored);
+    }
+}
@@ -0,0 +1,599 @@
+package com.motorph.inventory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+// Whole inventory held in an InventoryBST; every read is answered from memory.
+//
+// Writes update the tree at once and are queued for SQLite (write-behind). The queue keeps
+// only the latest state per engine number and is committed in one transaction once
+// batchSize keys are pending or the oldest change is maxLagMillis old. When the database
+// falls behind by more than MAX_PENDING_BATCHES batches, writers wait, so the lag stays bounded.
+//
+// Crash recovery: every change is appended to a journal file (flushed to the OS before the
+// call returns) and the journal is rotated at each batch. A journal is deleted only after its
+// batch commits. On startup, leftover journals are replayed into SQLite before the table is
+// loaded. A killed process therefore loses no acknowledged write; only an OS crash or power
+// loss can drop the last few changes still in the page cache.
+//
+// Only one instance may run against a database, and nothing else may write the inventory
+// table meanwhile. verify() compares memory with the table row by row.
+public final class SnapshotInventoryRepository implements InventoryRepository, AutoCloseable {
+
+    public record Stats(int pending, long flushedRows, long batches, long failures, long lagMillis) {}
+
+    public record ConsistencyReport(long memoryRows, long databaseRows, long mismatches, List<String> samples) {
+        public boolean isConsistent() {
+            return mismatches == 0;
+        }
+    }
+
+    static final int DEFAULT_BATCH_SIZE = 500;
+    static final long DEFAULT_MAX_LAG_MILLIS = 200;
+    private static final int MAX_PENDING_BATCHES = 8;
+    private static final int INSERT_ALL_CHUNK = 1_000;
+    private static final int MAX_SAMPLES = 20;
+    private static final byte PUT = 'P';
+    private static final byte DELETE = 'D';
+
+    private final InventoryBST index = new InventoryBST();
+    private final JdbcInventoryRepository db = new JdbcInventoryRepository();
+    private final Path journalDir;
+    private final int batchSize;
+    private final long maxLagNanos;
+    private final OperationMetrics flushMetrics = Metrics.operation("snapshot.flush");
+
+    // Guards index mutations, pending, the journal and the counters. Mutations hold it across
+    // "change tree + journal + queue", so all three see changes in the same order.
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition work = lock.newCondition();
+    private final Condition room = lock.newCondition();
+    // Serializes commits; always taken before lock.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private Map<String, InventoryData> pending = new LinkedHashMap<>();   // null value = delete
+    private long oldestPendingNanos;
+    // The batch being committed still counts as pending (and for lag) until it commits.
+    private int inFlight;
+    private long oldestInFlightNanos;
+    private DataOutputStream journal;
+    private Path currentJournal;
+    private long journalSeq;
+    private final List<Path> sealed = new ArrayList<>();
+    private long flushedRows;
+    private long batches;
+    private long failures;
+    private boolean closed;
+
+    private final Thread worker;
+    private final Thread shutdownHook;
+
+    public SnapshotInventoryRepository(Path journalDir, int batchSize, long maxLagMillis) throws Exception {
+        if (batchSize < 1 || maxLagMillis < 1) throw new IllegalArgumentException("batchSize and maxLagMillis must be >= 1");
+        this.journalDir = journalDir;
+        this.batchSize = batchSize;
+        this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(maxLagMillis);
+        Files.createDirectories(journalDir);
+        int replayed = recover();
+        if (replayed > 0) System.err.println("[snapshot] replayed " + replayed + " journaled changes");
+        db.forEachSortedByEngineNumber(index::insert);
+        openJournal();
+        worker = new Thread(this::run, "snapshot-writer");
+        worker.setDaemon(true);
+        worker.start();
+        shutdownHook = new Thread(this::close, "snapshot-writer-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    // -Dmotorph.snapshot.batchSize (default 500), -Dmotorph.snapshot.maxLagMillis (default 200),
+    // -Dmotorph.snapshot.journalDir (default: "snapshot-journal" next to the database file).
+    public static SnapshotInventoryRepository fromSystemProperties() throws Exception {
+        String configured = System.getProperty("motorph.snapshot.journalDir");
+        Path dir = configured != null
+                ? Paths.get(configured)
+                : Paths.get(DB.getProfile().getPath()).toAbsolutePath().resolveSibling("snapshot-journal");
+        return new SnapshotInventoryRepository(dir,
+                Integer.getInteger("motorph.snapshot.batchSize", DEFAULT_BATCH_SIZE),
+                Long.getLong("motorph.snapshot.maxLagMillis", DEFAULT_MAX_LAG_MILLIS));
+    }
+
+    // ---- reads: memory only ----
+
+    @Override
+    public InventoryData findByEngineNumber(String engineNumber) {
+        return index.search(engineNumber);
+    }
+
+    @Override
+    public List<InventoryData> findAllSortedByEngineNumber() {
+        return index.snapshot();
+    }
+
+    @Override
+    public List<InventoryData> findPage(String afterEngineNumber, int limit) {
+        if (afterEngineNumber == null) return index.page(null, limit);
+        List<InventoryData> page = index.page(afterEngineNumber, (int) Math.min(Integer.MAX_VALUE, limit + 1L));
+        int from = !page.isEmpty() && page.get(0).getEngineNumber().equals(afterEngineNumber) ? 1 : 0;
+        return new ArrayList<>(page.subList(from, Math.min(page.size(), from + limit)));
+    }
+
+    @Override
+    public void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) {
+        index.forEach(action);
+    }
+
+    // ---- writes: memory now, SQLite later ----
+
+    @Override
+    public void insert(InventoryData d) throws Exception {
+        lock.lock();
+        try {
+            awaitRoom();
+            if (index.search(d.getEngineNumber()) != null) {
+                throw new SQLException("Duplicate engine number: " + d.getEngineNumber());
+            }
+            d = withDate(d);
+            enqueue(d.getEngineNumber(), d);
+            journal.flush();
+            index.insert(d);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void update(InventoryData d) throws Exception {
+        lock.lock();
+        try {
+            awaitRoom();
+            if (index.search(d.getEngineNumber()) == null) return;   // like UPDATE ... WHERE: no row, no change
+            d = withDate(d);
+            enqueue(d.getEngineNumber(), d);
+            journal.flush();
+            index.replace(d);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void deleteByEngineNumber(String engineNumber) throws Exception {
+        lock.lock();
+        try {
+            awaitRoom();
+            if (index.search(engineNumber) == null) return;
+            enqueue(engineNumber, null);
+            journal.flush();
+            index.delete(engineNumber);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Check and removal happen under the lock, so two sellers cannot both succeed. The audit
+    // row is written straight to SQLite once the removal is journaled.
+    @Override
+    public SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+        SellResult r;
+        lock.lock();
+        try {
+            awaitRoom();
+            InventoryData stored = index.search(engineNumber);
+            if (stored == null) return SellResult.notFound();
+            if (!expectedStatus.equalsIgnoreCase(stored.getStatus())) return SellResult.wrongStatus(stored);
+            enqueue(engineNumber, null);
+            journal.flush();
+            index.delete(engineNumber);
+            r = SellResult.sold(stored);
+        } finally {
+            lock.unlock();
+        }
+        AuditLogger.insertBatch(List.of(SellResult.auditEvent(r.record(), user, details)));
+        return r;
+    }
+
+    // Rows reach the inventory table within maxLag of the write.
+    @Override
+    public boolean usesInventoryTable() {
+        return true;
+    }
+
+    // Reading the table directly would miss writes still queued; commit them first.
+    @Override
+    public void syncInventoryTable() throws Exception {
+        flush();
+    }
+
+    @Override
+    public BulkInsertResult insertAll(Iterable<InventoryData> rows) throws Exception {
+        BulkInsertResult result = new BulkInsertResult();
+        long pos = -1;
+        int inChunk = 0;
+        lock.lock();
+        try {
+            for (InventoryData d : rows) {
+                pos++;
+                if (d.getEngineNumber() == null || d.getBrand() == null
+                        || d.getStatus() == null || d.getLevel() == null) {
+                    result.reject(pos, d.getEngineNumber(), "Missing required field");
+                    continue;
+                }
+                awaitRoom();
+                if (index.search(d.getEngineNumber()) != null) {
+                    result.reject(pos, d.getEngineNumber(), "Duplicate engine number");
+                    continue;
+                }
+                d = withDate(d);
+                enqueue(d.getEngineNumber(), d);
+                index.insert(d);
+                if (++inChunk == INSERT_ALL_CHUNK) {
+                    // one journal write per chunk rather than per row
+                    journal.flush();
+                    result.addInserted(inChunk);
+                    inChunk = 0;
+                }
+            }
+            journal.flush();
+            result.addInserted(inChunk);
+        } finally {
+            lock.unlock();
+        }
+        return result;
+    }
+
+    // ---- write-behind ----
+
+    // Commits everything queued so far. Returns once it is in SQLite (or the commit failed).
+    public void flush() throws Exception {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Freezes writes, flushes, then compares memory with the inventory table in one ordered pass.
+    public ConsistencyReport verify() throws Exception {
+        flushLock.lock();
+        lock.lock();
+        try {
+            flushLocked();
+            List<InventoryData> mem = index.snapshot();
+            List<String> samples = new ArrayList<>();
+            long[] counts = new long[3];   // database rows, mismatches, cursor into mem
+            db.forEachSortedByEngineNumber(row -> {
+                counts[0]++;
+                String key = row.getEngineNumber();
+                while (counts[2] < mem.size() && mem.get((int) counts[2]).getEngineNumber().compareTo(key) < 0) {
+                    mismatch(counts, samples, "missing in database: " + mem.get((int) counts[2]++).getEngineNumber());
+                }
+                if (counts[2] < mem.size() && mem.get((int) counts[2]).getEngineNumber().equals(key)) {
+                    InventoryData m = mem.get((int) counts[2]++);
+                    if (!m.equals(row)) mismatch(counts, samples, "differs: memory " + m + " / database " + row);
+                } else {
+                    mismatch(counts, samples, "missing in memory: " + key);
+                }
+            });
+            while (counts[2] < mem.size()) {
+                mismatch(counts, samples, "missing in database: " + mem.get((int) counts[2]++).getEngineNumber());
+            }
+            return new ConsistencyReport(mem.size(), counts[0], counts[1], samples);
+        } finally {
+            lock.unlock();
+            flushLock.unlock();
+        }
+    }
+
+    public Stats getStats() {
+        lock.lock();
+        try {
+            int queued = pending.size() + inFlight;
+            long oldest = inFlight > 0 ? oldestInFlightNanos : oldestPendingNanos;
+            long lag = queued == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - oldest);
+            return new Stats(queued, flushedRows, batches, failures, lag);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Flushes pending changes and stops the writer. Further writes fail.
+    @Override
+    public void close() {
+        if (!stop()) return;
+        try {
+            flush();
+        } catch (Exception e) {
+            System.err.println("[snapshot] final flush failed, changes kept in " + journalDir + ": " + e.getMessage());
+        }
+        closeJournal();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // already shutting down
+        }
+    }
+
+    // Stops the writer without flushing, as if the process had died: queued changes stay only
+    // in the journal and are replayed by the next instance. For crash-recovery drills.
+    public void halt() {
+        if (!stop()) return;
+        closeJournal();
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException ignored) {
+            // already shutting down
+        }
+    }
+
+    private boolean stop() {
+        lock.lock();
+        try {
+            if (closed) return false;
+            closed = true;
+            work.signalAll();
+            room.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            worker.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return true;
+    }
+
+    private void run() {
+        while (true) {
+            lock.lock();
+            try {
+                while (!closed && pending.isEmpty()) work.awaitUninterruptibly();
+                // wait for a full batch or for the oldest change to reach the lag bound
+                long wait = oldestPendingNanos + maxLagNanos - System.nanoTime();
+                while (!closed && pending.size() < batchSize && wait > 0) {
+                    wait = work.awaitNanos(wait);
+                }
+                if (closed) return;
+            } catch (InterruptedException e) {
+                continue;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                flush();
+            } catch (Exception e) {
+                // counted and logged in flushLocked; back off one lag period before retrying
+                LockSupport.parkNanos(maxLagNanos);
+            }
+        }
+    }
+
+    // Caller holds flushLock. Swaps the queue and journal under lock, commits outside it.
+    private void flushLocked() throws Exception {
+        Map<String, InventoryData> batch;
+        lock.lock();
+        try {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new LinkedHashMap<>();
+            inFlight = batch.size();
+            oldestInFlightNanos = oldestPendingNanos;
+            rotateJournal();
+            room.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        long t0 = System.nanoTime();
+        boolean ok = false;
+        try {
+            persist(batch);
+            ok = true;
+        } catch (Exception e) {
+            lock.lock();
+            try {
+                // newer changes to the same key win; the journals stay until a retry commits
+                batch.forEach(pending::putIfAbsent);
+                if (!pending.isEmpty()) oldestPendingNanos = t0 - maxLagNanos;
+                inFlight = 0;
+                failures++;
+            } finally {
+                lock.unlock();
+            }
+            System.err.println("[snapshot] batch of " + batch.size() + " not persisted, will retry: "
+                    + e.getClass().getSimpleName() + ": " + e.getMessage());
+            throw e;
+        } finally {
+            flushMetrics.recordSince(t0, ok);
+        }
+        List<Path> done;
+        lock.lock();
+        try {
+            inFlight = 0;
+            flushedRows += batch.size();
+            batches++;
+            done = new ArrayList<>(sealed);
+            sealed.clear();
+        } finally {
+            lock.unlock();
+        }
+        for (Path p : done) Files.deleteIfExists(p);
+    }
+
+    // Caller holds lock.
+    private void enqueue(String engineNumber, InventoryData row) throws IOException {
+        if (closed) throw new IllegalStateException("repository is closed");
+        writeOp(journal, engineNumber, row);
+        if (pending.isEmpty()) oldestPendingNanos = System.nanoTime();
+        pending.put(engineNumber, row);
+        if (pending.size() == 1 || pending.size() == batchSize) work.signal();
+    }
+
+    // Caller holds lock. Blocks while the database is too far behind.
+    private void awaitRoom() {
+        if (closed) throw new IllegalStateException("repository is closed");
+        while (!closed && pending.size() >= batchSize * MAX_PENDING_BATCHES) {
+            work.signal();
+            room.awaitUninterruptibly();
+        }
+        if (closed) throw new IllegalStateException("repository is closed");
+    }
+
+    // The JDBC repository stores "now" for a missing date; do the same so memory and table agree.
+    private static InventoryData withDate(InventoryData d) {
+        if (d.getDateEntered() != null) return d;
+        return new InventoryData(d.getBrand(), d.getEngineNumber(), new Date(), d.getStatus(), d.getLevel());
+    }
+
+    private static void mismatch(long[] counts, List<String> samples, String what) {
+        counts[1]++;
+        if (samples.size() < MAX_SAMPLES) samples.add(what);
+    }
+
+    // ---- SQLite ----
+
+    private static void persist(Map<String, InventoryData> batch) throws SQLException {
+        String upsert = "INSERT INTO inventory(engine_number, brand, date_entered, status, level, mod_seq) VALUES(?,?,?,?,?,?) "
+                + "ON CONFLICT(engine_number) DO UPDATE SET brand=excluded.brand, date_entered=excluded.date_entered, "
+                + "status=excluded.status, level=excluded.level, mod_seq=excluded.mod_seq";
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try (PreparedStatement put = c.prepareStatement(upsert);
+                 PreparedStatement del = c.prepareStatement("DELETE FROM inventory WHERE engine_number=?");
+                 PreparedStatement tomb = c.prepareStatement(ChangeTracking.TOMBSTONE_SQL)) {
+                long seq = ChangeTracking.reserve(c, batch.size());
+                for (Map.Entry<String, InventoryData> e : batch.entrySet()) {
+                    InventoryData d = e.getValue();
+                    if (d == null) {
+                        del.setString(1, e.getKey());
+                        del.addBatch();
+                        tomb.setString(1, e.getKey());
+                        tomb.setLong(2, seq++);
+                        tomb.addBatch();
+                    } else {
+                        put.setString(1, d.getEngineNumber());
+                        put.setString(2, d.getBrand());
+                        put.setLong(3, d.getDateEntered().getTime());
+                        put.setString(4, d.getStatus());
+                        put.setString(5, d.getLevel());
+                        put.setLong(6, seq++);
+                        put.addBatch();
+                    }
+                }
+                put.executeBatch();
+                del.executeBatch();
+                tomb.executeBatch();
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+    }
+
+    // ---- journal ----
+    // File per batch: journal-<seq>.log, records of
+    //   'P' engine brand dateMillis status level   |   'D' engine
+    // A torn last record (crash mid-append) was never acknowledged and is ignored.
+
+    private int recover() throws Exception {
+        List<Path> files = journalFiles();
+        if (files.isEmpty()) return 0;
+        Map<String, InventoryData> changes = new LinkedHashMap<>();
+        int n = 0;
+        for (Path p : files) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(p)))) {
+                while (true) {
+                    int op;
+                    try {
+                        op = in.read();
+                        if (op < 0) break;
+                        String eng = in.readUTF();
+                        InventoryData row = op == PUT
+                                ? new InventoryData(in.readUTF(), eng, in.readLong(), in.readUTF(), in.readUTF())
+                                : null;
+                        changes.remove(eng);   // keep replay order = last change order
+                        changes.put(eng, row);
+                        n++;
+                    } catch (EOFException torn) {
+                        break;
+                    }
+                }
+            }
+        }
+        persist(changes);
+        for (Path p : files) Files.delete(p);
+        return n;
+    }
+
+    private List<Path> journalFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> ds = Files.newDirectoryStream(journalDir, "journal-*.log")) {
+            for (Path p : ds) files.add(p);
+        }
+        files.sort(null);   // zero-padded sequence numbers sort by name
+        return files;
+    }
+
+    private void openJournal() throws IOException {
+        Path p = journalDir.resolve(String.format("journal-%020d.log", ++journalSeq));
+        OutputStream out = Files.newOutputStream(p, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        journal = new DataOutputStream(new BufferedOutputStream(out, 64 * 1024));
+        currentJournal = p;
+    }
+
+    // Caller holds lock.
+    private void rotateJournal() throws IOException {
+        journal.close();
+        sealed.add(currentJournal);
+        openJournal();
+    }
+
+    private void closeJournal() {
+        lock.lock();
+        try {
+            journal.close();
+            // an empty journal has nothing to replay
+            if (Files.size(currentJournal) == 0) Files.deleteIfExists(currentJournal);
+        } catch (IOException e) {
+            System.err.println("[snapshot] closing journal: " + e.getMessage());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void writeOp(DataOutputStream out, String engineNumber, InventoryData row) throws IOException {
+        out.writeByte(row != null ? PUT : DELETE);
+        out.writeUTF(engineNumber);
+        if (row != null) {
+            out.writeUTF(row.getBrand());
+            out.writeLong(row.getDateEntered().getTime());
+            out.writeUTF(row.getStatus());
+            out.writeUTF(row.getLevel());
+        }
+    }
+}
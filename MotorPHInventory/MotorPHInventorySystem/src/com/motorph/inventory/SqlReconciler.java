@@ -0,0 +1,104 @@
+package com.motorph.inventory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+// Reconciliation evaluated inside SQLite. Each ReconcileRule is compiled to a CASE flag;
+// a single pass over `inventory` returns only rows with at least one flag set, and the
+// per-rule counts come from one SUM(CASE ...) aggregate over the same table.
+// Both queries run in one read transaction so counts and rows agree.
+public class SqlReconciler {
+
+    private static final ReconcileRule[] RULES = ReconcileRule.values();
+    private static final String OFFENDERS_SQL = buildOffendersSql();
+    private static final String COUNTS_SQL = buildCountsSql();
+
+    public ReconcileResult run(Consumer<? super ReconcileIssue> sink) throws SQLException {
+        long start = System.currentTimeMillis();
+        long[] counts = new long[RULES.length];
+        long scanned;
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try {
+                scanned = readCounts(c, counts);
+                if (sink != null) streamOffenders(c, sink);
+                c.commit();
+            } catch (SQLException | RuntimeException e) {
+                c.rollback();
+                throw e;
+            }
+        }
+        return new ReconcileResult(scanned, counts, System.currentTimeMillis() - start);
+    }
+
+    private long readCounts(Connection c, long[] counts) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(COUNTS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            for (int i = 0; i < RULES.length; i++) counts[i] = rs.getLong(2 + i);
+            return rs.getLong(1);
+        }
+    }
+
+    private void streamOffenders(Connection c, Consumer<? super ReconcileIssue> sink) throws SQLException {
+        try (PreparedStatement ps = c.prepareStatement(OFFENDERS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                String eng = rs.getString(1);
+                for (int i = 0; i < RULES.length; i++) {
+                    if (rs.getInt(5 + i) == 0) continue;
+                    ReconcileRule rule = RULES[i];
+                    String value = switch (rule) {
+                        case INVALID_ENGINE_NUMBER -> eng;
+                        case MISSING_BRAND -> rs.getString(2);
+                        case INVALID_STATUS -> rs.getString(3);
+                        case INVALID_LEVEL -> rs.getString(4);
+                        default -> null;
+                    };
+                    sink.accept(new ReconcileIssue(eng, rule, value));
+                }
+            }
+        }
+    }
+
+    // SQL predicate that is true when the row breaks the rule; mirrors Reconciler.check.
+    static String predicate(ReconcileRule rule) {
+        return switch (rule) {
+            case INVALID_ENGINE_NUMBER ->
+                    "engine_number IS NULL OR length(engine_number) <> 10 OR engine_number GLOB '*[^0-9]*'";
+            case MISSING_BRAND -> "brand IS NULL OR trim(brand, ' ' || char(9, 10, 11, 12, 13)) = ''";
+            case MISSING_DATE_ENTERED -> "date_entered IS NULL";
+            case INVALID_STATUS -> "status IS NULL OR status NOT IN ('On-hand', 'Old')";
+            case INVALID_LEVEL -> "level IS NULL OR level NOT IN ('New', 'Sold')";
+            case ON_HAND_SOLD -> "lower(status) = 'on-hand' AND lower(level) = 'sold'";
+            case OLD_NEW -> "lower(status) = 'old' AND lower(level) = 'new'";
+        };
+    }
+
+    private static String flag(ReconcileRule rule) {
+        return "CASE WHEN " + predicate(rule) + " THEN 1 ELSE 0 END";
+    }
+
+    private static String buildOffendersSql() {
+        StringBuilder sb = new StringBuilder("SELECT engine_number, brand, status, level");
+        StringBuilder any = new StringBuilder();
+        for (ReconcileRule r : RULES) {
+            sb.append(",\n       ").append(flag(r)).append(" AS f_").append(r.ordinal());
+            if (any.length() > 0) any.append("\n   OR ");
+            any.append('(').append(predicate(r)).append(')');
+        }
+        sb.append("\nFROM inventory\nWHERE ").append(any).append("\nORDER BY engine_number ASC");
+        return sb.toString();
+    }
+
+    private static String buildCountsSql() {
+        StringBuilder sb = new StringBuilder("SELECT COUNT(*)");
+        for (ReconcileRule r : RULES) {
+            sb.append(",\n       COALESCE(SUM(").append(flag(r)).append("), 0)");
+        }
+        return sb.append("\nFROM inventory").toString();
+    }
+}
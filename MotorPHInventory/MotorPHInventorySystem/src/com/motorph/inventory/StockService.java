@@ -0,0 +1,87 @@
+package com.motorph.inventory;
+
+import java.util.Date;
+import java.util.List;
+
+// Add and sell with the same rules and audit trail as the console menu, for callers that
+// have no prompts to interleave (batch mode, HTTP API). Thread-safe if the repository is.
+public class StockService {
+
+    public enum Status { OK, INVALID, NOT_FOUND, CONFLICT, DENIED }
+
+    public record Outcome(Status status, String error, InventoryData record) {
+        public boolean ok() {
+            return status == Status.OK;
+        }
+
+        static Outcome ok(InventoryData record) {
+            return new Outcome(Status.OK, null, record);
+        }
+
+        static Outcome fail(Status status, String error) {
+            return new Outcome(status, error, null);
+        }
+    }
+
+    private final InventoryRepository repo;
+    private final AuditLogger audit;
+
+    public StockService(InventoryRepository repo, AuditLogger audit) {
+        this.repo = repo;
+        this.audit = audit;
+    }
+
+    // Reason an ADD is rejected before touching the database, or null when it is acceptable.
+    static String validateAdd(String engineNumber, String brand) {
+        if (!EngineNumbers.isValid(engineNumber)) return "Invalid engine number format";
+        if (brand == null || brand.isBlank()) return "Missing brand";
+        return null;
+    }
+
+    public Outcome add(String user, String engineNumber, String brand) throws Exception {
+        String error = validateAdd(engineNumber, brand);
+        if (error != null) {
+            audit.log(user, "ADD", engineNumber, null, null, "REJECTED", error);
+            return Outcome.fail(Status.INVALID, error);
+        }
+        if (repo.findByEngineNumber(engineNumber) != null) {
+            audit.log(user, "ADD", engineNumber, null, null, "REJECTED", "Duplicate engine number");
+            return Outcome.fail(Status.CONFLICT, "Duplicate engine number");
+        }
+        InventoryData record = new InventoryData(brand.trim(), engineNumber, new Date(), "On-hand", "New");
+        BulkInsertResult r = repo.insertAll(List.of(record));
+        if (r.getInserted() == 0) {   // lost a race with a concurrent add
+            audit.log(user, "ADD", engineNumber, null, null, "REJECTED", "Duplicate engine number");
+            return Outcome.fail(Status.CONFLICT, "Duplicate engine number");
+        }
+        audit.log(user, "ADD", engineNumber, record.getStatus(), record.getLevel(), "SUCCESS", "");
+        return Outcome.ok(record);
+    }
+
+    // Delete Stock without the confirmation prompt: admin only, record must be On-hand.
+    // `source` goes into the audit details (e.g. "batch sell", "http").
+    public Outcome sell(String user, boolean admin, String engineNumber, String source) throws Exception {
+        if (!admin) {
+            audit.log(user, "DELETE", engineNumber, null, null, "DENIED", "Non-admin attempted " + source);
+            return Outcome.fail(Status.DENIED, "Admin role required");
+        }
+        if (!EngineNumbers.isValid(engineNumber)) {
+            audit.log(user, "DELETE", engineNumber, null, null, "REJECTED", "Invalid engine number format");
+            return Outcome.fail(Status.INVALID, "Invalid engine number format");
+        }
+        // the repository writes the SUCCESS audit row together with the removal
+        SellResult r = repo.sell(engineNumber, InventoryData.Status.ON_HAND.label(), user, source);
+        return switch (r.outcome()) {
+            case SOLD -> Outcome.ok(r.record());
+            case NOT_FOUND -> {
+                audit.log(user, "DELETE", engineNumber, null, null, "REJECTED", "Not found");
+                yield Outcome.fail(Status.NOT_FOUND, "Not found");
+            }
+            case WRONG_STATUS -> {
+                audit.log(user, "DELETE", engineNumber, r.record().getStatus(), r.record().getLevel(),
+                        "REJECTED", "Invalid status for delete");
+                yield Outcome.fail(Status.CONFLICT, "Invalid status for delete");
+            }
+        };
+    }
+}
@@ -0,0 +1,163 @@
+package com.motorph.inventory;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.Properties;
+
+// SQLite storage settings, applied as PRAGMAs once per physical connection.
+//
+// Resolution order (later wins):
+//   1. preset named by motorph.db.profile (default "balanced")
+//   2. properties file named by motorph.db.config (default ./motorph-db.properties, if present)
+//   3. -D system properties
+// Keys: motorph.db.path, motorph.db.profile, motorph.db.journalMode, motorph.db.synchronous,
+//       motorph.db.mmapSize, motorph.db.cacheSizeKb, motorph.db.busyTimeoutMs, motorph.db.tempStore,
+//       motorph.db.poolSize, motorph.db.idleTimeoutMs, motorph.db.borrowTimeoutMs
+public final class StorageProfile {
+
+    public enum Preset {
+        SAFE,       // rollback journal + FULL sync: SQLite defaults, the pre-pool behaviour
+        BALANCED,   // WAL + NORMAL sync: durable across app crashes, readers never block the writer
+        FAST        // WAL + sync OFF: bulk loads and benchmarks only; may lose commits on power loss
+    }
+
+    public enum JournalMode { DELETE, TRUNCATE, PERSIST, MEMORY, WAL, OFF }
+    public enum Synchronous { OFF, NORMAL, FULL, EXTRA }
+    public enum TempStore { DEFAULT, FILE, MEMORY }
+
+    static final String DEFAULT_PATH = "data/motorph_inventory.db";
+    private static final String PREFIX = "motorph.db.";
+
+    private final String preset;
+    private final String path;
+    private final JournalMode journalMode;
+    private final Synchronous synchronous;
+    private final long mmapSize;
+    private final long cacheSizeKb;
+    private final int busyTimeoutMs;
+    private final TempStore tempStore;
+    private final int poolSize;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+
+    private StorageProfile(Properties p) {
+        this.preset = p.getProperty(PREFIX + "profile", "balanced").toLowerCase(Locale.ROOT);
+        this.path = p.getProperty(PREFIX + "path", DEFAULT_PATH);
+        this.journalMode = JournalMode.valueOf(upper(p, "journalMode"));
+        this.synchronous = Synchronous.valueOf(upper(p, "synchronous"));
+        this.mmapSize = Long.parseLong(p.getProperty(PREFIX + "mmapSize"));
+        this.cacheSizeKb = Long.parseLong(p.getProperty(PREFIX + "cacheSizeKb"));
+        this.busyTimeoutMs = Integer.parseInt(p.getProperty(PREFIX + "busyTimeoutMs"));
+        this.tempStore = TempStore.valueOf(upper(p, "tempStore"));
+        // SQLite serializes writers anyway, so a handful of connections is plenty.
+        this.poolSize = Integer.parseInt(p.getProperty(PREFIX + "poolSize", "4"));
+        this.idleTimeoutMs = Long.parseLong(p.getProperty(PREFIX + "idleTimeoutMs", "300000"));
+        this.borrowTimeoutMs = Long.parseLong(p.getProperty(PREFIX + "borrowTimeoutMs", "30000"));
+    }
+
+    public static StorageProfile load() {
+        Properties overrides = new Properties();
+        String configFile = System.getProperty(PREFIX + "config", "motorph-db.properties");
+        Path cfg = Paths.get(configFile);
+        if (Files.isRegularFile(cfg)) {
+            try (InputStream in = Files.newInputStream(cfg)) {
+                overrides.load(in);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot read storage config " + cfg.toAbsolutePath(), e);
+            }
+        }
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith(PREFIX)) overrides.setProperty(key, System.getProperty(key));
+        }
+        String presetName = overrides.getProperty(PREFIX + "profile", "balanced");
+        Properties merged = presetDefaults(Preset.valueOf(presetName.toUpperCase(Locale.ROOT)));
+        merged.putAll(overrides);
+        return new StorageProfile(merged);
+    }
+
+    public static StorageProfile of(Preset preset, String path) {
+        Properties p = presetDefaults(preset);
+        p.setProperty(PREFIX + "path", path);
+        return new StorageProfile(p);
+    }
+
+    private static Properties presetDefaults(Preset preset) {
+        Properties p = new Properties();
+        p.setProperty(PREFIX + "profile", preset.name().toLowerCase(Locale.ROOT));
+        switch (preset) {
+            case SAFE -> {
+                p.setProperty(PREFIX + "journalMode", "DELETE");
+                p.setProperty(PREFIX + "synchronous", "FULL");
+                p.setProperty(PREFIX + "mmapSize", "0");
+                p.setProperty(PREFIX + "cacheSizeKb", "2000");
+                p.setProperty(PREFIX + "busyTimeoutMs", "3000");
+                p.setProperty(PREFIX + "tempStore", "DEFAULT");
+            }
+            case BALANCED -> {
+                p.setProperty(PREFIX + "journalMode", "WAL");
+                p.setProperty(PREFIX + "synchronous", "NORMAL");
+                p.setProperty(PREFIX + "mmapSize", String.valueOf(256L << 20));
+                p.setProperty(PREFIX + "cacheSizeKb", "65536");
+                p.setProperty(PREFIX + "busyTimeoutMs", "5000");
+                p.setProperty(PREFIX + "tempStore", "MEMORY");
+            }
+            case FAST -> {
+                p.setProperty(PREFIX + "journalMode", "WAL");
+                p.setProperty(PREFIX + "synchronous", "OFF");
+                p.setProperty(PREFIX + "mmapSize", String.valueOf(1L << 30));
+                p.setProperty(PREFIX + "cacheSizeKb", "262144");
+                p.setProperty(PREFIX + "busyTimeoutMs", "5000");
+                p.setProperty(PREFIX + "tempStore", "MEMORY");
+            }
+        }
+        return p;
+    }
+
+    // Runs the PRAGMAs on a freshly opened connection. Values come from enums and numbers only,
+    // so building the statements by concatenation is safe.
+    void apply(Connection c) throws SQLException {
+        try (Statement st = c.createStatement()) {
+            st.execute("PRAGMA busy_timeout = " + busyTimeoutMs);
+            // Lets AuditArchiver hand freed pages back to the OS. Only takes effect on a new
+            // database (DB rebuilds older files once at startup), and must come before
+            // journal_mode because WAL fixes the file header.
+            st.execute("PRAGMA auto_vacuum = INCREMENTAL");
+            st.execute("PRAGMA journal_mode = " + journalMode.name());
+            st.execute("PRAGMA synchronous = " + synchronous.name());
+            st.execute("PRAGMA mmap_size = " + mmapSize);
+            st.execute("PRAGMA cache_size = " + (-cacheSizeKb));   // negative = KiB rather than pages
+            st.execute("PRAGMA temp_store = " + tempStore.name());
+        }
+    }
+
+    public String getPreset() { return preset; }
+    public String getPath() { return path; }
+    public String getUrl() { return "jdbc:sqlite:" + path; }
+    public JournalMode getJournalMode() { return journalMode; }
+    public Synchronous getSynchronous() { return synchronous; }
+    public long getMmapSize() { return mmapSize; }
+    public long getCacheSizeKb() { return cacheSizeKb; }
+    public int getBusyTimeoutMs() { return busyTimeoutMs; }
+    public TempStore getTempStore() { return tempStore; }
+    public int getPoolSize() { return poolSize; }
+    public long getIdleTimeoutMs() { return idleTimeoutMs; }
+    public long getBorrowTimeoutMs() { return borrowTimeoutMs; }
+
+    @Override
+    public String toString() {
+        return preset + " (journal=" + journalMode + ", synchronous=" + synchronous
+                + ", mmap=" + (mmapSize >> 20) + "MB, cache=" + (cacheSizeKb >> 10) + "MB"
+                + ", busy_timeout=" + busyTimeoutMs + "ms, temp_store=" + tempStore + ")";
+    }
+
+    private static String upper(Properties p, String key) {
+        return p.getProperty(PREFIX + key).trim().toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,147 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.AuditArchive;
+import com.motorph.inventory.AuditArchiver;
+import com.motorph.inventory.AuditLogger;
+import com.motorph.inventory.AuditPage;
+import com.motorph.inventory.AuditQuery;
+import com.motorph.inventory.AuditRecord;
+import com.motorph.inventory.DB;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+public class AuditArchiverTest {
+
+    private static final long DAY = 24L * 60 * 60 * 1000;
+
+    private Path dir;
+    private AuditArchive archive;
+    private AuditLogger audit;
+
+    @Before
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("audit-archive-test");
+        archive = new AuditArchive(dir);
+        audit = new AuditLogger();
+        clearAuditLog();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        clearAuditLog();
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path p : files.sorted(Comparator.reverseOrder()).toList()) Files.deleteIfExists(p);
+        }
+    }
+
+    @Test
+    public void rollsOverExpiredRowsInBatches() throws Exception {
+        long now = System.currentTimeMillis();
+        insertAt(now - 120 * DAY, 1_200, "1111111111");
+        insertAt(now - DAY, 50, "2222222222");
+
+        AuditArchiver archiver = new AuditArchiver(archive, 90 * DAY, 500);
+        AuditArchiver.Result r = archiver.archiveExpired();
+
+        assertEquals(1_200, r.rowsArchived());
+        assertEquals(3, r.segments());
+        assertEquals(50, countAuditRows());
+        assertEquals(3, new AuditArchive(dir).getSegmentCount());   // readable from disk
+        assertEquals(1_200, new AuditArchive(dir).getRowCount());
+
+        // nothing left to do on a second run
+        assertEquals(0, archiver.archiveExpired().rowsArchived());
+    }
+
+    @Test
+    public void searchCanIncludeArchivedSegments() throws Exception {
+        long now = System.currentTimeMillis();
+        insertAt(now - 200 * DAY, 300, "1111111111");
+        insertAt(now - DAY, 20, "1111111111");
+        new AuditArchiver(archive, 90 * DAY, 128).archiveExpired();
+
+        AuditQuery liveOnly = new AuditQuery().engineNumber("1111111111").limit(1_000);
+        assertEquals(20, audit.search(liveOnly).getRecords().size());
+
+        List<AuditRecord> all = new ArrayList<>();
+        AuditPage page = audit.search(new AuditQuery().engineNumber("1111111111").limit(45).includeArchive(archive));
+        all.addAll(page.getRecords());
+        while (page.hasMore()) {
+            page = audit.search(page.next());
+            all.addAll(page.getRecords());
+        }
+        assertEquals(320, all.size());
+        for (int i = 1; i < all.size(); i++) {
+            AuditRecord prev = all.get(i - 1);
+            AuditRecord cur = all.get(i);
+            assertTrue(prev.ts() > cur.ts() || (prev.ts() == cur.ts() && prev.id() > cur.id()));
+        }
+
+        AuditQuery oldWindow = new AuditQuery().from(now - 250 * DAY).to(now - 150 * DAY).includeArchive(archive);
+        assertEquals(100, audit.search(oldWindow).getRecords().size());   // default limit
+        assertTrue(audit.search(oldWindow).hasMore());
+    }
+
+    // Runs against the configured database file, which may predate incremental auto-vacuum.
+    @Test
+    public void archivingGivesSpaceBackOnTheExistingDatabase() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("PRAGMA auto_vacuum")) {
+            assertTrue(rs.next());
+            assertEquals("auto_vacuum", 2, rs.getInt(1));
+        }
+        insertAt(System.currentTimeMillis() - 120 * DAY, 5_000, "1111111111");
+
+        AuditArchiver.Result r = new AuditArchiver(archive, 90 * DAY, 1_000).archiveExpired();
+        assertEquals(5_000, r.rowsArchived());
+        assertTrue("pages reclaimed: " + r.pagesReclaimed(), r.pagesReclaimed() > 0);
+    }
+
+    // Inserts n rows one second apart, ending at endTs.
+    private void insertAt(long endTs, int n, String engineNumber) throws Exception {
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement(
+                     "INSERT INTO audit_log(ts, user, action, engine_number, outcome, details) VALUES(?,?,?,?,?,?)")) {
+            c.setAutoCommit(false);
+            for (int i = 0; i < n; i++) {
+                ps.setLong(1, endTs - (n - i) * 1_000L);
+                ps.setString(2, "user" + (i % 3));
+                ps.setString(3, "ADD");
+                ps.setString(4, engineNumber);
+                ps.setString(5, "SUCCESS");
+                ps.setString(6, "i=" + i);
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            c.commit();
+        }
+    }
+
+    private int countAuditRows() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement();
+             ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM audit_log")) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
+    private void clearAuditLog() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.motorph.inventory.test;
 
 import com.motorph.inventory.AuditLogger;
+import com.motorph.inventory.AuditPage;
+import com.motorph.inventory.AuditQuery;
+import com.motorph.inventory.AuditRecord;
 import com.motorph.inventory.DB;
 import org.junit.After;
 import org.junit.Before;
@@ -9,6 +12,7 @@ import org.junit.Test;
 import java.io.ByteArrayOutputStream;
 import java.io.PrintStream;
 
+import static com.motorph.inventory.test.Fixtures.eng;
 import static org.junit.Assert.*;
 
 public class AuditLoggerTest {
@@ -71,7 +75,7 @@ public class AuditLoggerTest {
         }
         int total = 5_000;
         for (int i = 0; i < total; i++) {
-            audit.log("user" + (i % 5), "ADD", String.format("%010d", i), "On-hand", "New", "SUCCESS", "ok");
+            audit.log("user" + (i % 5), "ADD", eng(i), "On-hand", "New", "SUCCESS", "ok");
         }
         int count;
         try (java.sql.Connection c = DB.getConnection();
@@ -86,6 +90,161 @@ public class AuditLoggerTest {
         assertEquals(total, count);
     }
 
+    @Test
+    public void asyncLoggerIsDurableAfterFlushAndClose() throws Exception {
+        AuditLogger async = AuditLogger.async(1_000, 64, 50, AuditLogger.Backpressure.BLOCK);
+        int total = 5_000;
+        for (int i = 0; i < total; i++) {
+            async.log("user" + (i % 5), "ADD", eng(i), "On-hand", "New", "SUCCESS", "ok");
+        }
+        async.flush();
+        assertEquals(total, countAuditRows());
+
+        async.log("user1", "DELETE", "0000000001", "Old", "Sold", "SUCCESS", "");
+        async.close();
+        assertEquals(total + 1, countAuditRows());
+        assertEquals(total + 1, async.getQueuedCount());
+        assertEquals(total + 1, async.getWrittenCount());
+        assertEquals(0, async.getDroppedCount());
+
+        // after close, log() falls back to a synchronous write
+        async.log("user1", "ADD", "0000000002", "On-hand", "New", "SUCCESS", "");
+        assertEquals(total + 2, countAuditRows());
+    }
+
+    @Test
+    public void asyncDropPolicyCountsDiscardedEvents() throws Exception {
+        AuditLogger async = AuditLogger.async(1, 1, 1_000, AuditLogger.Backpressure.DROP);
+        int total = 2_000;
+        for (int i = 0; i < total; i++) {
+            async.log("user1", "ADD", eng(i), "On-hand", "New", "SUCCESS", "");
+        }
+        async.close();
+        assertEquals(total, async.getQueuedCount() + async.getDroppedCount());
+        assertEquals(async.getQueuedCount(), async.getWrittenCount());
+        assertEquals(async.getWrittenCount(), countAuditRows());
+    }
+
+    @Test
+    public void asyncCallerRunsNeverLosesEvents() throws Exception {
+        AuditLogger async = AuditLogger.async(4, 4, 1_000, AuditLogger.Backpressure.CALLER_RUNS);
+        int total = 1_000;
+        for (int i = 0; i < total; i++) {
+            async.log("user1", "ADD", eng(i), "On-hand", "New", "SUCCESS", "");
+        }
+        async.close();
+        assertEquals(0, async.getDroppedCount());
+        assertEquals(total, async.getWrittenCount());
+        assertEquals(total, countAuditRows());
+    }
+
+    @Test
+    public void asyncLoggerRetriesFailedBatch() throws Exception {
+        // a trigger rejects audit inserts while audit_block has a row, like a writer that
+        // keeps getting SQLITE_BUSY
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("CREATE TABLE IF NOT EXISTS audit_block (x INTEGER)");
+            st.executeUpdate("INSERT INTO audit_block VALUES (1)");
+            st.executeUpdate("CREATE TRIGGER IF NOT EXISTS audit_block_insert BEFORE INSERT ON audit_log "
+                    + "WHEN EXISTS (SELECT 1 FROM audit_block) BEGIN SELECT RAISE(ABORT, 'blocked'); END");
+        }
+        AuditLogger async = AuditLogger.async(100, 10, 10, AuditLogger.Backpressure.BLOCK);
+        try {
+            for (int i = 0; i < 20; i++) {
+                async.log("user1", "ADD", eng(i), "On-hand", "New", "SUCCESS", "");
+            }
+            Thread unblock = Thread.ofVirtual().start(() -> {
+                try {
+                    Thread.sleep(150);
+                    try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+                        st.executeUpdate("DELETE FROM audit_block");
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            async.flush();
+            unblock.join();
+            assertEquals(20, countAuditRows());
+            assertEquals(20, async.getWrittenCount());
+            assertEquals(0, async.getFailedCount());
+        } finally {
+            async.close();
+            try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+                st.executeUpdate("DROP TRIGGER IF EXISTS audit_block_insert");
+                st.executeUpdate("DROP TABLE IF EXISTS audit_block");
+            }
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void flushRacingCloseNeverHangs() throws Exception {
+        for (int round = 0; round < 50; round++) {
+            AuditLogger async = AuditLogger.async(16, 4, 1_000, AuditLogger.Backpressure.BLOCK);
+            async.log("user1", "ADD", "0000000001", "On-hand", "New", "SUCCESS", "");
+            Thread flusher = Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 20; i++) async.flush();
+            });
+            async.close();
+            flusher.join();
+        }
+    }
+
+    @Test
+    public void searchFiltersAndPagesNewestFirst() throws Exception {
+        for (int i = 0; i < 250; i++) {
+            String eng = (i % 2 == 0) ? "1111111111" : "2222222222";
+            String outcome = (i % 10 == 0) ? "REJECTED" : "SUCCESS";
+            audit.log("user" + (i % 3), "ADD", eng, "On-hand", "New", outcome, "n=" + i);
+        }
+
+        AuditPage page = audit.search(new AuditQuery().engineNumber("1111111111").limit(40));
+        java.util.List<AuditRecord> all = new java.util.ArrayList<>(page.getRecords());
+        int pages = 1;
+        while (page.hasMore()) {
+            page = audit.search(page.next());
+            all.addAll(page.getRecords());
+            pages++;
+        }
+        assertEquals(125, all.size());
+        assertEquals(4, pages);
+        for (int i = 1; i < all.size(); i++) {
+            AuditRecord prev = all.get(i - 1);
+            AuditRecord cur = all.get(i);
+            assertTrue(prev.ts() > cur.ts() || (prev.ts() == cur.ts() && prev.id() > cur.id()));
+            assertEquals("1111111111", cur.engineNumber());
+        }
+        assertEquals("n=248", all.get(0).details());
+
+        AuditPage rejected = audit.search(new AuditQuery().action("ADD").outcome("REJECTED").user("user0"));
+        assertEquals(9, rejected.getRecords().size());   // i % 10 == 0 and i % 3 == 0, i < 250
+        assertFalse(rejected.hasMore());
+
+        long future = System.currentTimeMillis() + 60_000;
+        assertTrue(audit.search(new AuditQuery().from(future)).getRecords().isEmpty());
+        assertEquals(250, audit.search(new AuditQuery().to(future).limit(1_000)).getRecords().size());
+    }
+
+    @Test
+    public void searchSeesEventsQueuedByAsyncLogger() throws Exception {
+        AuditLogger async = AuditLogger.async(100, 50, 10_000, AuditLogger.Backpressure.BLOCK);
+        try {
+            async.log("user1", "DELETE", "3333333333", "Old", "Sold", "SUCCESS", "");
+            assertEquals(1, async.search(new AuditQuery().engineNumber("3333333333")).getRecords().size());
+        } finally {
+            async.close();
+        }
+    }
+
+    private int countAuditRows() throws Exception {
+        try (java.sql.Connection c = DB.getConnection();
+             java.sql.PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM audit_log");
+             java.sql.ResultSet rs = ps.executeQuery()) {
+            rs.next();
+            return rs.getInt(1);
+        }
+    }
+
     private void logBanner(String title) {
         System.out.println("\n--- " + title + " ---");
     }
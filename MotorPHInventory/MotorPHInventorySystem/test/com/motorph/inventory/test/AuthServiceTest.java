@@ -1,7 +1,12 @@
 package com.motorph.inventory.test;
 
 import com.motorph.inventory.AuthService;
+import com.motorph.inventory.DB;
 import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import static org.junit.Assert.*;
 
 public class AuthServiceTest {
@@ -59,6 +64,74 @@ public class AuthServiceTest {
         assertEquals(2500, fail);
     }
 
+    @Test
+    public void passwordsAreStoredHashed() throws Exception {
+        String stored = storedPassword("admin");
+        assertTrue(stored, stored.startsWith("pbkdf2-sha256$"));
+        assertFalse(stored.contains("admin123"));
+    }
+
+    @Test
+    public void plaintextPasswordIsRehashedOnLogin() throws Exception {
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("INSERT OR REPLACE INTO users(username, password, role) VALUES(?,?,?)")) {
+            ps.setString(1, "legacy-test");
+            ps.setString(2, "secret");
+            ps.setString(3, "USER");
+            ps.executeUpdate();
+        }
+        try {
+            assertFalse(auth.authenticate("legacy-test", "Secret"));
+            assertTrue(auth.authenticate("legacy-test", "secret"));
+            assertTrue(storedPassword("legacy-test").startsWith("pbkdf2-sha256$"));
+            assertTrue(auth.authenticate("legacy-test", "secret"));
+        } finally {
+            try (Connection c = DB.getConnection();
+                 PreparedStatement ps = c.prepareStatement("DELETE FROM users WHERE username = ?")) {
+                ps.setString(1, "legacy-test");
+                ps.executeUpdate();
+            }
+        }
+    }
+
+    @Test
+    public void loginGivesSessionUntilLogout() {
+        assertNull(auth.login("admin", "wrong"));
+        AuthService.Session s = auth.login("admin", "admin123");
+        assertNotNull(s);
+        AuthService.Session found = auth.session(s.token());
+        assertEquals("admin", found.username());
+        assertTrue(found.isAdmin());
+        assertNull(auth.session("no-such-token"));
+        auth.logout(s.token());
+        assertNull(auth.session(s.token()));
+    }
+
+    @Test
+    public void sessionsExpireAndAreBounded() throws Exception {
+        AuthService shortLived = new AuthService(200, 2);
+        AuthService.Session first = shortLived.login("user", "user123");
+        AuthService.Session second = shortLived.login("user", "user123");
+        AuthService.Session third = shortLived.login("admin", "admin123");
+        assertEquals(2, shortLived.getSessionCount());
+        assertNull(shortLived.session(first.token()));
+        assertNotNull(shortLived.session(second.token()));
+        assertFalse(shortLived.session(second.token()).isAdmin());
+        Thread.sleep(250);
+        assertNull(shortLived.session(third.token()));
+    }
+
+    private static String storedPassword(String username) throws Exception {
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT password FROM users WHERE username = ?")) {
+            ps.setString(1, username);
+            try (ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+
     private void logBanner(String title) {
         System.out.println("\n--- " + title + " ---");
     }
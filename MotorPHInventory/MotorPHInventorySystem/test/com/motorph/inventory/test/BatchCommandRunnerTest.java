@@ -0,0 +1,130 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.AuditLogger;
+import com.motorph.inventory.BatchCommandRunner;
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class BatchCommandRunnerTest {
+
+    private JdbcInventoryRepository repo;
+    private AuditLogger audit;
+    private ByteArrayOutputStream buf;
+
+    @Before
+    public void setup() throws Exception {
+        repo = new JdbcInventoryRepository();
+        audit = new AuditLogger();
+        buf = new ByteArrayOutputStream();
+        clear();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        clear();
+    }
+
+    @Test
+    public void runsCommandsInOrderWithOneResultLineEach() throws Exception {
+        String script = """
+                # scanner feed
+                ADD,1000000001,Honda
+                ADD,1000000002,"Suzuki, Inc."
+                ADD,1000000001,Kawasaki
+                ADD,12X,Yamaha
+                SEARCH,1000000002
+                SELL,1000000001
+                SEARCH,1000000001
+                SELL,1000000009
+                FLY,1000000001
+                """;
+        BatchCommandRunner.Summary s = runner("ADMIN", 2).run(new StringReader(script));
+
+        String[] lines = output();
+        assertEquals(10, lines.length);   // 9 commands + summary
+        assertEquals(9, s.commands());
+        assertEquals(5, s.succeeded());
+        assertEquals(4, s.failed());
+
+        assertTrue(lines[0].startsWith("{\"line\":2,\"op\":\"ADD\",\"ok\":true"));
+        assertTrue(lines[1].contains("\"engineNumber\":\"1000000002\""));
+        assertTrue(lines[2].contains("\"ok\":false") && lines[2].contains("Duplicate engine number"));
+        assertTrue(lines[3].contains("Invalid engine number format"));
+        assertTrue(lines[4].contains("\"found\":true") && lines[4].contains("\"brand\":\"Suzuki, Inc.\""));
+        assertTrue(lines[5].contains("\"op\":\"SELL\",\"ok\":true") && lines[5].contains("\"level\":\"Sold\""));
+        assertTrue(lines[6].contains("\"found\":false"));
+        assertTrue(lines[7].contains("Not found"));
+        assertTrue(lines[8].contains("Unknown command"));
+        assertTrue(lines[9].startsWith("{\"op\":\"SUMMARY\",\"commands\":9,\"ok\":5,\"failed\":4"));
+
+        assertNull(repo.findByEngineNumber("1000000001"));
+        assertNotNull(repo.findByEngineNumber("1000000002"));
+    }
+
+    @Test
+    public void sellRequiresAdminRole() throws Exception {
+        repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "New"));
+        BatchCommandRunner.Summary s = runner("USER", 100).run(new StringReader("SELL,1000000001\n"));
+
+        assertEquals(1, s.failed());
+        assertTrue(output()[0].contains("Admin role required"));
+        assertNotNull(repo.findByEngineNumber("1000000001"));
+    }
+
+    @Test
+    public void reconcileStreamsIssuesAndAuditReturnsRecords() throws Exception {
+        repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "Sold"));
+        String script = """
+                RECONCILE
+                AUDIT,action=reconcile,limit=5
+                """;
+        BatchCommandRunner.Summary s = runner("ADMIN", 100).run(new StringReader(script));
+
+        assertEquals(0, s.failed());
+        String[] lines = output();
+        assertTrue(lines[0].startsWith("{\"op\":\"ISSUE\",\"engineNumber\":\"1000000001\",\"rule\":\"ON_HAND_SOLD\""));
+        assertTrue(lines[1].contains("\"op\":\"RECONCILE\"") && lines[1].contains("\"issues\":1"));
+        assertTrue(lines[2].contains("\"op\":\"AUDIT\"") && lines[2].contains("\"count\":1"));
+        assertTrue(lines[2].contains("mode=incremental"));
+    }
+
+    @Test
+    public void rescanIsAdminOnly() throws Exception {
+        BatchCommandRunner.Summary s = runner("USER", 100).run(new StringReader("RECONCILE,rescan\n"));
+        assertEquals(1, s.failed());
+        assertTrue(output()[0].contains("Admin role required"));
+    }
+
+    private BatchCommandRunner runner(String role, int batchSize) {
+        PrintStream out = new PrintStream(buf, true, StandardCharsets.UTF_8);
+        return new BatchCommandRunner(repo, audit, "tester", role, out, batchSize);
+    }
+
+    private String[] output() {
+        return buf.toString(StandardCharsets.UTF_8).split("\\R");
+    }
+
+    private void clear() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM inventory");
+            st.executeUpdate("DELETE FROM audit_log");
+            // rows deleted behind the change log; make the next incremental run start over
+            st.executeUpdate("DELETE FROM reconcile_issue");
+            st.executeUpdate("DELETE FROM reconcile_state");
+        }
+    }
+}
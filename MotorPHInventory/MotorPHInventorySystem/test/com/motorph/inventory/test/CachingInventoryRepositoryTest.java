@@ -0,0 +1,163 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.CachingInventoryRepository;
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.SellResult;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Date;
+import java.util.List;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static org.junit.Assert.*;
+
+public class CachingInventoryRepositoryTest {
+
+    private JdbcInventoryRepository backing;
+    private CachingInventoryRepository repo;
+
+    @Before
+    public void setup() throws Exception {
+        clear();
+        backing = new JdbcInventoryRepository();
+        repo = new CachingInventoryRepository(backing, 100);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        clear();
+    }
+
+    @Test
+    public void repeatedLookupsAreServedFromCache() throws Exception {
+        repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "New"));
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Honda", repo.findByEngineNumber("1000000001").getBrand());
+        }
+        // the insert drops the entry; the first lookup loads it
+        CachingInventoryRepository.Stats stats = repo.getStats();
+        assertEquals(9, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    public void negativeLookupsAreCachedAndInvalidatedByInsert() throws Exception {
+        assertNull(repo.findByEngineNumber("1000000002"));
+        assertNull(repo.findByEngineNumber("1000000002"));
+        assertEquals(1, repo.getStats().misses());
+        assertEquals(1, repo.getStats().negativeHits());
+
+        repo.insert(new InventoryData("Yamaha", "1000000002", new Date(), "On-hand", "New"));
+        assertNotNull(repo.findByEngineNumber("1000000002"));
+
+        repo.insertAll(List.of(new InventoryData("Suzuki", "1000000003", new Date(), "On-hand", "New")));
+        assertNotNull(repo.findByEngineNumber("1000000003"));
+    }
+
+    @Test
+    public void updateAndDeleteKeepCacheExact() throws Exception {
+        repo.insert(new InventoryData("Ford", "1000000004", new Date(), "On-hand", "New"));
+
+        InventoryData r = repo.findByEngineNumber("1000000004");
+        InventoryData sold = r.withStatusAndLevel("Old", "Sold");   // a new snapshot; cache unchanged
+        assertEquals("On-hand", repo.findByEngineNumber("1000000004").getStatus());
+        assertEquals("On-hand", r.getStatus());
+
+        repo.update(sold);
+        assertEquals("Old", repo.findByEngineNumber("1000000004").getStatus());
+        assertEquals("Old", backing.findByEngineNumber("1000000004").getStatus());
+
+        repo.deleteByEngineNumber("1000000004");
+        assertNull(repo.findByEngineNumber("1000000004"));
+        assertNull(backing.findByEngineNumber("1000000004"));
+    }
+
+    @Test
+    public void rejectedSellDoesNotCacheRowOverwrittenMeanwhile() throws Exception {
+        CachingInventoryRepository[] cached = new CachingInventoryRepository[1];
+        // another writer's update commits after the sell read the row but before it returns
+        JdbcInventoryRepository racing = new JdbcInventoryRepository() {
+            @Override
+            public SellResult sell(String engineNumber, String expectedStatus, String user, String details) throws Exception {
+                SellResult r = super.sell(engineNumber, expectedStatus, user, details);
+                cached[0].update(new InventoryData("Kia", engineNumber, new Date(), "On-hand", "New"));
+                return r;
+            }
+        };
+        cached[0] = new CachingInventoryRepository(racing, 100);
+        cached[0].insert(new InventoryData("Kia", "1000000005", new Date(), "Old", "Sold"));
+
+        SellResult r = cached[0].sell("1000000005", "On-hand", "admin", "test");
+        assertEquals(SellResult.Outcome.WRONG_STATUS, r.outcome());
+        assertEquals("Old", r.record().getStatus());
+        assertEquals("On-hand", cached[0].findByEngineNumber("1000000005").getStatus());
+    }
+
+    @Test
+    public void lateInsertDoesNotResurrectRowDeletedMeanwhile() throws Exception {
+        CachingInventoryRepository[] cached = new CachingInventoryRepository[1];
+        // a second writer deletes the row after the insert committed but before it returns
+        JdbcInventoryRepository racing = new JdbcInventoryRepository() {
+            @Override
+            public void insert(InventoryData d) throws Exception {
+                super.insert(d);
+                cached[0].deleteByEngineNumber(d.getEngineNumber());
+            }
+        };
+        cached[0] = new CachingInventoryRepository(racing, 100);
+        cached[0].insert(new InventoryData("Kia", "1000000006", new Date(), "On-hand", "New"));
+
+        assertNull(backing.findByEngineNumber("1000000006"));
+        assertNull(cached[0].findByEngineNumber("1000000006"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyUsed() throws Exception {
+        CachingInventoryRepository small = new CachingInventoryRepository(backing, 3);
+        for (int i = 0; i < 5; i++) {
+            small.findByEngineNumber(eng(i));
+        }
+        CachingInventoryRepository.Stats stats = small.getStats();
+        assertEquals(3, stats.size());
+        assertEquals(2, stats.evictions());
+
+        small.findByEngineNumber("0000000004");   // still cached
+        small.findByEngineNumber("0000000000");   // evicted earlier
+        assertEquals(1, small.getStats().negativeHits());
+        assertEquals(6, small.getStats().misses());
+    }
+
+    @Test
+    public void hotKeyWorkloadHitRatio() throws Exception {
+        int total = 500;
+        for (int i = 0; i < total; i++) {
+            backing.insert(new InventoryData("Brand" + i, eng(i), new Date(), "On-hand", "New"));
+        }
+        for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < 50; i++) {
+                assertNotNull(repo.findByEngineNumber(eng(i)));
+            }
+        }
+        CachingInventoryRepository.Stats stats = repo.getStats();
+        logBanner("Record Cache");
+        System.out.println("Lookups   : " + (stats.hits() + stats.misses()));
+        System.out.println("Hit ratio : " + String.format("%.2f", stats.hitRatio()) + "\n");
+        assertEquals(50, stats.misses());
+        assertTrue(stats.hitRatio() > 0.9);
+    }
+
+    private void clear() throws Exception {
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
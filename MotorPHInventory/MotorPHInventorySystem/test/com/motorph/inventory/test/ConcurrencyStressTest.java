@@ -0,0 +1,239 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.BulkInsertResult;
+import com.motorph.inventory.CachingInventoryRepository;
+import com.motorph.inventory.InventoryBST;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.InventoryRepository;
+import org.junit.Test;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static com.motorph.inventory.test.Fixtures.rec;
+import static org.junit.Assert.*;
+
+public class ConcurrencyStressTest {
+
+    private static final int WRITERS = 8;
+    private static final int READERS = 8;
+    private static final int KEYS_PER_WRITER = 2_000;
+    private static final int ROUNDS = 20_000;
+
+    @Test
+    public void orderedIndexSurvivesConcurrentReadersAndWriters() throws Exception {
+        logBanner("InventoryBST: " + WRITERS + " writers x " + READERS + " readers");
+        InventoryBST bst = new InventoryBST();
+        // writer w owns keys congruent to w mod WRITERS, so the final state is predictable
+        boolean[][] present = new boolean[WRITERS][KEYS_PER_WRITER];
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+
+        for (int w = 0; w < WRITERS; w++) {
+            int id = w;
+            threads.add(new Thread(() -> {
+                await(start);
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                for (int r = 0; r < ROUNDS; r++) {
+                    int slot = rnd.nextInt(KEYS_PER_WRITER);
+                    long key = (long) slot * WRITERS + id;
+                    switch (rnd.nextInt(3)) {
+                        case 0 -> {
+                            bst.insert(rec(key, "On-hand", "New"));
+                            present[id][slot] = true;
+                        }
+                        case 1 -> {
+                            bst.delete(eng(key));
+                            present[id][slot] = false;
+                        }
+                        default -> {
+                            boolean replaced = bst.replace(rec(key, "On-hand", "Sold"));
+                            if (replaced != present[id][slot]) failures.add("replace " + key + " -> " + replaced);
+                        }
+                    }
+                }
+            }, "writer-" + w));
+        }
+        for (int r = 0; r < READERS; r++) {
+            threads.add(new Thread(() -> {
+                await(start);
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (writing.get()) {
+                    List<InventoryData> snap = bst.snapshot();
+                    for (int i = 1; i < snap.size(); i++) {
+                        if (snap.get(i - 1).getEngineNumber().compareTo(snap.get(i).getEngineNumber()) >= 0) {
+                            failures.add("snapshot out of order at " + i);
+                            break;
+                        }
+                    }
+                    long key = rnd.nextLong((long) WRITERS * KEYS_PER_WRITER);
+                    InventoryData d = bst.search(eng(key));
+                    if (d != null && !d.getEngineNumber().equals(eng(key))) failures.add("search " + key);
+                    long from = rnd.nextLong((long) WRITERS * KEYS_PER_WRITER);
+                    for (InventoryData x : bst.range(eng(from), eng(from + 200))) {
+                        String k = x.getEngineNumber();
+                        if (k.compareTo(eng(from)) < 0 || k.compareTo(eng(from + 200)) > 0) failures.add("range " + k);
+                    }
+                    int size = bst.size();
+                    if (size < 0 || size > WRITERS * KEYS_PER_WRITER) failures.add("size " + size);
+                }
+            }, "reader-" + r));
+        }
+
+        long t0 = System.nanoTime();
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (int i = 0; i < WRITERS; i++) threads.get(i).join();
+        writing.set(false);
+        for (Thread t : threads) t.join();
+        System.out.printf("%d writer ops in %d ms%n", WRITERS * ROUNDS, (System.nanoTime() - t0) / 1_000_000);
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        int expected = 0;
+        for (int w = 0; w < WRITERS; w++) {
+            for (int slot = 0; slot < KEYS_PER_WRITER; slot++) {
+                long key = (long) slot * WRITERS + w;
+                assertEquals(eng(key), present[w][slot], bst.search(eng(key)) != null);
+                if (present[w][slot]) expected++;
+            }
+        }
+        assertEquals(expected, bst.size());
+        assertEquals(expected, bst.snapshot().size());
+        assertTrue(bst.height() <= 2 * (32 - Integer.numberOfLeadingZeros(expected + 1)));
+    }
+
+    @Test
+    public void cacheNeverServesStaleRecordsAfterConcurrentWrites() throws Exception {
+        logBanner("CachingInventoryRepository: concurrent updates vs lookups");
+        MapRepository backing = new MapRepository();
+        CachingInventoryRepository cache = new CachingInventoryRepository(backing, 500);
+        int keys = 1_000;
+        for (int i = 0; i < keys; i++) backing.insert(rec(i, "On-hand", "New"));
+
+        ConcurrentLinkedQueue<String> failures = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            boolean writer = t % 4 == 0;
+            threads.add(new Thread(() -> {
+                await(start);
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                try {
+                    for (int r = 0; r < 20_000; r++) {
+                        long key = rnd.nextInt(keys);
+                        if (writer) {
+                            cache.update(rec(key, "On-hand", rnd.nextBoolean() ? "New" : "Sold"));
+                        } else {
+                            InventoryData d = cache.findByEngineNumber(eng(key));
+                            if (d == null || !d.getEngineNumber().equals(eng(key))) failures.add("lookup " + key);
+                        }
+                    }
+                } catch (Exception e) {
+                    failures.add(e.toString());
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        start.countDown();
+        for (Thread t : threads) t.join();
+
+        assertTrue(failures.toString(), failures.isEmpty());
+        // once writers are quiet, every cached answer must match the backing store
+        for (int i = 0; i < keys; i++) {
+            assertEquals(backing.findByEngineNumber(eng(i)), cache.findByEngineNumber(eng(i)));
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+
+    // Thread-safe in-memory delegate, so the cache test does not depend on SQLite timing.
+    private static final class MapRepository implements InventoryRepository {
+        private final Map<String, InventoryData> rows = new ConcurrentHashMap<>();
+
+        @Override
+        public void insert(InventoryData d) throws SQLException {
+            if (rows.putIfAbsent(d.getEngineNumber(), d) != null) {
+                throw new SQLException("Duplicate engine number: " + d.getEngineNumber());
+            }
+        }
+
+        @Override
+        public InventoryData findByEngineNumber(String engineNumber) {
+            // widen the window between read and cache fill
+            if (ThreadLocalRandom.current().nextInt(8) == 0) Thread.yield();
+            return rows.get(engineNumber);
+        }
+
+        @Override
+        public void update(InventoryData d) {
+            rows.replace(d.getEngineNumber(), d);
+        }
+
+        @Override
+        public void deleteByEngineNumber(String engineNumber) {
+            rows.remove(engineNumber);
+        }
+
+        @Override
+        public List<InventoryData> findAllSortedByEngineNumber() {
+            List<InventoryData> out = new ArrayList<>(rows.values());
+            out.sort((a, b) -> a.getEngineNumber().compareTo(b.getEngineNumber()));
+            return out;
+        }
+
+        @Override
+        public List<InventoryData> findPage(String afterEngineNumber, int limit) {
+            List<InventoryData> out = new ArrayList<>();
+            for (InventoryData d : findAllSortedByEngineNumber()) {
+                if (afterEngineNumber != null && d.getEngineNumber().compareTo(afterEngineNumber) <= 0) continue;
+                if (out.size() == limit) break;
+                out.add(d);
+            }
+            return out;
+        }
+
+        @Override
+        public void forEachSortedByEngineNumber(Consumer<? super InventoryData> action) {
+            findAllSortedByEngineNumber().forEach(action);
+        }
+
+        @Override
+        public BulkInsertResult insertAll(Iterable<InventoryData> rows) {
+            BulkInsertResult result = new BulkInsertResult();
+            int inserted = 0;
+            long pos = -1;
+            for (InventoryData d : rows) {
+                pos++;
+                try {
+                    insert(d);
+                    inserted++;
+                } catch (SQLException e) {
+                    result.reject(pos, d.getEngineNumber(), "Duplicate engine number");
+                }
+            }
+            result.addInserted(inserted);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.CsvInventoryImporter;
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.Reader;
+import java.io.StringReader;
+
+import static org.junit.Assert.*;
+
+public class CsvInventoryImporterTest {
+
+    private JdbcInventoryRepository repo;
+    private CsvInventoryImporter importer;
+
+    @Before
+    public void setup() throws Exception {
+        repo = new JdbcInventoryRepository();
+        importer = new CsvInventoryImporter(repo);
+        clear();
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        clear();
+    }
+
+    @Test
+    public void importsValidRowsAndReportsBadLines() throws Exception {
+        String csv = """
+                engine_number,brand,date_entered,status,level
+                1000000001,Honda,2024-05-01,On-hand,New
+                1000000002,"Suzuki, Inc.",,,
+                12X,Yamaha,,,
+                1000000003,,,,
+                1000000001,Kawasaki,,,
+                1000000004,Ducati,not-a-date,,
+                """;
+        CsvInventoryImporter.Report report = importer.importFrom(new StringReader(csv));
+
+        assertEquals(6, report.getLinesRead());
+        assertEquals(2, report.getInserted());
+        assertEquals(4, report.getErrors().size());
+        assertEquals(4, report.getErrors().get(0).line());
+        assertEquals("Invalid engine number format", report.getErrors().get(0).reason());
+        assertEquals("Missing brand", report.getErrors().get(1).reason());
+        assertTrue(report.getErrors().get(2).reason().startsWith("Invalid date_entered"));
+        assertEquals(6, report.getErrors().get(3).line());
+        assertEquals("Duplicate engine number", report.getErrors().get(3).reason());
+
+        InventoryData quoted = repo.findByEngineNumber("1000000002");
+        assertEquals("Suzuki, Inc.", quoted.getBrand());
+        assertEquals("On-hand", quoted.getStatus());
+        assertEquals("New", quoted.getLevel());
+    }
+
+    @Test
+    public void streamsLargeImportWithoutMaterializingFile() throws Exception {
+        int total = 200_000;
+        long start = System.currentTimeMillis();
+        CsvInventoryImporter.Report report = importer.importFrom(new GeneratedCsv(total));
+        long ms = System.currentTimeMillis() - start;
+
+        logBanner("CSV Bulk Import");
+        System.out.println("Rows     : " + total);
+        System.out.println("Inserted : " + report.getInserted());
+        System.out.println("Elapsed  : " + ms + " ms\n");
+        assertEquals(total, report.getInserted());
+        assertTrue(report.getErrors().isEmpty());
+    }
+
+    private void clear() throws Exception {
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    // Produces CSV lines on demand so the test itself never holds the whole file.
+    private static final class GeneratedCsv extends Reader {
+        private final int rows;
+        private int next;
+        private String line = "";
+        private int pos;
+
+        GeneratedCsv(int rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public int read(char[] buf, int off, int len) {
+            if (pos == line.length()) {
+                if (next == rows) return -1;
+                line = String.format("%010d,Brand%d,%d,On-hand,New%n", next, next % 50, 1_700_000_000_000L + next);
+                next++;
+                pos = 0;
+            }
+            int n = Math.min(len, line.length() - pos);
+            line.getChars(pos, pos + n, buf, off);
+            pos += n;
+            return n;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,118 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.Metrics;
+import com.motorph.inventory.OperationMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class DBConnectionPoolTest {
+
+    @After
+    public void cleanup() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    @Test
+    public void closedConnectionCannotBeReused() throws Exception {
+        Connection c = DB.getConnection();
+        c.close();
+        assertTrue(c.isClosed());
+        try {
+            c.createStatement();
+            fail("Expected SQLException on a returned connection");
+        } catch (SQLException expected) {
+            // ok
+        }
+    }
+
+    @Test
+    public void uncommittedWorkIsRolledBackOnReturn() throws Exception {
+        try (Connection c = DB.getConnection()) {
+            c.setAutoCommit(false);
+            try (Statement st = c.createStatement()) {
+                st.executeUpdate("INSERT INTO inventory(engine_number, brand, date_entered, status, level) "
+                        + "VALUES('5555555555','Yamaha',0,'On-hand','New')");
+            }
+            // closed without commit
+        }
+        try (Connection c = DB.getConnection();
+             PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM inventory WHERE engine_number='5555555555'");
+             ResultSet rs = ps.executeQuery()) {
+            assertTrue(c.getAutoCommit());
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+    }
+
+    @Test
+    public void manySequentialBorrowsAreCheap() throws Exception {
+        int total = 5_000;
+        OperationMetrics acquire = Metrics.operation("db.getConnection");
+        long acquiredBefore = acquire.getCount();
+        long errorsBefore = acquire.getErrorCount();
+        Set<Connection> physical = Collections.newSetFromMap(new IdentityHashMap<>());
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            try (Connection c = DB.getConnection();
+                 PreparedStatement ps = c.prepareStatement("SELECT 1");
+                 ResultSet rs = ps.executeQuery()) {
+                assertTrue(rs.next());
+                physical.add(c.unwrap(Connection.class));
+            }
+        }
+        long ms = (System.nanoTime() - start) / 1_000_000;
+        logBanner("Connection Pool Reuse");
+        System.out.println("Borrows : " + total);
+        System.out.println("Physical: " + physical.size());
+        System.out.println("Elapsed : " + ms + " ms\n");
+        // every borrow went through the pool (other threads may add to the counters), and
+        // was served by one of its few physical connections
+        assertTrue(acquire.getCount() - acquiredBefore >= total);
+        assertEquals(errorsBefore, acquire.getErrorCount());
+        assertTrue("physical connections: " + physical.size(), physical.size() <= DB.getProfile().getPoolSize());
+    }
+
+    @Test
+    public void concurrentBorrowersAllSucceed() throws Exception {
+        int threads = 16;
+        int perThread = 200;
+        Thread[] workers = new Thread[threads];
+        final int[] failures = new int[1];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    try (Connection c = DB.getConnection();
+                         PreparedStatement ps = c.prepareStatement("SELECT COUNT(*) FROM inventory");
+                         ResultSet rs = ps.executeQuery()) {
+                        rs.next();
+                    } catch (SQLException e) {
+                        synchronized (failures) {
+                            failures[0]++;
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        assertEquals(0, failures[0]);
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,120 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.EngineNumberIndex;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static org.junit.Assert.*;
+
+public class EngineNumberIndexTest {
+
+    private static final long ABSENT = EngineNumberIndex.ABSENT;
+
+    @Test
+    public void putGetRemoveWithStringKeys() {
+        EngineNumberIndex idx = new EngineNumberIndex();
+        assertEquals(ABSENT, idx.put("0000000042", 7));
+        assertEquals(7, idx.get("0000000042"));
+        assertEquals(ABSENT, idx.get("42"));
+        assertEquals(ABSENT, idx.get("ABCDEFGHIJ"));
+        assertEquals(ABSENT, idx.get(null));
+
+        assertEquals(7, idx.put("0000000042", 9));
+        assertEquals(1, idx.size());
+        assertEquals(9, idx.remove("0000000042"));
+        assertTrue(idx.isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsMalformedEngineNumber() {
+        new EngineNumberIndex().put("12X", 1);
+    }
+
+    @Test
+    public void orderedIterationAndRange() {
+        EngineNumberIndex idx = new EngineNumberIndex();
+        for (int i = 99; i >= 0; i--) {
+            idx.put(eng(i * 10), i);
+        }
+        long[] all = idx.valuesInOrder();
+        assertEquals(100, all.length);
+        assertEquals(0, all[0]);
+        assertEquals(99, all[99]);
+
+        List<Long> range = new ArrayList<>();
+        idx.forEachInRange("0000000015", "0000000050", range::add);
+        assertEquals(List.of(2L, 3L, 4L, 5L), range);
+
+        assertArrayEquals(new long[] {2, 3, 4}, idx.valuesAfter("0000000010", 3));
+        assertArrayEquals(new long[] {2, 3}, idx.valuesAfter("0000000015", 2));
+        assertArrayEquals(new long[] {2}, idx.valuesAfter("0000000010x", 1));   // compared as text
+        assertEquals(0, idx.valuesAfter("0000000990", 10).length);
+    }
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        EngineNumberIndex idx = new EngineNumberIndex();
+        TreeMap<String, Long> expected = new TreeMap<>();
+        Random rnd = new Random(7);
+        for (int i = 0; i < 300_000; i++) {
+            String key = eng(rnd.nextInt(25_000) * 4_001L);
+            if (rnd.nextInt(3) == 0) {
+                assertEquals(expected.getOrDefault(key, ABSENT).longValue(), idx.remove(key));
+                expected.remove(key);
+            } else {
+                long v = i;
+                Long prev = expected.put(key, v);
+                assertEquals(prev != null ? prev : ABSENT, idx.put(key, v));
+            }
+        }
+        assertEquals(expected.size(), idx.size());
+        assertArrayEquals(expected.values().stream().mapToLong(Long::longValue).toArray(), idx.valuesInOrder());
+    }
+
+    @Test
+    public void readersSeeConsistentIndexWhileWriting() throws Exception {
+        EngineNumberIndex idx = new EngineNumberIndex();
+        int total = 50_000;
+        Thread writer = new Thread(() -> {
+            for (int i = 0; i < total; i++) idx.put(eng(i), i);
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            long[] seen = idx.valuesInOrder();
+            // keys and values rise together, so an ordered read is strictly increasing
+            for (int i = 1; i < seen.length; i++) assertTrue(seen[i - 1] < seen[i]);
+        }
+        writer.join();
+        assertEquals(total, idx.valuesInOrder().length);
+    }
+
+    @Test
+    public void millionSequentialKeys() {
+        int total = 1_000_000;
+        EngineNumberIndex idx = new EngineNumberIndex(total);
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            idx.put(eng(i), i);
+        }
+        long insertMs = (System.nanoTime() - start) / 1_000_000;
+        start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            assertEquals(i, idx.get(eng(i)));
+        }
+        long lookupMs = (System.nanoTime() - start) / 1_000_000;
+
+        logBanner("Long-keyed Index (1M sequential keys)");
+        System.out.println("Insert : " + insertMs + " ms");
+        System.out.println("Lookup : " + lookupMs + " ms\n");
+        assertEquals(total, idx.size());
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,24 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.InventoryData;
+
+import java.util.Date;
+
+// Shared test data. eng(i) is the 10-digit engine number for i, and records built from the
+// same arguments are equal, so a test can rebuild an expected row instead of keeping it.
+final class Fixtures {
+
+    static String eng(long i) {
+        return String.format("%010d", i);
+    }
+
+    static InventoryData rec(long i) {
+        return rec(i, "On-hand", "New");
+    }
+
+    static InventoryData rec(long i, String status, String level) {
+        return new InventoryData("Brand" + (i % 5), eng(i), new Date(1_700_000_000_000L + i), status, level);
+    }
+
+    private Fixtures() {}
+}
@@ -0,0 +1,110 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.IncrementalReconciler;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.ReconcileResult;
+import com.motorph.inventory.ReconcileRule;
+import com.motorph.inventory.SqlReconciler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static com.motorph.inventory.test.Fixtures.rec;
+import static org.junit.Assert.*;
+
+public class IncrementalReconcilerTest {
+
+    private JdbcInventoryRepository repo;
+    private IncrementalReconciler reconciler;
+
+    @Before
+    public void setup() throws Exception {
+        clear();
+        repo = new JdbcInventoryRepository();
+        reconciler = new IncrementalReconciler();
+        List<InventoryData> rows = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) rows.add(rec(i, "On-hand", i % 100 == 0 ? "Sold" : "New"));
+        repo.insertAll(rows);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        clear();
+    }
+
+    @Test
+    public void onlyChangedRowsAreReexamined() throws Exception {
+        ReconcileResult first = reconciler.run(null);   // no checkpoint yet: full pass
+        assertEquals(3_000, first.getScanned());
+        assertEquals(30, first.getCount(ReconcileRule.ON_HAND_SOLD));
+
+        assertEquals(0, reconciler.run(null).getScanned());
+
+        repo.update(rec(100, "Old", "Sold"));             // fixes an issue
+        repo.update(rec(101, "Old", "New"));              // introduces one
+        repo.deleteByEngineNumber(eng(200));   // issue goes with the row
+        repo.insert(new InventoryData("", "12X", new Date(), "Lost", "New"));
+
+        List<String> issues = new ArrayList<>();
+        ReconcileResult second = reconciler.run(issue -> issues.add(issue.toString()));
+        assertEquals(3, second.getScanned());
+        assertEquals(28, second.getCount(ReconcileRule.ON_HAND_SOLD));
+        assertEquals(1, second.getCount(ReconcileRule.OLD_NEW));
+        assertEquals(1, second.getCount(ReconcileRule.INVALID_ENGINE_NUMBER));
+        assertEquals(second.getTotalIssues(), issues.size());
+        assertEquals(fromScratch(), sorted(issues));
+    }
+
+    @Test
+    public void rescanMatchesIncrementalState() throws Exception {
+        reconciler.run(null);
+        for (int i = 0; i < 3_000; i += 7) repo.update(rec(i, i % 2 == 0 ? "Old" : "On-hand", "Sold"));
+        for (int i = 1; i < 3_000; i += 11) repo.deleteByEngineNumber(eng(i));
+        List<String> incremental = new ArrayList<>();
+        ReconcileResult inc = reconciler.run(issue -> incremental.add(issue.toString()));
+
+        List<String> full = new ArrayList<>();
+        ReconcileResult rescan = reconciler.rescan(issue -> full.add(issue.toString()));
+        assertTrue(inc.getScanned() < rescan.getScanned());
+        assertEquals(rescan.getCountsByRule(), inc.getCountsByRule());
+        assertEquals(full, incremental);
+        assertEquals(fromScratch(), sorted(full));
+        logBanner("Incremental Reconcile");
+        System.out.println("incremental: " + inc + " in " + inc.getElapsedMillis() + " ms");
+        System.out.println("rescan:      " + rescan + " in " + rescan.getElapsedMillis() + " ms");
+    }
+
+    private static List<String> fromScratch() throws Exception {
+        List<String> out = new ArrayList<>();
+        new SqlReconciler().run(issue -> out.add(issue.toString()));
+        return sorted(out);
+    }
+
+    private static List<String> sorted(List<String> issues) {
+        List<String> copy = new ArrayList<>(issues);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    private void clear() throws Exception {
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+            st.executeUpdate("DELETE FROM inventory");
+            st.executeUpdate("DELETE FROM inventory_deleted");
+            st.executeUpdate("DELETE FROM reconcile_issue");
+            st.executeUpdate("DELETE FROM reconcile_state");
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,107 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.InventoryBST;
+import com.motorph.inventory.InventoryData;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static com.motorph.inventory.test.Fixtures.rec;
+import static org.junit.Assert.*;
+
+public class InventoryBSTTest {
+
+    @Test
+    public void millionSequentialKeysStayBalanced() {
+        InventoryBST bst = new InventoryBST();
+        int total = 1_000_000;
+        long start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            bst.insert(rec(i));
+        }
+        long insertMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(total, bst.size());
+        int maxHeight = (int) Math.ceil(2 * Math.log(total + 1) / Math.log(2));
+        assertTrue("height " + bst.height() + " exceeds " + maxHeight, bst.height() <= maxHeight);
+
+        start = System.nanoTime();
+        for (int i = 0; i < total; i++) {
+            assertNotNull(bst.search(eng(i)));
+        }
+        long searchMs = (System.nanoTime() - start) / 1_000_000;
+        assertNull(bst.search(eng(total)));
+
+        for (int i = 0; i < total; i += 2) {
+            bst.delete(eng(i));
+        }
+        assertEquals(total / 2, bst.size());
+        assertTrue(bst.height() <= maxHeight);
+        assertNull(bst.search(eng(10)));
+        assertNotNull(bst.search(eng(11)));
+
+        logBanner("Balanced BST (1M sequential keys)");
+        System.out.println("Insert : " + insertMs + " ms");
+        System.out.println("Search : " + searchMs + " ms");
+        System.out.println("Height : " + bst.height() + "\n");
+    }
+
+    @Test
+    public void floorCeilingAndRange() {
+        InventoryBST bst = new InventoryBST();
+        for (int i = 10; i <= 100; i += 10) {
+            bst.insert(rec(i));
+        }
+        assertEquals(eng(30), bst.floor(eng(35)).getEngineNumber());
+        assertEquals(eng(40), bst.ceiling(eng(35)).getEngineNumber());
+        assertEquals(eng(30), bst.floor(eng(30)).getEngineNumber());
+        assertNull(bst.floor(eng(5)));
+        assertNull(bst.ceiling(eng(101)));
+
+        List<InventoryData> r = bst.range(eng(25), eng(70));
+        assertEquals(5, r.size());
+        assertEquals(eng(30), r.get(0).getEngineNumber());
+        assertEquals(eng(70), r.get(4).getEngineNumber());
+        assertTrue(bst.range(eng(71), eng(79)).isEmpty());
+    }
+
+    @Test
+    public void randomOperationsMatchTreeMap() {
+        InventoryBST bst = new InventoryBST();
+        TreeMap<String, InventoryData> expected = new TreeMap<>();
+        Random rnd = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long k = rnd.nextInt(20_000);
+            String key = eng(k);
+            if (rnd.nextInt(3) == 0) {
+                bst.delete(key);
+                expected.remove(key);
+            } else {
+                InventoryData d = rec(k);
+                bst.insert(d);
+                expected.putIfAbsent(key, d);
+            }
+        }
+        assertEquals(expected.size(), bst.size());
+        java.util.Iterator<InventoryData> it = expected.values().iterator();
+        bst.forEach(d -> assertSame(it.next(), d));
+        assertFalse(it.hasNext());
+    }
+
+    @Test
+    public void duplicateInsertKeepsOriginal() {
+        InventoryBST bst = new InventoryBST();
+        InventoryData first = rec(1_234_567_890L);
+        bst.insert(first);
+        bst.insert(new InventoryData("Other", "1234567890", null, "Old", "Sold"));
+        assertEquals(1, bst.size());
+        assertSame(first, bst.search("1234567890"));
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,83 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.InventoryColumns;
+import com.motorph.inventory.InventoryData;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static org.junit.Assert.*;
+
+public class InventoryColumnsTest {
+
+    private static InventoryData rec(long i) {
+        return new InventoryData("Brand" + (i % 5), eng(i), new Date(1_700_000_000_000L + i),
+                i % 2 == 0 ? "On-hand" : "Old", i % 3 == 0 ? "Sold" : "New");
+    }
+
+    @Test
+    public void rowsReadBackAsEqualViews() {
+        List<InventoryData> rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) rows.add(rec(i));
+        rows.add(new InventoryData(null, "ABC-1", null, "on-hand", "Used"));   // nothing packs or codes
+        rows.add(new InventoryData("", null, new Date(0), null, null));
+
+        InventoryColumns c = new InventoryColumns(16);
+        rows.forEach(c::add);
+        assertEquals(rows.size(), c.size());
+        List<InventoryData> back = new ArrayList<>();
+        c.forEach(back::add);
+        assertEquals(rows, back);
+
+        assertTrue(c.hasValidEngineNumber(0));
+        assertFalse(c.hasValidEngineNumber(5_000));
+        assertEquals("ABC-1", c.engineNumber(5_000));
+        assertNull(c.engineNumber(5_001));
+        assertFalse(c.hasDateEntered(5_000));
+        assertNull(c.dateEntered(5_000));
+        assertEquals(InventoryData.Status.ON_HAND, c.statusCode(0));
+        assertEquals(InventoryData.Level.SOLD, c.levelCode(3));
+        assertNull(c.statusCode(5_000));
+        assertNull(c.levelCode(5_000));
+    }
+
+    @Test
+    public void manyDistinctValuesWidenTheCodes() {
+        InventoryColumns c = new InventoryColumns();
+        List<InventoryData> rows = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            rows.add(new InventoryData("Brand-" + i, eng(i), new Date(i), "On-hand", "New"));
+        }
+        rows.forEach(c::add);
+        for (int i = 0; i < rows.size(); i++) assertEquals(rows.get(i), c.get(i));
+        c.clear();
+        assertEquals(0, c.size());
+        c.add(rows.get(999));
+        assertEquals(rows.get(999), c.get(0));
+    }
+
+    @Test
+    public void repeatedValuesShareOneString() {
+        InventoryData a = new InventoryData(new String("Honda"), "0000000001", new Date(), new String("On-hand"), new String("New"));
+        InventoryData b = new InventoryData(new String("Honda"), "0000000002", new Date(), new String("On-hand"), new String("New"));
+        assertSame(a.getBrand(), b.getBrand());
+        assertSame(a.getStatus(), b.getStatus());
+        assertSame(InventoryData.Status.ON_HAND.label(), a.getStatus());
+        assertSame(InventoryData.Level.NEW.label(), b.getLevel());
+
+        InventoryData sold = a.withStatusAndLevel(InventoryData.Status.OLD, InventoryData.Level.SOLD);
+        assertEquals(a.withStatusAndLevel("Old", "Sold"), sold);
+        assertEquals(InventoryData.Status.OLD, sold.getStatusCode());
+        assertEquals(a.getDateEntered(), sold.getDateEntered());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void readPastSizeFails() {
+        InventoryColumns c = new InventoryColumns();
+        c.add(rec(1));
+        c.brand(1);
+    }
+}
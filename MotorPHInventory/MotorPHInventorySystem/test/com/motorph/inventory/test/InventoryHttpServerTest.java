@@ -0,0 +1,187 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.AuditLogger;
+import com.motorph.inventory.AuthService;
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.InventoryHttpServer;
+import com.motorph.inventory.JdbcInventoryRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class InventoryHttpServerTest {
+
+    private JdbcInventoryRepository repo;
+    private InventoryHttpServer server;
+    private HttpClient client;
+    private String base;
+
+    @Before
+    public void setup() throws Exception {
+        clear();
+        repo = new JdbcInventoryRepository();
+        server = new InventoryHttpServer(new InetSocketAddress("127.0.0.1", 0), repo, new AuditLogger(), new AuthService());
+        server.start();
+        client = HttpClient.newHttpClient();
+        base = "http://127.0.0.1:" + server.getPort() + "/api/";
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        server.close();
+        clear();
+    }
+
+    @Test
+    public void requiresCredentials() throws Exception {
+        assertEquals(401, send("GET", "inventory", null, null).statusCode());
+        assertEquals(401, send("GET", "inventory", "admin:wrong", null).statusCode());
+        assertEquals(200, send("GET", "health", null, null).statusCode());
+    }
+
+    @Test
+    public void bearerTokenFromSessionRoute() throws Exception {
+        assertEquals(401, send("POST", "session", "admin:wrong", null).statusCode());
+        HttpResponse<String> login = send("POST", "session", "user:user123", null);
+        assertEquals(201, login.statusCode());
+        Matcher m = Pattern.compile("\"token\":\"([^\"]+)\"").matcher(login.body());
+        assertTrue(login.body(), m.find());
+        String bearer = "Bearer " + m.group(1);
+
+        assertEquals(200, sendAuthorized("GET", "inventory", bearer).statusCode());
+        assertEquals(403, sendAuthorized("POST", "inventory/1000000001/sell", bearer).statusCode());
+        assertEquals(200, sendAuthorized("DELETE", "session", bearer).statusCode());
+        assertEquals(401, sendAuthorized("GET", "inventory", bearer).statusCode());
+    }
+
+    @Test
+    public void rescanNeedsAdmin() throws Exception {
+        assertEquals(403, send("POST", "reconcile?mode=rescan", "user:user123", null).statusCode());
+        assertEquals(200, send("POST", "reconcile?mode=scan", "user:user123", null).statusCode());
+        assertEquals(200, send("POST", "reconcile?mode=rescan", "admin:admin123", null).statusCode());
+    }
+
+    @Test
+    public void internalErrorsDoNotLeakDetails() throws Exception {
+        JdbcInventoryRepository failing = new JdbcInventoryRepository() {
+            @Override
+            public InventoryData findByEngineNumber(String engineNumber) throws java.sql.SQLException {
+                throw new java.sql.SQLException("no such table: inventory_secret in /srv/motorph/data.db");
+            }
+        };
+        try (InventoryHttpServer broken = new InventoryHttpServer(new InetSocketAddress("127.0.0.1", 0), failing,
+                new AuditLogger(), new AuthService())) {
+            broken.start();
+            base = "http://127.0.0.1:" + broken.getPort() + "/api/";
+            HttpResponse<String> r = send("GET", "inventory/1000000001", "user:user123", null);
+            assertEquals(500, r.statusCode());
+            assertFalse(r.body(), r.body().contains("inventory_secret"));
+            assertFalse(r.body(), r.body().contains("/srv/motorph"));
+        }
+    }
+
+    @Test
+    public void addSearchListAndSell() throws Exception {
+        HttpResponse<String> added = send("POST", "inventory", "user:user123", "engineNumber=1000000001&brand=Honda");
+        assertEquals(201, added.statusCode());
+        assertTrue(added.body().contains("\"status\":\"On-hand\""));
+        assertEquals(409, send("POST", "inventory", "user:user123", "engineNumber=1000000001&brand=Honda").statusCode());
+        assertEquals(400, send("POST", "inventory", "user:user123", "engineNumber=12X&brand=Honda").statusCode());
+
+        HttpResponse<String> found = send("GET", "inventory/1000000001", "user:user123", null);
+        assertEquals(200, found.statusCode());
+        assertTrue(found.body().contains("\"brand\":\"Honda\""));
+        assertEquals(404, send("GET", "inventory/1000000002", "user:user123", null).statusCode());
+
+        repo.insert(new InventoryData("Suzuki", "1000000002", new Date(), "On-hand", "New"));
+        HttpResponse<String> page = send("GET", "inventory?limit=1", "user:user123", null);
+        assertTrue(page.body().contains("\"next\":\"1000000001\""));
+        page = send("GET", "inventory?limit=1&after=1000000001", "user:user123", null);
+        assertTrue(page.body().contains("1000000002"));
+
+        // selling follows isAdmin(): users are refused, admins succeed
+        assertEquals(403, send("DELETE", "inventory/1000000001", "user:user123", null).statusCode());
+        assertNotNull(repo.findByEngineNumber("1000000001"));
+        HttpResponse<String> sold = send("POST", "inventory/1000000001/sell", "admin:admin123", null);
+        assertEquals(200, sold.statusCode());
+        assertTrue(sold.body().contains("\"level\":\"Sold\""));
+        assertNull(repo.findByEngineNumber("1000000001"));
+
+        HttpResponse<String> audit = send("GET", "audit?engine=1000000001&action=delete", "admin:admin123", null);
+        assertTrue(audit.body().contains("\"outcome\":\"DENIED\""));
+        assertTrue(audit.body().contains("\"outcome\":\"SUCCESS\""));
+    }
+
+    @Test
+    public void servesConcurrentClients() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            repo.insert(new InventoryData("Brand" + i, String.format("%010d", i), new Date(), "On-hand", "New"));
+        }
+        AtomicInteger ok = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 100; t++) {
+            int id = t;
+            threads.add(Thread.ofVirtual().start(() -> {
+                for (int i = 0; i < 10; i++) {
+                    try {
+                        String eng = String.format("%010d", (id + i) % 50);
+                        if (send("GET", "inventory/" + eng, "user:user123", null).statusCode() == 200) ok.incrementAndGet();
+                    } catch (Exception e) {
+                        // counted as a miss
+                    }
+                }
+            }));
+        }
+        for (Thread t : threads) t.join();
+        assertEquals(1_000, ok.get());
+    }
+
+    private HttpResponse<String> send(String method, String path, String credentials, String form) throws Exception {
+        HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(base + path));
+        if (credentials != null) {
+            b.header("Authorization", "Basic "
+                    + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        }
+        if (form != null) {
+            b.header("Content-Type", "application/x-www-form-urlencoded")
+                    .method(method, HttpRequest.BodyPublishers.ofString(form));
+        } else {
+            b.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return client.send(b.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> sendAuthorized(String method, String path, String authorization) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + path))
+                .header("Authorization", authorization)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+        return client.send(req, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private void clear() throws Exception {
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM inventory");
+            st.executeUpdate("DELETE FROM audit_log");
+        }
+    }
+}
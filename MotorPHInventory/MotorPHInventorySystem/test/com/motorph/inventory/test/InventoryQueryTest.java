@@ -0,0 +1,114 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.InventoryQuery;
+import com.motorph.inventory.JdbcInventoryRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class InventoryQueryTest {
+
+    private static final String[] BRANDS = {"Honda", "Yamaha", "Suzuki", "Kawasaki"};
+    private static final String[] STATUSES = {"On-hand", "Old"};
+    private static final String[] LEVELS = {"New", "Sold", "Used"};
+    private static final long DAY = 86_400_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private JdbcInventoryRepository repo;
+    private List<InventoryData> rows;
+
+    @Before
+    public void setup() throws Exception {
+        clear();
+        repo = new JdbcInventoryRepository();
+        Random rnd = new Random(7);
+        rows = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            rows.add(new InventoryData(BRANDS[rnd.nextInt(BRANDS.length)], String.format("%010d", i),
+                    new Date(T0 + rnd.nextInt(90) * DAY), STATUSES[rnd.nextInt(2)], LEVELS[rnd.nextInt(3)]));
+        }
+        repo.insertAll(rows);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        clear();
+    }
+
+    @Test
+    public void combinedPredicatesMatchJavaFilter() throws Exception {
+        Random rnd = new Random(11);
+        for (int round = 0; round < 50; round++) {
+            InventoryQuery q = new InventoryQuery();
+            if (rnd.nextBoolean()) q.brand(BRANDS[rnd.nextInt(BRANDS.length)]);
+            if (rnd.nextBoolean()) q.status(STATUSES[rnd.nextInt(2)]);
+            if (rnd.nextBoolean()) q.level(LEVELS[rnd.nextInt(3)]);
+            if (rnd.nextBoolean()) q.enteredFrom(T0 + rnd.nextInt(90) * DAY);
+            if (rnd.nextBoolean()) q.enteredTo(T0 + rnd.nextInt(90) * DAY);
+
+            List<InventoryData> expected = new ArrayList<>();
+            for (InventoryData d : rows) if (q.matches(d)) expected.add(d);
+            assertEquals(q.toString(), expected, repo.find(q));
+            assertEquals(q.toString(), expected.size(), repo.count(q));
+        }
+    }
+
+    @Test
+    public void pagesWithAfterAndLimit() throws Exception {
+        InventoryQuery q = new InventoryQuery().brand("Honda").status("On-hand").limit(100);
+        long total = repo.count(q);
+        long seen = 0;
+        String last = "";
+        while (true) {
+            List<InventoryData> page = repo.find(q);
+            if (page.isEmpty()) break;
+            for (InventoryData d : page) {
+                assertTrue(d.getEngineNumber().compareTo(last) > 0);
+                assertEquals("Honda", d.getBrand());
+                last = d.getEngineNumber();
+            }
+            seen += page.size();
+            q.after(last);
+        }
+        assertEquals(total, seen);
+        assertTrue(total > 100);
+    }
+
+    @Test
+    public void countsAreAnsweredFromIndexesOnly() throws Exception {
+        List<InventoryQuery> queries = List.of(
+                new InventoryQuery().brand("Honda"),
+                new InventoryQuery().status("On-hand").level("New"),
+                new InventoryQuery().enteredFrom(T0).enteredTo(T0 + 30 * DAY),
+                new InventoryQuery().brand("Honda").status("On-hand").enteredFrom(T0).enteredTo(T0 + 30 * DAY),
+                new InventoryQuery().level("Sold"));
+        logBanner("Inventory Query Plans (count)");
+        for (InventoryQuery q : queries) {
+            List<String> plan = repo.explainCount(q);
+            System.out.println(plan);
+            for (String step : plan) {
+                assertTrue(q + " -> " + step, step.contains("COVERING INDEX"));
+            }
+        }
+    }
+
+    private void clear() throws Exception {
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,148 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.InventoryBST;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.InventoryPager;
+import com.motorph.inventory.InventoryTable;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Scanner;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static org.junit.Assert.*;
+
+public class InventoryTableTest {
+
+    private static final String LEGACY_FORMAT = "%-15s %-12s %-16s %-10s %-10s";
+
+    private static InventoryBST tree(int n) {
+        InventoryBST bst = new InventoryBST();
+        for (int i = 0; i < n; i++) {
+            bst.insert(new InventoryData("Brand" + i, eng(i), new Date(1_700_000_000_000L + i * 60_000L), "On-hand", "New"));
+        }
+        return bst;
+    }
+
+    @Test
+    public void rowsMatchLegacyPrintfLayout() throws Exception {
+        List<InventoryData> rows = List.of(
+                new InventoryData("Honda", "1000000001", new Date(1_700_000_000_000L), "On-hand", "New"),
+                new InventoryData("A brand name longer than fifteen", "1000000002", null, null, "Sold"));
+        StringWriter out = new StringWriter();
+        new InventoryTable(out).header().rows(rows).flush();
+
+        SimpleDateFormat fmt = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        StringBuilder expected = new StringBuilder();
+        String header = String.format(LEGACY_FORMAT, "Brand", "Engine No.", "Date Entered", "Status", "Level");
+        expected.append(header).append(System.lineSeparator())
+                .append("-".repeat(header.length())).append(System.lineSeparator());
+        expected.append(String.format(LEGACY_FORMAT + "%n", "Honda", "1000000001",
+                fmt.format(new Date(1_700_000_000_000L)), "On-hand", "New"));
+        expected.append(String.format(LEGACY_FORMAT + "%n", "A brand name longer than fifteen", "1000000002", "", "", "Sold"));
+        assertEquals(expected.toString(), out.toString());
+    }
+
+    @Test
+    public void largeListingIsWrittenInFewChunks() throws Exception {
+        int total = 100_000;
+        List<InventoryData> rows = tree(total).snapshot();
+        int[] writes = new int[1];
+        Writer sink = new Writer() {
+            @Override public void write(char[] cbuf, int off, int len) { writes[0]++; }
+            @Override public void flush() {}
+            @Override public void close() {}
+        };
+
+        long t0 = System.nanoTime();
+        InventoryTable table = new InventoryTable(sink).header().rows(rows);
+        table.flush();
+        long tableMs = (System.nanoTime() - t0) / 1_000_000;
+
+        t0 = System.nanoTime();
+        StringBuilder legacy = new StringBuilder();
+        for (InventoryData d : rows) {
+            legacy.append(String.format(LEGACY_FORMAT + "%n", d.getBrand(), d.getEngineNumber(),
+                    new SimpleDateFormat("yyyy-MM-dd HH:mm").format(d.getDateEntered()), d.getStatus(), d.getLevel()));
+        }
+        long formatMs = (System.nanoTime() - t0) / 1_000_000;
+
+        logBanner("Table Rendering (" + total + " rows)");
+        System.out.println("Buffered table : " + tableMs + " ms, " + writes[0] + " writes");
+        System.out.println("String.format  : " + formatMs + " ms, " + total + " printf calls\n");
+        assertEquals(total, table.getRowCount());
+        assertTrue("expected chunked output, got " + writes[0] + " writes", writes[0] < total / 100);
+    }
+
+    @Test
+    public void pagerMovesForwardBackAndJumps() throws Exception {
+        InventoryBST bst = tree(60);
+        String screen = page(bst, "\nP\nJ 0000000055\nJ 9999999999\nP\nP\nQ\n");
+        List<String> firstRows = firstRowOfEachPage(screen);
+        assertEquals(List.of(eng(0), eng(25), eng(0), eng(55), "", eng(55), eng(0)), firstRows);
+        assertTrue(screen.contains("(no records at or after 9999999999)"));
+        assertTrue(screen.contains("(end of inventory)"));
+    }
+
+    @Test
+    public void pagerReturnsAtEndAndReportsBadInput() throws Exception {
+        String screen = page(tree(30), "J 12\nX\n\n\n");
+        assertTrue(screen.contains("Invalid engine number"));
+        assertTrue(screen.contains("Unknown command: X"));
+        // two Enters: page 2 is the last one, the second Enter leaves the pager
+        assertEquals(List.of(eng(0), eng(0), eng(0), eng(25)), firstRowOfEachPage(screen));
+        assertEquals("(no records)" + System.lineSeparator(), page(new InventoryBST(), "\n"));
+    }
+
+    @Test
+    public void exportWritesWholeListingToFile() throws Exception {
+        Path file = Files.createTempFile("inventory", ".txt");
+        try {
+            assertEquals(2_500, InventoryPager.export(InventoryPager.of(tree(2_500)), file));
+            List<String> lines = Files.readAllLines(file);
+            assertEquals(2_502, lines.size());
+            assertTrue(lines.get(0).startsWith("Brand"));
+            assertTrue(lines.get(2).contains(eng(0)));
+            assertTrue(lines.get(2_501).contains(eng(2_499)));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static String page(InventoryBST bst, String input) throws Exception {
+        PrintStream original = System.out;
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        System.setOut(new PrintStream(baos, true));
+        try {
+            new InventoryPager(InventoryPager.of(bst), 25, new Scanner(input), InventoryTable.console()).run();
+        } finally {
+            System.setOut(original);
+        }
+        return baos.toString();
+    }
+
+    // Engine number on the first data row after each table rule; "" for an empty page.
+    private static List<String> firstRowOfEachPage(String screen) {
+        List<String> out = new ArrayList<>();
+        String[] lines = screen.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].startsWith("-----")) continue;
+            String next = i + 1 < lines.length ? lines[i + 1] : "";
+            out.add(next.length() >= 28 ? next.substring(16, 28).trim() : "");
+        }
+        return out;
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -3,6 +3,7 @@ package com.motorph.inventory.test;
 import com.motorph.inventory.DB;
 import com.motorph.inventory.InventoryData;
 import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.SellResult;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -71,6 +72,120 @@ public class JdbcInventoryRepositoryTest {
         assertEquals(total, all.size());
     }
 
+    @Test
+    public void insertAllReportsDuplicatesPerRow() throws Exception {
+        repo.insert(new InventoryData("Toyota", "0000000005", new Date(), "On-hand", "New"));
+        java.util.List<InventoryData> rows = new java.util.ArrayList<>();
+        for (int i = 0; i < 2_500; i++) {
+            rows.add(new InventoryData("Brand" + i, String.format("%010d", i), new Date(), "On-hand", "New"));
+        }
+        rows.add(new InventoryData("Honda", "0000000007", new Date(), "On-hand", "New")); // repeated in input
+
+        com.motorph.inventory.BulkInsertResult result = repo.insertAll(rows);
+
+        assertEquals(2_499, result.getInserted());
+        assertEquals(2, result.getRejections().size());
+        assertEquals(5, result.getRejections().get(0).index());
+        assertEquals("0000000005", result.getRejections().get(0).engineNumber());
+        assertEquals(2_500, result.getRejections().get(1).index());
+        assertEquals("Toyota", repo.findByEngineNumber("0000000005").getBrand());
+        assertEquals(2_500, repo.findAllSortedByEngineNumber().size());
+    }
+
+    @Test
+    public void findPageWalksTableInKeysetOrder() throws Exception {
+        int total = 1_050;
+        for (int i = total - 1; i >= 0; i--) {
+            repo.insert(new InventoryData("Brand" + i, String.format("%010d", i), new Date(), "On-hand", "New"));
+        }
+        String after = null;
+        int seen = 0;
+        int pages = 0;
+        while (true) {
+            java.util.List<InventoryData> page = repo.findPage(after, 100);
+            if (page.isEmpty()) break;
+            for (InventoryData d : page) {
+                assertEquals(String.format("%010d", seen), d.getEngineNumber());
+                seen++;
+            }
+            pages++;
+            after = page.get(page.size() - 1).getEngineNumber();
+        }
+        assertEquals(total, seen);
+        assertEquals(11, pages);
+    }
+
+    @Test
+    public void forEachStreamsInSortedOrder() throws Exception {
+        for (int i = 0; i < 500; i++) {
+            repo.insert(new InventoryData("Brand", String.format("%010d", (i * 7919) % 500), new Date(), "On-hand", "New"));
+        }
+        final String[] last = {""};
+        final int[] count = {0};
+        repo.forEachSortedByEngineNumber(d -> {
+            assertTrue(d.getEngineNumber().compareTo(last[0]) > 0);
+            last[0] = d.getEngineNumber();
+            count[0]++;
+        });
+        assertEquals(500, count[0]);
+    }
+
+    @Test
+    public void sellRemovesRowAndWritesAuditTogether() throws Exception {
+        repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "New"));
+        repo.insert(new InventoryData("Honda", "1000000002", new Date(), "Old", "Sold"));
+
+        SellResult sold = repo.sell("1000000001", "on-hand", "admin", "test");
+        assertEquals(SellResult.Outcome.SOLD, sold.outcome());
+        assertEquals("Sold", sold.record().getLevel());
+        assertNull(repo.findByEngineNumber("1000000001"));
+
+        SellResult wrong = repo.sell("1000000002", "On-hand", "admin", "test");
+        assertEquals(SellResult.Outcome.WRONG_STATUS, wrong.outcome());
+        assertEquals("Old", wrong.record().getStatus());
+        assertNotNull(repo.findByEngineNumber("1000000002"));
+        assertEquals(SellResult.Outcome.NOT_FOUND, repo.sell("1000000001", "On-hand", "admin", "test").outcome());
+
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement();
+             java.sql.ResultSet rs = st.executeQuery("SELECT engine_number, status, level, outcome, details FROM audit_log")) {
+            assertTrue(rs.next());
+            assertEquals("1000000001", rs.getString(1));
+            assertEquals("Old", rs.getString(2));
+            assertEquals("Sold", rs.getString(3));
+            assertEquals("SUCCESS", rs.getString(4));
+            assertEquals("test", rs.getString(5));
+            assertFalse("rejections are audited by the caller", rs.next());
+        }
+    }
+
+    @Test
+    public void concurrentSellersOnlyOneWins() throws Exception {
+        repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "New"));
+        int threads = 8;
+        java.util.concurrent.ExecutorService pool = java.util.concurrent.Executors.newFixedThreadPool(threads);
+        java.util.concurrent.CountDownLatch go = new java.util.concurrent.CountDownLatch(1);
+        java.util.List<java.util.concurrent.Future<SellResult>> results = new java.util.ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            String user = "user" + i;
+            results.add(pool.submit(() -> {
+                go.await();
+                return repo.sell("1000000001", "On-hand", user, "race");
+            }));
+        }
+        go.countDown();
+        int sold = 0;
+        for (java.util.concurrent.Future<SellResult> f : results) {
+            if (f.get().sold()) sold++;
+        }
+        pool.shutdown();
+        assertEquals(1, sold);
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement();
+             java.sql.ResultSet rs = st.executeQuery("SELECT COUNT(*) FROM audit_log WHERE outcome = 'SUCCESS'")) {
+            rs.next();
+            assertEquals(1, rs.getInt(1));
+        }
+    }
+
     private void logBanner(String title) {
         System.out.println("\n--- " + title + " ---");
     }
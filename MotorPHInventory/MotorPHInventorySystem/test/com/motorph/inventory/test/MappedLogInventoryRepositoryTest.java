@@ -0,0 +1,208 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.BulkInsertResult;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.MappedLogInventoryRepository;
+import com.motorph.inventory.ReconcileMode;
+import com.motorph.inventory.ReconcileResult;
+import com.motorph.inventory.ReconcileRule;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static com.motorph.inventory.test.Fixtures.rec;
+import static org.junit.Assert.*;
+
+public class MappedLogInventoryRepositoryTest {
+
+    private Path dir;
+    private Path file;
+    private MappedLogInventoryRepository repo;
+
+    @Before
+    public void setup() throws Exception {
+        dir = Files.createTempDirectory("mmap-store");
+        file = dir.resolve("inventory.log");
+        repo = new MappedLogInventoryRepository(file, false);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        if (repo != null) repo.close();
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.delete(p);
+        }
+        Files.delete(dir);
+    }
+
+    @Test
+    public void crudRoundTrip() throws Exception {
+        repo.insert(rec(1));
+        repo.insert(rec(2));
+        assertEquals(rec(1), repo.findByEngineNumber(eng(1)));
+        try {
+            repo.insert(rec(1));
+            fail("duplicate insert accepted");
+        } catch (SQLException expected) {
+            // engine number is the key, same failure as the SQLite-backed stores
+        }
+        repo.update(rec(1).withStatusAndLevel("Old", "Sold"));
+        assertEquals("Sold", repo.findByEngineNumber(eng(1)).getLevel());
+        repo.deleteByEngineNumber(eng(2));
+        assertNull(repo.findByEngineNumber(eng(2)));
+        repo.update(rec(3));   // absent: no-op
+        assertNull(repo.findByEngineNumber(eng(3)));
+        assertEquals(1, repo.findAllSortedByEngineNumber().size());
+    }
+
+    @Test
+    public void bulkInsertAndPagesMatchSortedMap() throws Exception {
+        TreeMap<String, InventoryData> expected = new TreeMap<>();
+        List<InventoryData> rows = new ArrayList<>();
+        for (int i = 999; i >= 0; i--) rows.add(rec(i * 2L));
+        rows.add(rec(10));   // repeated in the input
+        rows.add(new InventoryData(null, eng(9_999), new Date(), "On-hand", "New"));
+        rows.add(new InventoryData("Kia", "12X", new Date(), "On-hand", "New"));   // not a 10-digit key
+        BulkInsertResult r = repo.insertAll(rows);
+        assertEquals(1_000, r.getInserted());
+        assertEquals(3, r.getRejections().size());
+        for (int i = 0; i < 1_000; i++) expected.put(eng(i * 2L), rec(i * 2L));
+
+        assertEquals(new ArrayList<>(expected.values()), repo.findAllSortedByEngineNumber());
+        assertEquals(new ArrayList<>(expected.values()).subList(0, 10), repo.findPage(null, 10));
+        assertEquals(new ArrayList<>(expected.tailMap(eng(41), false).values()).subList(0, 7),
+                repo.findPage(eng(41), 7));
+        assertEquals(new ArrayList<>(expected.tailMap("0000000041x", false).values()).subList(0, 7),
+                repo.findPage("0000000041x", 7));
+        assertTrue(repo.findPage(eng(1_998), 10).isEmpty());
+        assertNull(repo.findByEngineNumber("12X"));
+    }
+
+    @Test
+    public void reopenRebuildsIndexFromLog() throws Exception {
+        for (int i = 0; i < 300; i++) repo.insert(rec(i));
+        for (int i = 0; i < 300; i += 3) repo.update(rec(i).withStatusAndLevel("Old", "Sold"));
+        for (int i = 1; i < 300; i += 3) repo.deleteByEngineNumber(eng(i));
+        List<InventoryData> expected = repo.findAllSortedByEngineNumber();
+        repo.close();
+
+        repo = new MappedLogInventoryRepository(file, false);
+        assertEquals(expected, repo.findAllSortedByEngineNumber());
+        assertEquals(200, repo.getStats().records());
+        assertTrue(repo.getStats().deadBytes() > 0);
+    }
+
+    @Test
+    public void tornTailIsDroppedOnRecovery() throws Exception {
+        for (int i = 0; i < 10; i++) repo.insert(rec(i));
+        long size = repo.getStats().fileBytes();
+        repo.close();
+
+        // a half-written record: plausible length, wrong checksum, truncated payload
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            ByteBuffer torn = ByteBuffer.allocate(12).putInt(60).putInt(0xCAFEBABE).putInt(0x01000A30);
+            ch.write(torn.flip(), size);
+        }
+        repo = new MappedLogInventoryRepository(file, false);
+        assertEquals(10, repo.findAllSortedByEngineNumber().size());
+        assertEquals(size, repo.getStats().fileBytes());
+
+        // appends overwrite the torn bytes and survive another reopen
+        repo.insert(rec(10));
+        repo.close();
+        repo = new MappedLogInventoryRepository(file, false);
+        assertEquals(rec(10), repo.findByEngineNumber(eng(10)));
+        assertEquals(11, repo.findAllSortedByEngineNumber().size());
+    }
+
+    @Test
+    public void compactionKeepsLiveRowsAndReclaimsSpace() throws Exception {
+        for (int i = 0; i < 2_000; i++) repo.insert(rec(i));
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 2_000; i++) repo.update(rec(i).withStatusAndLevel("Old", round % 2 == 0 ? "Sold" : "Used"));
+        }
+        for (int i = 0; i < 2_000; i += 2) repo.deleteByEngineNumber(eng(i));
+        List<InventoryData> expected = repo.findAllSortedByEngineNumber();
+        MappedLogInventoryRepository.Stats before = repo.getStats();
+
+        assertTrue(repo.compactIfNeeded());
+        MappedLogInventoryRepository.Stats after = repo.getStats();
+        logBanner("Inventory Log Compaction");
+        System.out.println("before: " + before);
+        System.out.println("after:  " + after);
+        assertEquals(expected, repo.findAllSortedByEngineNumber());
+        assertEquals(0, after.deadBytes());
+        assertEquals(1, after.compactions());
+        assertTrue(after.fileBytes() * 10 < before.fileBytes());
+        assertFalse(repo.compactIfNeeded());
+
+        // the compacted file is what a restart sees
+        repo.insert(rec(0));
+        expected = repo.findAllSortedByEngineNumber();
+        repo.close();
+        repo = new MappedLogInventoryRepository(file, false);
+        assertEquals(expected, repo.findAllSortedByEngineNumber());
+        assertTrue(Files.exists(dir.resolve("inventory.log.1")));
+        assertEquals("1", Files.readString(dir.resolve("inventory.log.gen")).trim());
+    }
+
+    @Test
+    public void interruptedCompactionLeavesCurrentGenerationInPlace() throws Exception {
+        for (int i = 0; i < 10; i++) repo.insert(rec(i));
+        repo.compact();
+        repo.insert(rec(10));
+        repo.close();
+
+        // a later compaction that died before its commit, and a pointer update that never landed
+        Files.write(dir.resolve("inventory.log.2"), new byte[4096]);
+        Files.writeString(dir.resolve("inventory.log.gen.tmp"), "2\n");
+        repo = new MappedLogInventoryRepository(file, false);
+        assertEquals(11, repo.findAllSortedByEngineNumber().size());
+        assertFalse(Files.exists(dir.resolve("inventory.log.2")));
+        assertFalse(Files.exists(dir.resolve("inventory.log.gen.tmp")));
+        assertFalse(Files.exists(file));
+
+        // the next compaction moves on to a fresh generation
+        repo.compact();
+        assertEquals(11, repo.findAllSortedByEngineNumber().size());
+        repo.close();
+        repo = new MappedLogInventoryRepository(file, false);
+        assertEquals(11, repo.findAllSortedByEngineNumber().size());
+    }
+
+    @Test
+    public void reconcileScansTheLogAndRejectsTableModes() throws Exception {
+        repo.insert(rec(1));
+        repo.insert(new InventoryData("Kia", eng(2), new Date(), "On-hand", "Sold"));
+        assertEquals(ReconcileMode.SCAN, ReconcileMode.defaultFor(repo));
+        ReconcileResult r = ReconcileMode.defaultFor(repo).run(repo, issue -> { });
+        assertEquals(2, r.getScanned());
+        assertEquals(1, r.getCount(ReconcileRule.ON_HAND_SOLD));
+        for (ReconcileMode mode : new ReconcileMode[] {ReconcileMode.PUSHDOWN, ReconcileMode.INCREMENTAL, ReconcileMode.RESCAN}) {
+            assertFalse(mode.supports(repo));
+            try {
+                mode.run(repo, issue -> { });
+                fail(mode + " read the inventory table for the mmap store");
+            } catch (IllegalArgumentException expected) {
+                // names the mode and points at scan
+            }
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
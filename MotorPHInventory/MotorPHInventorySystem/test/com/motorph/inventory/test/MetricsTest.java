@@ -0,0 +1,89 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.LatencyHistogram;
+import com.motorph.inventory.MeteredInventoryRepository;
+import com.motorph.inventory.Metrics;
+import com.motorph.inventory.OperationMetrics;
+import org.junit.After;
+import org.junit.Test;
+
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Date;
+
+import static org.junit.Assert.*;
+
+public class MetricsTest {
+
+    @After
+    public void cleanup() throws Exception {
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    @Test
+    public void histogramPercentilesWithinBucketPrecision() {
+        LatencyHistogram h = new LatencyHistogram();
+        for (long v = 1; v <= 100_000; v++) {
+            h.record(v * 1_000);   // 1us .. 100ms, uniform
+        }
+        assertEquals(100_000, h.getCount());
+        assertEquals(100_000_000L, h.getMaxNanos());
+        assertWithin(50_000_000L, h.getPercentileNanos(50), 0.07);
+        assertWithin(99_000_000L, h.getPercentileNanos(99), 0.07);
+        assertEquals(50_000_500.0, h.getMeanNanos(), 1.0);
+    }
+
+    @Test
+    public void histogramRecordsConcurrentlyWithoutLoss() throws Exception {
+        LatencyHistogram h = new LatencyHistogram();
+        int threads = 8;
+        int perThread = 100_000;
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) h.record(i);
+            });
+            workers[t].start();
+        }
+        for (Thread w : workers) w.join();
+        assertEquals((long) threads * perThread, h.getCount());
+        assertEquals(perThread - 1, h.getMaxNanos());
+    }
+
+    @Test
+    public void meteredRepositoryRecordsCallsErrorsAndJmx() throws Exception {
+        MeteredInventoryRepository repo = new MeteredInventoryRepository(new JdbcInventoryRepository(), "metricstest");
+        repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "New"));
+        try {
+            repo.insert(new InventoryData("Honda", "1000000001", new Date(), "On-hand", "New"));
+            fail("duplicate insert should fail");
+        } catch (Exception expected) {
+            // counted as an error
+        }
+        for (int i = 0; i < 10; i++) repo.findByEngineNumber("1000000001");
+
+        OperationMetrics insert = Metrics.operation("metricstest.insert");
+        assertEquals(2, insert.getCount());
+        assertEquals(1, insert.getErrorCount());
+        assertEquals(10, Metrics.operation("metricstest.findByEngineNumber").getCount());
+        assertTrue(Metrics.operation("db.getConnection").getCount() > 0);
+
+        ObjectName on = new ObjectName("com.motorph.inventory:type=Operation,name="
+                + ObjectName.quote("metricstest.findByEngineNumber"));
+        assertEquals(10L, ManagementFactory.getPlatformMBeanServer().getAttribute(on, "Count"));
+
+        String dump = Metrics.dump();
+        assertTrue(dump.contains("metricstest.insert"));
+        System.out.println("\n--- Metrics Dump ---\n" + dump);
+    }
+
+    private static void assertWithin(long expected, long actual, double relative) {
+        assertTrue("expected ~" + expected + " but was " + actual,
+                Math.abs(actual - expected) <= expected * relative);
+    }
+}
@@ -4,6 +4,12 @@ import com.motorph.inventory.AuditLogger;
 import com.motorph.inventory.DB;
 import com.motorph.inventory.InventoryData;
 import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.ReconcileIssue;
+import com.motorph.inventory.ReconcileMode;
+import com.motorph.inventory.ReconcileResult;
+import com.motorph.inventory.ReconcileRule;
+import com.motorph.inventory.Reconciler;
+import com.motorph.inventory.SqlReconciler;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
@@ -84,6 +90,89 @@ public class ReconcileReportTest {
         }
     }
 
+    @Test
+    public void returnsPerRuleCountsAndStreamsIssuesInOrder() throws Exception {
+        repo.insert(new InventoryData("Toyota", "12X", new Date(), "On-hand", "New"));            // bad engine
+        repo.insert(new InventoryData("", "1234567899", null, "Broken", "Returned"));            // brand, status, level
+        repo.insert(new InventoryData("Ford", "1234567898", new Date(), "On-hand", "Sold"));      // On-hand + Sold
+        repo.insert(new InventoryData("Kia", "1234567897", new Date(), "Old", "New"));           // Old + New
+        repo.insert(new InventoryData("Honda", "1234567896", new Date(), "On-hand", "New"));     // clean
+
+        java.util.List<ReconcileIssue> streamed = new java.util.ArrayList<>();
+        ReconcileResult result = new Reconciler().run(repo, streamed::add);
+
+        assertEquals(5, result.getScanned());
+        assertEquals(1, result.getCount(ReconcileRule.INVALID_ENGINE_NUMBER));
+        assertEquals(1, result.getCount(ReconcileRule.MISSING_BRAND));
+        assertEquals(1, result.getCount(ReconcileRule.INVALID_STATUS));
+        assertEquals(1, result.getCount(ReconcileRule.INVALID_LEVEL));
+        assertEquals(1, result.getCount(ReconcileRule.ON_HAND_SOLD));
+        assertEquals(1, result.getCount(ReconcileRule.OLD_NEW));
+        assertEquals(6, result.getTotalIssues());
+        assertEquals(6, streamed.size());
+        assertEquals("1234567897 -> inconsistent: Old cannot be New", streamed.get(0).toString());
+        assertEquals("1234567899 -> invalid status 'Broken'", streamed.get(3).toString());
+        assertEquals("12X -> invalid engine number format", streamed.get(5).toString());
+    }
+
+    @Test
+    public void parallelScanCountsMatchAcrossChunks() throws Exception {
+        java.util.List<InventoryData> rows = new java.util.ArrayList<>();
+        int total = 20_000;
+        for (int i = 0; i < total; i++) {
+            String level = (i % 100 == 0) ? "Sold" : "New";   // every 100th row is On-hand + Sold
+            rows.add(new InventoryData("Brand", String.format("%010d", i), new Date(), "On-hand", level));
+        }
+        repo.insertAll(rows);
+
+        final long[] seen = {0};
+        final String[] last = {""};
+        ReconcileResult result = new Reconciler().run(repo, issue -> {
+            assertTrue(issue.engineNumber().compareTo(last[0]) > 0);
+            last[0] = issue.engineNumber();
+            seen[0]++;
+        });
+        assertEquals(total, result.getScanned());
+        assertEquals(total / 100, result.getCount(ReconcileRule.ON_HAND_SOLD));
+        assertEquals(total / 100, seen[0]);
+    }
+
+    @Test
+    public void pushdownMatchesJavaScan() throws Exception {
+        repo.insert(new InventoryData("Toyota", "12X", new Date(), "On-hand", "New"));
+        repo.insert(new InventoryData("  ", "1234567899", null, "Broken", "Returned"));
+        repo.insert(new InventoryData("Ford", "1234567898", new Date(), "on-hand", "SOLD"));
+        repo.insert(new InventoryData("Kia", "1234567897", new Date(), "Old", "New"));
+        for (int i = 0; i < 1_000; i++) {
+            repo.insert(new InventoryData("Brand", String.format("%010d", i), new Date(), "On-hand", "New"));
+        }
+
+        java.util.List<String> scanned = new java.util.ArrayList<>();
+        ReconcileResult scan = new Reconciler().run(repo, issue -> scanned.add(issue.toString()));
+        java.util.List<String> pushed = new java.util.ArrayList<>();
+        ReconcileResult push = new SqlReconciler().run(issue -> pushed.add(issue.toString()));
+
+        assertEquals(scan.getScanned(), push.getScanned());
+        assertEquals(scan.getCountsByRule(), push.getCountsByRule());
+        assertEquals(scanned, pushed);
+    }
+
+    @Test
+    public void pushdownModeLogsSummary() throws Exception {
+        repo.insert(new InventoryData("Ford", "1234567898", new Date(), "On-hand", "Sold"));
+        ReconcileResult result = audit.reconcileAndReport("admin", repo, ReconcileMode.PUSHDOWN);
+        assertEquals(1, result.getCount(ReconcileRule.ON_HAND_SOLD));
+
+        try (java.sql.Connection c = DB.getConnection();
+             java.sql.PreparedStatement ps = c.prepareStatement(
+                     "SELECT details FROM audit_log WHERE action='RECONCILE' ORDER BY id DESC LIMIT 1");
+             java.sql.ResultSet rs = ps.executeQuery()) {
+            assertTrue(rs.next());
+            assertTrue(rs.getString(1).contains("issues=1"));
+            assertTrue(rs.getString(1).contains("mode=pushdown"));
+        }
+    }
+
     private void logBanner(String title) {
     System.out.println("\n--- " + title + " ---");
 }
@@ -0,0 +1,164 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.BulkInsertResult;
+import com.motorph.inventory.DB;
+import com.motorph.inventory.InventoryData;
+import com.motorph.inventory.JdbcInventoryRepository;
+import com.motorph.inventory.ReconcileMode;
+import com.motorph.inventory.ReconcileResult;
+import com.motorph.inventory.ReconcileRule;
+import com.motorph.inventory.SnapshotInventoryRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.motorph.inventory.test.Fixtures.eng;
+import static com.motorph.inventory.test.Fixtures.rec;
+import static org.junit.Assert.*;
+
+public class SnapshotInventoryRepositoryTest {
+
+    private JdbcInventoryRepository backing;
+    private Path journalDir;
+    private SnapshotInventoryRepository repo;
+
+    @Before
+    public void setup() throws Exception {
+        clear();
+        backing = new JdbcInventoryRepository();
+        journalDir = Files.createTempDirectory("snapshot-journal");
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        if (repo != null) repo.close();
+        try (Stream<Path> files = Files.list(journalDir)) {
+            for (Path p : (Iterable<Path>) files::iterator) Files.delete(p);
+        }
+        Files.delete(journalDir);
+        clear();
+    }
+
+    @Test
+    public void loadsTableAndAnswersReadsFromMemory() throws Exception {
+        for (int i = 0; i < 100; i++) backing.insert(rec(i));
+        repo = new SnapshotInventoryRepository(journalDir, 50, 100);
+
+        assertEquals(backing.findAllSortedByEngineNumber(), repo.findAllSortedByEngineNumber());
+        assertEquals(backing.findPage(null, 10), repo.findPage(null, 10));
+        assertEquals(backing.findPage(eng(42), 10), repo.findPage(eng(42), 10));
+        assertEquals(backing.findPage("0000000042x", 5), repo.findPage("0000000042x", 5));
+        assertEquals(rec(7), repo.findByEngineNumber(eng(7)));
+        assertNull(repo.findByEngineNumber(eng(1_000)));
+    }
+
+    @Test
+    public void writesReachDatabaseWithinLag() throws Exception {
+        repo = new SnapshotInventoryRepository(journalDir, 1_000, 100);
+        repo.insert(rec(1));
+        repo.insert(rec(2));
+        repo.update(rec(1).withStatusAndLevel("Old", "Sold"));
+        repo.deleteByEngineNumber(eng(2));
+        assertEquals("Sold", repo.findByEngineNumber(eng(1)).getLevel());   // visible at once in memory
+        assertNull(repo.findByEngineNumber(eng(2)));
+
+        // the writer commits on its own once the lag is reached; flush() then picks up
+        // anything queued after that batch was taken
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (repo.getStats().flushedRows() == 0 && System.currentTimeMillis() < deadline) Thread.sleep(20);
+        assertTrue(repo.getStats().flushedRows() > 0);
+        repo.flush();
+        assertEquals(0, repo.getStats().pending());
+        assertEquals("Sold", backing.findByEngineNumber(eng(1)).getLevel());
+        assertNull(backing.findByEngineNumber(eng(2)));
+        // four changes to two keys coalesce into at most two row writes
+        assertTrue(repo.getStats().flushedRows() <= 2);
+    }
+
+    @Test
+    public void duplicatesAreRejectedLikeTheDatabase() throws Exception {
+        repo = new SnapshotInventoryRepository(journalDir, 100, 50);
+        repo.insert(rec(1));
+        try {
+            repo.insert(rec(1));
+            fail("duplicate insert accepted");
+        } catch (java.sql.SQLException expected) {
+            // same contract as JdbcInventoryRepository
+        }
+        List<InventoryData> rows = new ArrayList<>();
+        for (int i = 0; i < 2_500; i++) rows.add(rec(i));
+        rows.add(new InventoryData(null, eng(9_999), new Date(), "On-hand", "New"));
+        BulkInsertResult r = repo.insertAll(rows);
+        assertEquals(2_499, r.getInserted());
+        assertEquals(2, r.getRejections().size());
+        repo.flush();
+        assertEquals(2_500, backing.findAllSortedByEngineNumber().size());
+    }
+
+    @Test
+    public void haltedWritesAreReplayedFromJournal() throws Exception {
+        // lag far above the test's run time: nothing is flushed before the "crash"
+        repo = new SnapshotInventoryRepository(journalDir, 100_000, 600_000);
+        for (int i = 0; i < 300; i++) repo.insert(rec(i));
+        for (int i = 0; i < 300; i += 3) repo.update(rec(i).withStatusAndLevel("Old", "Sold"));
+        for (int i = 1; i < 300; i += 3) repo.deleteByEngineNumber(eng(i));
+        List<InventoryData> expected = repo.findAllSortedByEngineNumber();
+        repo.halt();
+        assertTrue(backing.findAllSortedByEngineNumber().isEmpty());
+
+        repo = new SnapshotInventoryRepository(journalDir, 100, 50);
+        assertEquals(expected, repo.findAllSortedByEngineNumber());
+        assertEquals(expected, backing.findAllSortedByEngineNumber());
+        assertTrue(repo.verify().isConsistent());
+    }
+
+    @Test
+    public void verifyReportsOutOfBandChanges() throws Exception {
+        repo = new SnapshotInventoryRepository(journalDir, 100, 50);
+        for (int i = 0; i < 10; i++) repo.insert(rec(i));
+        SnapshotInventoryRepository.ConsistencyReport ok = repo.verify();
+        assertTrue(ok.samples().toString(), ok.isConsistent());
+        assertEquals(10, ok.databaseRows());
+
+        backing.deleteByEngineNumber(eng(3));
+        backing.update(rec(4).withStatusAndLevel("Old", "Sold"));
+        backing.insert(rec(50));
+        SnapshotInventoryRepository.ConsistencyReport bad = repo.verify();
+        logBanner("Snapshot Consistency");
+        bad.samples().forEach(System.out::println);
+        assertEquals(3, bad.mismatches());
+        assertEquals(10, bad.memoryRows());
+        assertEquals(10, bad.databaseRows());
+    }
+
+    @Test
+    public void sqlReconcileSeesWritesNotYetFlushed() throws Exception {
+        repo = new SnapshotInventoryRepository(journalDir, 100_000, 600_000);   // nothing flushes by itself
+        repo.insert(rec(1));
+        repo.insert(new InventoryData("Kia", eng(2), new Date(), "On-hand", "Sold"));
+        assertNull(backing.findByEngineNumber(eng(2)));
+
+        ReconcileResult r = ReconcileMode.PUSHDOWN.run(repo, issue -> { });
+        assertEquals(2, r.getScanned());
+        assertEquals(1, r.getCount(ReconcileRule.ON_HAND_SOLD));
+        assertEquals(0, repo.getStats().pending());
+    }
+
+    private void clear() throws Exception {
+        try (java.sql.Connection c = DB.getConnection(); java.sql.Statement st = c.createStatement()) {
+            st.executeUpdate("DELETE FROM audit_log");
+            st.executeUpdate("DELETE FROM inventory");
+        }
+    }
+
+    private void logBanner(String title) {
+        System.out.println("\n--- " + title + " ---");
+    }
+}
@@ -0,0 +1,44 @@
+package com.motorph.inventory.test;
+
+import com.motorph.inventory.DB;
+import com.motorph.inventory.StorageProfile;
+import org.junit.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.*;
+
+public class StorageProfileTest {
+
+    @Test
+    public void presetsDifferInDurabilitySettings() {
+        StorageProfile safe = StorageProfile.of(StorageProfile.Preset.SAFE, "x.db");
+        assertEquals(StorageProfile.JournalMode.DELETE, safe.getJournalMode());
+        assertEquals(StorageProfile.Synchronous.FULL, safe.getSynchronous());
+
+        StorageProfile balanced = StorageProfile.of(StorageProfile.Preset.BALANCED, "x.db");
+        assertEquals(StorageProfile.JournalMode.WAL, balanced.getJournalMode());
+        assertEquals(StorageProfile.Synchronous.NORMAL, balanced.getSynchronous());
+        assertEquals("jdbc:sqlite:x.db", balanced.getUrl());
+    }
+
+    @Test
+    public void activeProfileIsAppliedToPooledConnections() throws Exception {
+        StorageProfile p = DB.getProfile();
+        try (Connection c = DB.getConnection(); Statement st = c.createStatement()) {
+            assertEquals(p.getJournalMode().name().toLowerCase(), pragma(st, "journal_mode").toLowerCase());
+            assertEquals(String.valueOf(p.getSynchronous().ordinal()), pragma(st, "synchronous"));
+            assertEquals(String.valueOf(p.getBusyTimeoutMs()), pragma(st, "busy_timeout"));
+            assertEquals(String.valueOf(-p.getCacheSizeKb()), pragma(st, "cache_size"));
+        }
+    }
+
+    private String pragma(Statement st, String name) throws Exception {
+        try (ResultSet rs = st.executeQuery("PRAGMA " + name)) {
+            assertTrue(rs.next());
+            return rs.getString(1);
+        }
+    }
+}